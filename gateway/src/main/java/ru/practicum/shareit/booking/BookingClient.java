@@ -2,57 +2,73 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private static final List<String> INVALIDATED_PREFIXES = List.of(API_PREFIX, "/items");
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         ResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                responseCache,
+                API_PREFIX,
+                INVALIDATED_PREFIXES
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getBookings(long userId, String state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
+        ));
+        if (cursor == null) {
+            return get("?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
 
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?state={state}&size={size}&cursor={cursor}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(long userId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getOwnerBookings(long userId, String state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
+        ));
+        if (cursor == null) {
+            return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
 
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get("/owner?state={state}&size={size}&cursor={cursor}", userId, parameters);
     }
 
 
-    public ResponseEntity<Object> addBooking(BookingDto bookingDto, long userId) {
+    public Mono<ResponseEntity<Object>> addBooking(BookingDto bookingDto, long userId) {
 
         return post("", userId, null, bookingDto);
     }
 
-    public ResponseEntity<Object> approveBooking(long bookingId, boolean approved,  long userId) {
+    public Mono<ResponseEntity<Object>> approveBooking(long bookingId, boolean approved,  long userId) {
         Map<String, Object> parameters = Map.of(
                 "approved", String.valueOf(approved)
         );
@@ -60,7 +76,12 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBooking(long bookingId, long userId) {
+    public Mono<ResponseEntity<Object>> approveBookings(List<BookingDecisionDto> decisions, long userId) {
+
+        return patch("/batch", userId, decisions);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(long bookingId, long userId) {
 
         return get("/" + bookingId, userId);
     }
@@ -5,11 +5,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -22,7 +27,7 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping("/bookings")
-    public ResponseEntity<Object> addBooking(@RequestBody @Valid BookingDto bookingDto,
+    public Mono<ResponseEntity<Object>> addBooking(@RequestBody @Valid BookingDto bookingDto,
                                         @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
         log.debug("POST /booking request");
         log.debug("X-Sharer-User-Id: {}", userId);
@@ -31,7 +36,7 @@ public class BookingController {
     }
 
     @PatchMapping("/bookings/{bookingId}")
-    public ResponseEntity<Object> updateBooking(@PathVariable Long bookingId,
+    public Mono<ResponseEntity<Object>> updateBooking(@PathVariable Long bookingId,
                                                         @RequestParam(value = "approved") @NotNull Boolean approved,
                                                         @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
         log.debug("PATCH /bookings/{bookingId}?approved={approved}");
@@ -41,8 +46,18 @@ public class BookingController {
         return bookingClient.approveBooking(bookingId, approved, userId);
     }
 
+    @PatchMapping("/bookings/batch")
+    public Mono<ResponseEntity<Object>> updateBookings(@RequestBody @NotEmpty @Size(max = 100) List<@Valid BookingDecisionDto> decisions,
+                                                 @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.debug("PATCH /bookings/batch");
+        log.debug("X-Sharer-User-Id: {}", userId);
+        log.debug("decisions: {}", decisions.size());
+
+        return bookingClient.approveBookings(decisions, userId);
+    }
+
     @GetMapping("/bookings/{bookingId}")
-    public ResponseEntity<Object> getBooking(@PathVariable long bookingId,
+    public Mono<ResponseEntity<Object>> getBooking(@PathVariable long bookingId,
                                                      @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
         log.debug("GET /bookings/{bookingId} request");
         log.debug("X-Sharer-User-Id: {}", userId);
@@ -52,34 +67,38 @@ public class BookingController {
     }
 
     @GetMapping("/bookings")
-    public ResponseEntity<Object> getAllUserBooking(@RequestParam(value = "state", required = false) String state,
+    public Mono<ResponseEntity<Object>> getAllUserBooking(@RequestParam(value = "state", required = false) String state,
                                                                   @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
                                                                   @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
-                                                                  @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
+                                                                  @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size,
+                                                                  @RequestParam(required = false) String cursor) {
         log.debug("GET /bookings?state={state}");
         log.debug("X-Sharer-User-Id: {}", userId);
         log.debug("BookingStatus: {}", state);
         log.debug("from: {}", from);
         log.debug("size: {}", size);
+        log.debug("cursor: {}", cursor);
         String stateCorrect = Optional.ofNullable(Optional.ofNullable(BookingStatus.from(state))
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + state))).get().name();
 
-        return bookingClient.getBookings(userId, stateCorrect, from, size);
+        return bookingClient.getBookings(userId, stateCorrect, from, size, cursor);
     }
 
     @GetMapping("/bookings/owner")
-    public ResponseEntity<Object> getAllBookingsUserItems(@RequestParam(value = "state", required = false) String state,
+    public Mono<ResponseEntity<Object>> getAllBookingsUserItems(@RequestParam(value = "state", required = false) String state,
                                                                         @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
                                                                         @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
-                                                                        @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
+                                                                        @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size,
+                                                                        @RequestParam(required = false) String cursor) {
         log.debug("GET /bookings/owner?state={state}");
         log.debug("X-Sharer-User-Id: {}", userId);
         log.debug("BookingStatus: {}", state);
         log.debug("from: {}", from);
         log.debug("size: {}", size);
+        log.debug("cursor: {}", cursor);
         String stateCorrect = Optional.ofNullable(Optional.ofNullable(BookingStatus.from(state))
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + state))).get().name();
 
-        return bookingClient.getOwnerBookings(userId, stateCorrect, from, size);
+        return bookingClient.getOwnerBookings(userId, stateCorrect, from, size, cursor);
     }
 }
@@ -1,94 +1,183 @@
 package ru.practicum.shareit.client;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization");
+    private static final List<String> CONDITIONAL_HEADERS = List.of(HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+
+    protected final WebClient rest;
+    private final ResponseCache cache;
+    private final String cachePrefix;
+    private final List<String> invalidatedPrefixes;
+
+    /**
+     * @param cachePrefix         prefix under which GET responses of this client are cached
+     * @param invalidatedPrefixes prefixes whose cached responses a post, put, patch or delete makes stale
+     */
+    public BaseClient(WebClient rest, ResponseCache cache, String cachePrefix, List<String> invalidatedPrefixes) {
         this.rest = rest;
+        this.cache = cache;
+        this.cachePrefix = cachePrefix;
+        this.invalidatedPrefixes = invalidatedPrefixes;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    protected Flux<String> stream(String path, long userId, Map<String, Object> parameters) {
+        return rest.get()
+                .uri(path, parameters)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .retrieve()
+                .bodyToFlux(String.class)
+                .map(line -> line + "\n");
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (method == HttpMethod.GET) {
+            if (cache.isEnabled()) {
+                return sendCachedRequest(path, userId, parameters);
+            }
+            HttpHeaders conditionalHeaders = conditionalHeaders();
+            return streamGatewayResponse(prepareRequest(method, path, userId, parameters, body)
+                    .headers(headers -> headers.addAll(conditionalHeaders)));
+        }
+
+        Mono<ResponseEntity<Object>> response = streamGatewayResponse(prepareRequest(method, path, userId, parameters, body));
+        return cache.isEnabled() ? response.doOnNext(entity -> cache.invalidate(invalidatedPrefixes)) : response;
+    }
+
+    private Mono<ResponseEntity<Object>> sendCachedRequest(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        String key = userId + " " + UriComponentsBuilder.fromUriString(path)
+                .buildAndExpand(parameters != null ? parameters : Map.of())
+                .toUriString();
+        CachedResponse cached = cache.get(cachePrefix, key);
+        if (cached != null && cache.isFresh(cached)) {
+            return Mono.just(cached.toResponseEntity());
+        }
+        long generation = cache.generation(cachePrefix);
+
+        return prepareRequest(HttpMethod.GET, path, userId, parameters, null)
+                .headers(headers -> {
+                    if (cached != null) {
+                        headers.setIfNoneMatch(cached.getEtag());
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (cached != null && response.statusCode() == HttpStatus.NOT_MODIFIED) {
+                        CachedResponse refreshed = cached.refreshed();
+                        cache.put(cachePrefix, key, refreshed, generation);
+                        return response.releaseBody().thenReturn(refreshed.toResponseEntity());
+                    }
+                    return bufferGatewayResponse(response).doOnNext(entity -> {
+                        if (entity.getStatusCode() == HttpStatus.OK) {
+                            cache.put(cachePrefix, key, CachedResponse.of(entity), generation);
+                        }
+                    });
+                });
+    }
+
+    private <T> WebClient.RequestHeadersSpec<?> prepareRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = rest.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+
+        return body != null ? request.bodyValue(body) : request;
+    }
+
+    /**
+     * Conditional headers of the incoming request. A cached GET does not forward them: the cache needs
+     * the full body, and Spring MVC answers 304 itself when the cached ETag matches.
+     */
+    private static HttpHeaders conditionalHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+            for (String name : CONDITIONAL_HEADERS) {
+                String value = request.getHeader(name);
+                if (value != null) {
+                    headers.set(name, value);
+                }
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return headers;
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -101,17 +190,38 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    /**
+     * Passes the server response on as soon as its headers arrive, with the body as a stream of buffers
+     * that {@link DataBufferStreamReturnValueHandler} writes to the client. Any status is passed through.
+     */
+    private static Mono<ResponseEntity<Object>> streamGatewayResponse(WebClient.RequestHeadersSpec<?> request) {
+        return request.retrieve()
+                .onRawStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(entity -> ResponseEntity.status(entity.getStatusCodeValue())
+                        .headers(endToEndHeaders(entity.getHeaders()))
+                        .body(entity.getBody()));
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    /**
+     * Reads the whole body into memory; only a response that is about to be cached needs that.
+     */
+    private static Mono<ResponseEntity<Object>> bufferGatewayResponse(ClientResponse response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.rawStatusCode())
+                .headers(endToEndHeaders(response.headers().asHttpHeaders()));
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
+        return response.bodyToMono(byte[].class)
+                .map(body -> responseBuilder.<Object>body(body))
+                .defaultIfEmpty(responseBuilder.build());
+    }
 
-        return responseBuilder.build();
+    private static HttpHeaders endToEndHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
     }
 }
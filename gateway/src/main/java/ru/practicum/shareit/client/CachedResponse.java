@@ -0,0 +1,38 @@
+package ru.practicum.shareit.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+@Getter
+@AllArgsConstructor
+class CachedResponse {
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final long storedAt;
+
+    static CachedResponse of(ResponseEntity<Object> response) {
+        return new CachedResponse(HttpHeaders.readOnlyHttpHeaders(response.getHeaders()), (byte[]) response.getBody(),
+                System.nanoTime());
+    }
+
+    CachedResponse refreshed() {
+        return new CachedResponse(headers, body, System.nanoTime());
+    }
+
+    String getEtag() {
+        return headers.getETag();
+    }
+
+    boolean isFresh(Duration ttl) {
+        return System.nanoTime() - storedAt < ttl.toNanos();
+    }
+
+    ResponseEntity<Object> toResponseEntity() {
+        return ResponseEntity.status(HttpStatus.OK).headers(headers).body(body);
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitterReturnValueHandler;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Writes a server response body that {@link BaseClient} passes through unbuffered. The request goes async
+ * instead of holding its container thread: each buffer is sent to the client and flushed as it arrives from
+ * the server, then released. When the client goes away, the request times out or the server response fails,
+ * the server response is cancelled and the buffers still queued are released as well.
+ * <p>
+ * Spring MVC only streams a publisher it can see in the declared return type; the client methods declare
+ * {@code ResponseEntity<Object>}, so this handler picks up the publisher bodies those hide.
+ */
+class DataBufferStreamReturnValueHandler implements AsyncHandlerMethodReturnValueHandler {
+
+    private final ResponseBodyEmitterReturnValueHandler emitterHandler =
+            new ResponseBodyEmitterReturnValueHandler(List.of(new ByteArrayHttpMessageConverter()));
+
+    @Override
+    public boolean isAsyncReturnValue(Object returnValue, MethodParameter returnType) {
+        return returnValue instanceof ResponseEntity
+                && ((ResponseEntity<?>) returnValue).getBody() instanceof Publisher
+                && !emitterHandler.supportsReturnType(returnType);
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return ResponseEntity.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        ResponseEntity<?> entity = (ResponseEntity<?>) returnValue;
+        Flux<DataBuffer> body = Flux.from((Publisher<DataBuffer>) entity.getBody())
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        try {
+            emitterHandler.handleReturnValue(ResponseEntity.status(entity.getStatusCodeValue())
+                    .headers(entity.getHeaders())
+                    .body(emitter), returnType, mavContainer, webRequest);
+        } catch (Exception e) {
+            body.subscribe(DataBufferUtils::release, error -> { });
+            throw e;
+        }
+        Disposable subscription = body
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .subscribe(buffer -> send(emitter, buffer), emitter::completeWithError, emitter::complete);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+    }
+
+    private static void send(ResponseBodyEmitter emitter, DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        try {
+            buffer.read(bytes);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+        try {
+            emitter.send(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Successful GET responses grouped by resource prefix ("/items", "/bookings", ...) and keyed by
+ * user, path and query. A mutation clears whole prefixes and bumps their generation, so a GET that
+ * was already in flight cannot put a response read before the mutation back into the cache.
+ */
+public class ResponseCache {
+
+    private final ResponseCacheProperties properties;
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+
+    public ResponseCache(ResponseCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    CachedResponse get(String prefix, String key) {
+        CachedResponse cached = region(prefix).entries.getIfPresent(key);
+        return cached != null && (cached.isFresh(properties.getTtl()) || cached.getEtag() != null) ? cached : null;
+    }
+
+    boolean isFresh(CachedResponse cached) {
+        return cached.isFresh(properties.getTtl());
+    }
+
+    long generation(String prefix) {
+        return region(prefix).generation.get();
+    }
+
+    void put(String prefix, String key, CachedResponse response, long generation) {
+        Region region = region(prefix);
+        if (region.generation.get() != generation) {
+            return;
+        }
+        region.entries.put(key, response);
+        if (region.generation.get() != generation) {
+            region.entries.asMap().remove(key, response);
+        }
+    }
+
+    void invalidate(Collection<String> prefixes) {
+        for (String prefix : prefixes) {
+            Region region = region(prefix);
+            region.generation.incrementAndGet();
+            region.entries.invalidateAll();
+        }
+    }
+
+    private Region region(String prefix) {
+        return regions.computeIfAbsent(prefix, key -> new Region(Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getRetention())
+                .build()));
+    }
+
+    private static class Region {
+        private final Cache<String, CachedResponse> entries;
+        private final AtomicLong generation = new AtomicLong();
+
+        Region(Cache<String, CachedResponse> entries) {
+            this.entries = entries;
+        }
+    }
+}
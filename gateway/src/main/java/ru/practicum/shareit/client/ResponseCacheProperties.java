@@ -0,0 +1,30 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.cache")
+@Getter
+@Setter
+public class ResponseCacheProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Maximum cached responses for each resource, e.g. "/items".
+     */
+    private long maxSize = 10_000;
+
+    /**
+     * Responses younger than this are served without asking the server.
+     */
+    private Duration ttl = Duration.ofSeconds(5);
+
+    /**
+     * Older responses are kept this long to be revalidated with If-None-Match.
+     */
+    private Duration retention = Duration.ofMinutes(10);
+}
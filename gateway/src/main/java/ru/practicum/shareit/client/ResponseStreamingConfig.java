@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers {@link DataBufferStreamReturnValueHandler}, without which a streamed body would be handed to
+ * the message converters and Jackson would try to serialize it as a bean.
+ */
+@Configuration
+public class ResponseStreamingConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addReturnValueHandlers(List<HandlerMethodReturnValueHandler> handlers) {
+        handlers.add(new DataBufferStreamReturnValueHandler());
+    }
+}
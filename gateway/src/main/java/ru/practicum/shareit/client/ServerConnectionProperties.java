@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit-server.connection")
+@Getter
+@Setter
+public class ServerConnectionProperties {
+
+    /**
+     * Maximum open connections to each server address.
+     */
+    private int maxConnections = 50;
+
+    /**
+     * Maximum requests waiting for a free connection; further requests fail fast.
+     */
+    private int maxPending = 500;
+
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Idle connections are closed after this time, before the server's keep-alive timeout closes them.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    private boolean metrics = true;
+}
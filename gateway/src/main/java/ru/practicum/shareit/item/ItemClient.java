@@ -2,61 +2,104 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final List<String> INVALIDATED_PREFIXES = List.of(API_PREFIX, "/requests", "/bookings");
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                responseCache,
+                API_PREFIX,
+                INVALIDATED_PREFIXES
         );
     }
 
-    public ResponseEntity<Object> addCommentItem(CommentDto commentDto, long itemId, long userId) {
+    public Mono<ResponseEntity<Object>> addCommentItem(CommentDto commentDto, long itemId, long userId) {
 
         return post("/" + itemId + "/comment", userId, null, commentDto);
     }
 
-    public ResponseEntity<Object> addItem(ItemDto itemDto, long userId) {
+    public Mono<ResponseEntity<Object>> addItem(ItemDto itemDto, long userId) {
 
         return post("", userId, null, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(ItemDto itemDto, long itemId,  long userId) {
+    public Mono<ResponseEntity<Object>> addItems(List<ItemDto> itemDtos, long userId) {
+
+        return post("/batch", userId, null, itemDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(ItemDto itemDto, long itemId,  long userId) {
 
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemWithBookings(long itemId, long userId) {
+    public Mono<ResponseEntity<Object>> getItemWithBookings(long itemId, long userId) {
 
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAllUserItems(long userId) {
+    public Mono<ResponseEntity<Object>> getComments(long itemId, long userId, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "size", size
+        ));
+        if (cursor == null) {
+            return get("/" + itemId + "/comments?size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+
+        return get("/" + itemId + "/comments?size={size}&cursor={cursor}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllUserItems(long userId) {
 
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItemsBySearch(String text, long userId) {
+    public Mono<ResponseEntity<Object>> getItemsBySearch(String text, long userId, Integer from, Integer size, Long afterId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "text", text,
+                "from", from
+        ));
+        StringBuilder path = new StringBuilder("/search?text={text}&from={from}");
+        if (size != null) {
+            parameters.put("size", size);
+            path.append("&size={size}");
+        }
+        if (afterId != null) {
+            parameters.put("afterId", afterId);
+            path.append("&afterId={afterId}");
+        }
+
+        return get(path.toString(), userId, parameters);
+    }
+
+    public Flux<String> streamItemsBySearch(String text, long userId) {
         Map<String, Object> parameters = Map.of(
                 "text", text
         );
 
-        return get("/search?text={text}", userId, parameters);
+        return stream("/search/stream?text={text}", userId, parameters);
     }
 }
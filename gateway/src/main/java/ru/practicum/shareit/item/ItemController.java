@@ -2,22 +2,31 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 @Slf4j
+@Validated
 public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping("/items/{itemId}/comment")
-    public ResponseEntity<Object> addCommentItem(@RequestBody @Valid CommentDto commentDto,
+    public Mono<ResponseEntity<Object>> addCommentItem(@RequestBody @Valid CommentDto commentDto,
                                                   @PathVariable @NotNull Long itemId,
                                                   @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
         log.debug("POST /items/{itemId}/comment");
@@ -27,7 +36,7 @@ public class ItemController {
     }
 
     @PostMapping("/items")
-    public ResponseEntity<Object> addItem(@RequestBody @Valid ItemDto itemDto,
+    public Mono<ResponseEntity<Object>> addItem(@RequestBody @Valid ItemDto itemDto,
                                         @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
         log.debug("POST /items request");
         log.debug("X-Sharer-User-Id: {}", userId);
@@ -36,8 +45,18 @@ public class ItemController {
         return itemClient.addItem(itemDto, userId);
     }
 
+    @PostMapping("/items/batch")
+    public Mono<ResponseEntity<Object>> addItems(@RequestBody @NotEmpty @Size(max = 1000) List<@Valid ItemDto> itemDtos,
+                                           @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.debug("POST /items/batch request");
+        log.debug("X-Sharer-User-Id: {}", userId);
+        log.debug("items: {}", itemDtos.size());
+
+        return itemClient.addItems(itemDtos, userId);
+    }
+
     @PatchMapping("/items/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestBody ItemDto itemDto, @PathVariable Long itemId,
+    public Mono<ResponseEntity<Object>> updateItem(@RequestBody ItemDto itemDto, @PathVariable Long itemId,
                                                   @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
         log.debug("PATCH /items request");
         log.debug("X-Sharer-User-Id: {}", userId);
@@ -47,7 +66,7 @@ public class ItemController {
     }
 
     @GetMapping("/items/{itemId}")
-    public ResponseEntity<Object> getItem(@PathVariable long itemId,
+    public Mono<ResponseEntity<Object>> getItem(@PathVariable long itemId,
                                         @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
         log.debug("GET /items/{itemId} request");
         log.debug("X-Sharer-User-Id: {}", userId);
@@ -56,8 +75,21 @@ public class ItemController {
         return itemClient.getItemWithBookings(itemId, userId);
     }
 
+    @GetMapping("/items/{itemId}/comments")
+    public Mono<ResponseEntity<Object>> getComments(@PathVariable long itemId,
+                                              @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false, defaultValue = "20") @Min(1) Integer size) {
+        log.debug("GET /items/{itemId}/comments?cursor={cursor}&size={size}");
+        log.debug("X-Sharer-User-Id: {}", userId);
+        log.debug("itemId: {}", itemId);
+        log.debug("cursor: {}", cursor);
+
+        return itemClient.getComments(itemId, userId, cursor, size);
+    }
+
     @GetMapping("/items")
-    public ResponseEntity<Object> getAllUserItems(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+    public Mono<ResponseEntity<Object>> getAllUserItems(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
         log.debug("GET /items request");
         log.debug("X-Sharer-User-Id: {}", userId);
 
@@ -65,12 +97,30 @@ public class ItemController {
     }
 
     @GetMapping("/items/search")
-    public ResponseEntity<Object> getItemsBySearch(@RequestParam(value = "text") String text,
-                                                       @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
-        log.debug("GET /items/search?text={text}");
+    public Mono<ResponseEntity<Object>> getItemsBySearch(@RequestParam(value = "text") String text,
+                                                       @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
+                                                       @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
+                                                       @RequestParam(required = false) @Min(1) Integer size,
+                                                       @RequestParam(required = false) @Min(0) Long afterId) {
+        log.debug("GET /items/search?text={text}&from={from}&size={size}&afterId={afterId}");
+        log.debug("X-Sharer-User-Id: {}", userId);
+        log.debug("text: {}", text);
+        log.debug("from: {}", from);
+        log.debug("size: {}", size);
+        log.debug("afterId: {}", afterId);
+
+        return itemClient.getItemsBySearch(text, userId, from, size, afterId);
+    }
+
+    @GetMapping(value = "/items/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<String>> streamItemsBySearch(@RequestParam(value = "text") String text,
+                                                                     @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.debug("GET /items/search/stream?text={text}");
         log.debug("X-Sharer-User-Id: {}", userId);
         log.debug("text: {}", text);
 
-        return itemClient.getItemsBySearch(text, userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(itemClient.streamItemsBySearch(text, userId));
     }
 }
@@ -2,32 +2,38 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ItemRequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
+    private static final List<String> INVALIDATED_PREFIXES = List.of(API_PREFIX);
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                             ResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                responseCache,
+                API_PREFIX,
+                INVALIDATED_PREFIXES
         );
     }
 
-    public ResponseEntity<Object> getAllOtherUsersRequests(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllOtherUsersRequests(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -36,17 +42,17 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> addRequest(ItemRequestDto itemRequestDto, long userId) {
+    public Mono<ResponseEntity<Object>> addRequest(ItemRequestDto itemRequestDto, long userId) {
 
         return post("", userId, null, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getAllUserRequests(long userId) {
+    public Mono<ResponseEntity<Object>> getAllUserRequests(long userId) {
 
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getRequestById(long requestId, long userId) {
+    public Mono<ResponseEntity<Object>> getRequestById(long requestId, long userId) {
 
         return get("/" + requestId, userId);
     }
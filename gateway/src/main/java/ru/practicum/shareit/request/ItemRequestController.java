@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -20,7 +21,7 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping("/requests")
-    public ResponseEntity<Object> addRequest(@RequestBody @Valid ItemRequestDto itemRequestDto,
+    public Mono<ResponseEntity<Object>> addRequest(@RequestBody @Valid ItemRequestDto itemRequestDto,
                                                  @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
         log.debug("POST /requests");
         log.debug("X-Sharer-User-Id: {}", userId);
@@ -29,7 +30,7 @@ public class ItemRequestController {
     }
 
     @GetMapping("/requests")
-    public ResponseEntity<Object> getAllUserRequests(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+    public Mono<ResponseEntity<Object>> getAllUserRequests(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
         log.debug("GET /requests");
         log.debug("X-Sharer-User-Id: {}", userId);
 
@@ -37,7 +38,7 @@ public class ItemRequestController {
     }
 
     @GetMapping("/requests/all")
-    public ResponseEntity<Object> getAllOtherUsersRequests(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
+    public Mono<ResponseEntity<Object>> getAllOtherUsersRequests(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
                                                                    @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
                                                                              @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
         log.debug("GET /requests/all?from={from}&size={size}");
@@ -49,7 +50,7 @@ public class ItemRequestController {
     }
 
     @GetMapping("/requests/{requestId}")
-    public ResponseEntity<Object> getRequestById(@PathVariable Long requestId,
+    public Mono<ResponseEntity<Object>> getRequestById(@PathVariable Long requestId,
                                                          @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
         log.debug("GET /requests/{requestId}");
         log.debug("X-Sharer-User-Id: {}", userId);
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
@@ -15,14 +16,14 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping("/users")
-    public ResponseEntity<Object> saveNewUser(@RequestBody @Valid UserDto userDto) {
+    public Mono<ResponseEntity<Object>> saveNewUser(@RequestBody @Valid UserDto userDto) {
         log.debug("POST /users request");
 
         return userClient.saveUser(userDto);
     }
 
     @PatchMapping("/users/{userId}")
-    public ResponseEntity<Object> updateUser(@RequestBody UserDto userDto, @PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> updateUser(@RequestBody UserDto userDto, @PathVariable Long userId) {
         log.debug("PATCH /users request");
         log.debug("userId: {}", userId);
 
@@ -30,7 +31,7 @@ public class UserController {
     }
 
     @GetMapping("/users/{userId}")
-    public ResponseEntity<Object> getUser(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> getUser(@PathVariable long userId) {
         log.debug("GET /users/{id} request");
         log.debug("id: {}", userId);
 
@@ -38,7 +39,7 @@ public class UserController {
     }
 
     @DeleteMapping("/users/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable Long userId) {
         log.debug("DELETE /users/{userId}");
         log.debug("userId: {}", userId);
 
@@ -46,7 +47,7 @@ public class UserController {
     }
 
     @GetMapping("/users")
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         log.debug("GET /users request");
 
         return userClient.getAllUsers();
@@ -0,0 +1,254 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.client.ServerConnectionConfig;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends more concurrent requests through the gateway than it has servlet threads, against a stub
+ * server that answers slowly, and checks that the stub sees them in flight at the same time,
+ * bounded by the shared connection pool.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=" + GatewayLoadIT.TOMCAT_THREADS,
+        "server.tomcat.threads.min-spare=1",
+        "shareit-server.connection.max-connections=" + GatewayLoadIT.POOL_MAX_CONNECTIONS,
+        "logging.level.ru.practicum.shareit.GatewayLoadIT=info"})
+@Slf4j
+class GatewayLoadIT {
+
+    static final int TOMCAT_THREADS = 4;
+    static final int POOL_MAX_CONNECTIONS = 16;
+    private static final int REQUESTS = 32;
+    private static final long SERVER_DELAY_MILLIS = 500;
+
+    private static final String FORMATTED_ITEM = "{ \"name\" : \"дрель\", \"id\" : 3, \"price\" : 1.50 }";
+
+    private static final String ITEM_ETAG = "\"v4\"";
+
+    private static final String FIRST_CHUNK = "{\"id\":5,\"body\":";
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger peakInFlight = new AtomicInteger();
+    private static final CountDownLatch firstChunkReceived = new CountDownLatch(1);
+    private static HttpServer server;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SneakyThrows
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(REQUESTS));
+        server.createContext("/items/1", exchange -> slowItem(exchange));
+        server.createContext("/items/search/stream", exchange -> respond(exchange, 200, "application/x-ndjson",
+                "{\"id\":1}\n{\"id\":2}\n"));
+        server.createContext("/items/2", exchange -> respond(exchange, 404, "application/json",
+                "{\"error\":\"Item not found\"}"));
+        server.createContext("/items/3", exchange -> respond(exchange, 200, "application/json;charset=UTF-8",
+                FORMATTED_ITEM));
+        server.createContext("/items/4", exchange -> conditionalItem(exchange));
+        server.createContext("/items/5", exchange -> chunkedItem(exchange));
+        server.start();
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @SneakyThrows
+    @Test
+    void getItem_whenMoreConcurrentRequestsThanServletThreads_thenServerSeesThemInFlightTogether() {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/1"))
+                .header("X-Sharer-User-Id", "1")
+                .build();
+        client.send(request, HttpResponse.BodyHandlers.discarding());
+        peakInFlight.set(0);
+
+        long started = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get(60, TimeUnit.SECONDS).statusCode());
+            assertEquals("{\"id\":1}", response.get().body());
+        }
+        long millis = (System.nanoTime() - started) / 1_000_000;
+
+        log.info(String.format("%d requests, %d servlet threads, %d ms server delay: %d ms, peak %d in flight",
+                REQUESTS, TOMCAT_THREADS, SERVER_DELAY_MILLIS, millis, peakInFlight.get()));
+        assertTrue(peakInFlight.get() > TOMCAT_THREADS, "peak in flight: " + peakInFlight.get());
+        assertTrue(peakInFlight.get() <= POOL_MAX_CONNECTIONS, "peak in flight: " + peakInFlight.get());
+        assertTrue(millis < REQUESTS / TOMCAT_THREADS * SERVER_DELAY_MILLIS, "elapsed: " + millis);
+        for (String gauge : List.of("total", "active", "idle", "pending")) {
+            assertNotNull(meterRegistry.find("reactor.netty.connection.provider." + gauge + ".connections")
+                    .tag("name", ServerConnectionConfig.POOL_NAME)
+                    .gauge(), gauge);
+        }
+        assertTrue(meterRegistry.get("reactor.netty.connection.provider.total.connections")
+                .tag("name", ServerConnectionConfig.POOL_NAME)
+                .gauge()
+                .value() <= POOL_MAX_CONNECTIONS);
+    }
+
+    @SneakyThrows
+    @Test
+    void streamItemsBySearch_thenLinesPassedThrough() {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/search/stream?text=drill"))
+                        .header("X-Sharer-User-Id", "1")
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", response.body());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItem_whenServerReturnsError_thenStatusAndBodyPassedThrough() {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/2"))
+                        .header("X-Sharer-User-Id", "1")
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(404, response.statusCode());
+        assertEquals("{\"error\":\"Item not found\"}", response.body());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItem_thenServerBodyBytesAndContentTypePassedThrough() {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/3"))
+                        .header("X-Sharer-User-Id", "1")
+                        .build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+
+        assertEquals(200, response.statusCode());
+        assertEquals("application/json;charset=UTF-8", response.headers().firstValue("Content-Type").orElseThrow());
+        assertEquals(FORMATTED_ITEM, response.body());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItem_whenIfNoneMatch_thenForwardedAndNotModifiedPassedThrough() {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/4"))
+                        .header("X-Sharer-User-Id", "1")
+                        .header("If-None-Match", ITEM_ETAG)
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(304, response.statusCode());
+        assertEquals(ITEM_ETAG, response.headers().firstValue("ETag").orElseThrow());
+        assertEquals("", response.body());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItem_thenBodyStreamedBeforeServerFinishes() {
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/5"))
+                        .header("X-Sharer-User-Id", "1")
+                        .build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+
+        try (InputStream body = response.body()) {
+            byte[] first = body.readNBytes(FIRST_CHUNK.length());
+            firstChunkReceived.countDown();
+            String rest = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+
+            assertEquals(200, response.statusCode());
+            assertEquals(FIRST_CHUNK, new String(first, StandardCharsets.UTF_8));
+            assertEquals("\"streamed\"}", rest);
+        }
+    }
+
+    /**
+     * Sends the first chunk and finishes the body only once the client has read that chunk through the
+     * gateway, or after a timeout if the gateway holds the body back.
+     */
+    @SneakyThrows
+    private static void chunkedItem(HttpExchange exchange) {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        body.write(FIRST_CHUNK.getBytes(StandardCharsets.UTF_8));
+        body.flush();
+        boolean streamed = firstChunkReceived.await(5, TimeUnit.SECONDS);
+        body.write((streamed ? "\"streamed\"}" : "\"buffered\"}").getBytes(StandardCharsets.UTF_8));
+        exchange.close();
+    }
+
+    @SneakyThrows
+    private static void conditionalItem(HttpExchange exchange) {
+        exchange.getResponseHeaders().set("ETag", ITEM_ETAG);
+        if (ITEM_ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        respond(exchange, 200, "application/json", "{\"id\":4}");
+    }
+
+    @SneakyThrows
+    private static void slowItem(HttpExchange exchange) {
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(current, (peak, value) -> Math.max(peak, value));
+        try {
+            Thread.sleep(SERVER_DELAY_MILLIS);
+            respond(exchange, 200, "application/json", "{\"id\":1}");
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @SneakyThrows
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingClientTest {
+
+    private final List<ClientRequest> requests = new ArrayList<>();
+    private final BookingClient bookingClient = new BookingClient("http://server",
+            WebClient.builder().exchangeFunction(request -> {
+                requests.add(request);
+                return Mono.just(ClientResponse.create(HttpStatus.OK).body("{}").build());
+            }),
+            new ResponseCache(new ResponseCacheProperties()));
+
+    @Test
+    void getBookings_whenCursorAbsent_thenPagedByOffset() {
+        bookingClient.getBookings(1L, "ALL", 0, 10, null).block();
+        bookingClient.getOwnerBookings(1L, "PAST", 20, 10, null).block();
+
+        assertEquals("http://server/bookings?state=ALL&from=0&size=10", url(0));
+        assertEquals("http://server/bookings/owner?state=PAST&from=20&size=10", url(1));
+        assertEquals("1", requests.get(0).headers().getFirst("X-Sharer-User-Id"));
+    }
+
+    @Test
+    void getBookings_whenCursorGiven_thenPagedByCursor() {
+        bookingClient.getBookings(1L, "ALL", 0, 10, "abc").block();
+        bookingClient.getOwnerBookings(1L, "ALL", 0, 10, "abc").block();
+
+        assertEquals("http://server/bookings?state=ALL&size=10&cursor=abc", url(0));
+        assertEquals("http://server/bookings/owner?state=ALL&size=10&cursor=abc", url(1));
+    }
+
+    @Test
+    void mutations_thenSentToBookingPaths() {
+        bookingClient.addBooking(new BookingDto(), 1L).block();
+        bookingClient.approveBooking(2L, true, 1L).block();
+        bookingClient.approveBookings(List.of(new BookingDecisionDto()), 1L).block();
+        bookingClient.getBooking(2L, 1L).block();
+
+        assertEquals(HttpMethod.POST, requests.get(0).method());
+        assertEquals("http://server/bookings", url(0));
+        assertEquals(HttpMethod.PATCH, requests.get(1).method());
+        assertEquals("http://server/bookings/2?approved=true", url(1));
+        assertEquals("http://server/bookings/batch", url(2));
+        assertEquals(HttpMethod.GET, requests.get(3).method());
+        assertEquals("http://server/bookings/2", url(3));
+    }
+
+    private String url(int index) {
+        return requests.get(index).url().toString();
+    }
+}
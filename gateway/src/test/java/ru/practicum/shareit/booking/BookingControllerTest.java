@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingControllerTest {
+
+    private final Mono<ResponseEntity<Object>> response = Mono.just(ResponseEntity.ok().build());
+
+    @Mock
+    private BookingClient bookingClient;
+
+    @InjectMocks
+    private BookingController bookingController;
+
+    @Test
+    void addBooking_thenDelegatedToClient() {
+        BookingDto bookingDto = new BookingDto();
+        when(bookingClient.addBooking(bookingDto, 1L)).thenReturn(response);
+
+        assertSame(response, bookingController.addBooking(bookingDto, 1L));
+    }
+
+    @Test
+    void updateBooking_thenDelegatedToClient() {
+        when(bookingClient.approveBooking(2L, true, 1L)).thenReturn(response);
+
+        assertSame(response, bookingController.updateBooking(2L, true, 1L));
+    }
+
+    @Test
+    void updateBookings_thenDelegatedToClient() {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(2L, true));
+        when(bookingClient.approveBookings(decisions, 1L)).thenReturn(response);
+
+        assertSame(response, bookingController.updateBookings(decisions, 1L));
+    }
+
+    @Test
+    void getBooking_thenDelegatedToClient() {
+        when(bookingClient.getBooking(2L, 1L)).thenReturn(response);
+
+        assertSame(response, bookingController.getBooking(2L, 1L));
+    }
+
+    @Test
+    void getAllUserBooking_whenStateAbsent_thenAllRequested() {
+        when(bookingClient.getBookings(1L, "ALL", 0, 10, "abc")).thenReturn(response);
+
+        assertSame(response, bookingController.getAllUserBooking(null, 1L, 0, 10, "abc"));
+    }
+
+    @Test
+    void getAllBookingsUserItems_whenStateKnown_thenDelegatedToClient() {
+        when(bookingClient.getOwnerBookings(1L, "WAITING", 0, 10, null)).thenReturn(response);
+
+        assertSame(response, bookingController.getAllBookingsUserItems("WAITING", 1L, 0, 10, null));
+    }
+
+    @Test
+    void getBookings_whenStateUnknown_thenExceptionThrown() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> bookingController.getAllUserBooking("UNSUPPORTED", 1L, 0, 10, null));
+
+        assertEquals("Unknown state: UNSUPPORTED", exception.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingController.getAllBookingsUserItems("UNSUPPORTED", 1L, 0, 10, null));
+        verify(bookingClient, never()).getBookings(anyLong(), anyString(), anyInt(), anyInt(), any());
+        verify(bookingClient, never()).getOwnerBookings(anyLong(), anyString(), anyInt(), anyInt(), any());
+    }
+}
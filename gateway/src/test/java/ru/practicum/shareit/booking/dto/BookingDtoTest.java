@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingDtoTest {
+
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Test
+    void isValidStartEndDates_whenStartBeforeEnd_thenTrue() {
+        assertTrue(new BookingDto(1L, start, start.plusDays(1)).isValidStartEndDates());
+    }
+
+    @Test
+    void isValidStartEndDates_whenNotBeforeEndOrAbsent_thenFalse() {
+        assertFalse(new BookingDto(1L, start, start).isValidStartEndDates());
+        assertFalse(new BookingDto(1L, null, start).isValidStartEndDates());
+        assertFalse(new BookingDto(1L, start, null).isValidStartEndDates());
+    }
+}
@@ -0,0 +1,215 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseClientTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private final List<ClientRequest> requests = new ArrayList<>();
+    private final Deque<ClientResponse> responses = new ArrayDeque<>();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void get_whenCacheDisabled_thenResponseStreamedWithoutHopByHopHeaders() {
+        BaseClient client = client(null);
+        responses.add(ok("{\"id\":1}"));
+
+        ResponseEntity<Object> response = client.get("/1", 1L).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        assertEquals("{\"id\":1}", streamedBody(response));
+        ClientRequest request = requests.get(0);
+        assertEquals(HttpMethod.GET, request.method());
+        assertEquals("http://server/items/1", request.url().toString());
+        assertEquals("1", request.headers().getFirst("X-Sharer-User-Id"));
+        assertEquals(List.of(MediaType.APPLICATION_JSON), request.headers().getAccept());
+    }
+
+    @Test
+    void get_whenIncomingRequestConditional_thenConditionalHeadersForwarded() {
+        BaseClient client = client(null);
+        MockHttpServletRequest incoming = new MockHttpServletRequest();
+        incoming.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(incoming));
+        responses.add(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+
+        ResponseEntity<Object> response = client.get("").block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ETAG, requests.get(0).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertNull(requests.get(0).headers().getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+        assertNull(requests.get(0).headers().getFirst("X-Sharer-User-Id"));
+    }
+
+    @Test
+    void get_whenCachedAndFresh_thenServedWithoutServerCall() {
+        BaseClient client = client(Duration.ofMinutes(1));
+        responses.add(ok("{\"id\":1}"));
+
+        ResponseEntity<Object> first = client.get("/{id}", 1L, Map.of("id", 1)).block();
+        ResponseEntity<Object> second = client.get("/{id}", 1L, Map.of("id", 1)).block();
+
+        assertEquals(1, requests.size());
+        assertEquals("http://server/items/1", requests.get(0).url().toString());
+        assertEquals("{\"id\":1}", new String((byte[]) first.getBody(), StandardCharsets.UTF_8));
+        assertArrayEquals((byte[]) first.getBody(), (byte[]) second.getBody());
+        assertEquals(ETAG, second.getHeaders().getETag());
+    }
+
+    @Test
+    void get_whenCachedAndStale_thenRevalidatedWithEtag() {
+        BaseClient client = client(Duration.ZERO);
+        responses.add(ok("{\"id\":1}"));
+        responses.add(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+
+        client.get("/1", 1L).block();
+        ResponseEntity<Object> refreshed = client.get("/1", 1L).block();
+
+        assertEquals(2, requests.size());
+        assertNull(requests.get(0).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(ETAG, requests.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(HttpStatus.OK, refreshed.getStatusCode());
+        assertEquals("{\"id\":1}", new String((byte[]) refreshed.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void get_whenCachedGetFails_thenErrorPassedThroughAndNotCached() {
+        BaseClient client = client(Duration.ofMinutes(1));
+        responses.add(ClientResponse.create(HttpStatus.NOT_FOUND).build());
+        responses.add(ClientResponse.create(HttpStatus.NOT_FOUND).build());
+
+        ResponseEntity<Object> response = client.get("/1", 1L).block();
+        client.get("/1", 1L).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void post_whenCacheEnabled_thenCachedResponsesInvalidated() {
+        BaseClient client = client(Duration.ofMinutes(1));
+        responses.add(ok("{\"id\":1}"));
+        responses.add(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).body("{}").build());
+        responses.add(ok("{\"id\":1}"));
+
+        client.get("/1", 1L).block();
+        ResponseEntity<Object> posted = client.post("", Map.of("name", "item")).block();
+        client.get("/1", 1L).block();
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, posted.getStatusCode());
+        assertEquals(3, requests.size());
+        assertEquals(HttpMethod.POST, requests.get(1).method());
+        assertNull(requests.get(1).headers().getFirst("X-Sharer-User-Id"));
+    }
+
+    @Test
+    void mutatingRequests_thenSentWithMethodAndUser() {
+        BaseClient client = client(null);
+        for (int i = 0; i < 7; i++) {
+            responses.add(ok("{}"));
+        }
+
+        client.post("", 1L, Map.of()).block();
+        client.put("/1", 1L, Map.of()).block();
+        client.patch("/1", Map.of()).block();
+        client.patch("/1", 1L).block();
+        client.patch("/1", 1L, Map.of()).block();
+        client.delete("/1").block();
+        client.delete("/1", 1L).block();
+
+        assertEquals(List.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.PATCH, HttpMethod.PATCH,
+                HttpMethod.DELETE, HttpMethod.DELETE), requests.stream().map(ClientRequest::method).collect(Collectors.toList()));
+        assertEquals("1", requests.get(1).headers().getFirst("X-Sharer-User-Id"));
+        assertNull(requests.get(5).headers().getFirst("X-Sharer-User-Id"));
+    }
+
+    @Test
+    void stream_thenEachLineTerminated() {
+        BaseClient client = client(null);
+        responses.add(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                .body("{\"id\":1}\n{\"id\":2}\n")
+                .build());
+
+        List<String> lines = client.stream("/search/stream?text={text}", 1L, Map.of("text", "drill"))
+                .collectList()
+                .block();
+
+        assertEquals(List.of("{\"id\":1}\n", "{\"id\":2}\n"), lines);
+        assertEquals("http://server/items/search/stream?text=drill", requests.get(0).url().toString());
+        assertEquals(List.of(MediaType.APPLICATION_NDJSON), requests.get(0).headers().getAccept());
+    }
+
+    /**
+     * Client of a stub server that answers with the queued responses; the cache is disabled when ttl is null.
+     */
+    private BaseClient client(Duration ttl) {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        if (ttl != null) {
+            properties.setEnabled(true);
+            properties.setTtl(ttl);
+        }
+        WebClient rest = WebClient.builder()
+                .uriBuilderFactory(new DefaultUriBuilderFactory("http://server/items"))
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return Mono.just(responses.remove());
+                })
+                .build();
+
+        return new BaseClient(rest, new ResponseCache(properties), "/items", List.of("/items", "/bookings"));
+    }
+
+    private static ClientResponse ok(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ETAG, ETAG)
+                .header(HttpHeaders.CONNECTION, "keep-alive")
+                .body(body)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String streamedBody(ResponseEntity<Object> response) {
+        DataBuffer joined = DataBufferUtils.join((Flux<DataBuffer>) response.getBody()).block();
+        String body = joined.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(joined);
+        return body;
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.client;
+
+import io.netty.buffer.UnpooledByteBufAllocator;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import reactor.core.publisher.Flux;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataBufferStreamReturnValueHandlerTest {
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+    private final DataBufferStreamReturnValueHandler handler = new DataBufferStreamReturnValueHandler();
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private ServletWebRequest webRequest;
+    private WebAsyncManager asyncManager;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        response = new MockHttpServletResponse();
+        webRequest = new ServletWebRequest(request, response);
+        asyncManager = WebAsyncUtils.getAsyncManager(webRequest);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+    }
+
+    @Test
+    void isAsyncReturnValue_whenPublisherHiddenByDeclaredType_thenTrue() {
+        assertTrue(handler.isAsyncReturnValue(ResponseEntity.ok(Flux.empty()), returnType("untyped")));
+        assertFalse(handler.isAsyncReturnValue(ResponseEntity.ok(new byte[0]), returnType("untyped")));
+        assertFalse(handler.isAsyncReturnValue(ResponseEntity.ok(Flux.empty()), returnType("typed")));
+        assertTrue(handler.supportsReturnType(returnType("untyped")));
+    }
+
+    @SneakyThrows
+    @Test
+    void handleReturnValue_thenAsyncAndBuffersWrittenInOrderAndReleased() {
+        DataBuffer first = buffer("{\"id\":");
+        DataBuffer second = buffer("1}");
+        ResponseEntity<Object> entity = ResponseEntity.status(201)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(Flux.just(first, second));
+
+        handler.handleReturnValue(entity, returnType("untyped"), new ModelAndViewContainer(), webRequest);
+
+        assertTrue(request.isAsyncStarted());
+        awaitConcurrentResult();
+        assertEquals(201, response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertEquals("{\"id\":1}", response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(0, refCnt(first));
+        assertEquals(0, refCnt(second));
+    }
+
+    @SneakyThrows
+    @Test
+    void handleReturnValue_whenClientGoesAway_thenServerResponseCancelled() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<DataBuffer> body = Flux.just(buffer("{}")).concatWith(Flux.never()).doOnCancel(() -> cancelled.set(true));
+
+        handler.handleReturnValue(ResponseEntity.ok(body), returnType("untyped"), new ModelAndViewContainer(), webRequest);
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onError(new AsyncEvent(asyncContext, new IOException("Broken pipe")));
+        }
+
+        assertTrue(cancelled.get());
+    }
+
+    @SneakyThrows
+    @Test
+    void handleReturnValue_whenServerResponseFails_thenErrorPassedToRequest() {
+        IOException failure = new IOException("Connection reset");
+
+        handler.handleReturnValue(ResponseEntity.ok(Flux.error(failure)), returnType("untyped"),
+                new ModelAndViewContainer(), webRequest);
+
+        awaitConcurrentResult();
+        assertSame(failure, asyncManager.getConcurrentResult());
+    }
+
+    @Test
+    void handleReturnValue_whenAsyncUnsupported_thenBodyReleased() {
+        request.setAsyncSupported(false);
+        DataBuffer buffer = buffer("{}");
+
+        assertThrows(IllegalStateException.class, () -> handler.handleReturnValue(ResponseEntity.ok(Flux.just(buffer)),
+                returnType("untyped"), new ModelAndViewContainer(), webRequest));
+        assertEquals(0, refCnt(buffer));
+    }
+
+    @SneakyThrows
+    private void awaitConcurrentResult() {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!asyncManager.hasConcurrentResult() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(asyncManager.hasConcurrentResult());
+    }
+
+    private DataBuffer buffer(String text) {
+        return bufferFactory.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int refCnt(DataBuffer buffer) {
+        return ((NettyDataBuffer) buffer).getNativeBuffer().refCnt();
+    }
+
+    @SneakyThrows
+    private static MethodParameter returnType(String methodName) {
+        return new MethodParameter(DataBufferStreamReturnValueHandlerTest.class.getDeclaredMethod(methodName), -1);
+    }
+
+    private static ResponseEntity<Object> untyped() {
+        return null;
+    }
+
+    private static ResponseEntity<Flux<String>> typed() {
+        return null;
+    }
+}
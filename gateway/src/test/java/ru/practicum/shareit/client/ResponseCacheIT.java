@@ -0,0 +1,147 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "gateway.cache.enabled=true",
+        "gateway.cache.ttl=" + ResponseCacheIT.TTL_MILLIS + "ms"})
+class ResponseCacheIT {
+
+    static final long TTL_MILLIS = 1000;
+    private static final String ETAG = "\"v1\"";
+
+    private static final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private static final List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+    private static HttpServer server;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @SneakyThrows
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> handle(exchange));
+        server.start();
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void get_whenRepeatedWithinTtl_thenServedFromCachePerUser() {
+        assertEquals("{\"id\":1}", send("GET", "/items/1", 1).body());
+        assertEquals("{\"id\":1}", send("GET", "/items/1", 1).body());
+        assertEquals("{\"id\":1}", send("GET", "/items/1", 2).body());
+
+        assertEquals(1, hits("GET /items/1 1"));
+        assertEquals(1, hits("GET /items/1 2"));
+    }
+
+    @Test
+    void get_whenResourceMutated_thenCachedResponsesInvalidated() {
+        send("GET", "/items/2", 1);
+        send("GET", "/bookings/2", 1);
+        send("PATCH", "/items/2", 1);
+        send("GET", "/items/2", 1);
+        send("GET", "/bookings/2", 1);
+
+        assertEquals(2, hits("GET /items/2 1"));
+        assertEquals(2, hits("GET /bookings/2 1"));
+    }
+
+    @SneakyThrows
+    @Test
+    void get_whenStaleWithEtag_thenRevalidatedWithIfNoneMatch() {
+        send("GET", "/items/3", 1);
+        Thread.sleep(TTL_MILLIS + 200);
+
+        HttpResponse<String> response = send("GET", "/items/3", 1);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"id\":3}", response.body());
+        assertEquals(ETAG, response.headers().firstValue("ETag").orElseThrow());
+        assertEquals(2, hits("GET /items/3 1"));
+        assertEquals(List.of(ETAG), ifNoneMatch);
+    }
+
+    @SneakyThrows
+    @Test
+    void get_whenClientEtagMatchesCachedResponse_thenNotModifiedWithoutServerCall() {
+        send("GET", "/items/4", 1);
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/4"))
+                        .header("X-Sharer-User-Id", "1")
+                        .header("If-None-Match", ETAG)
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(304, response.statusCode());
+        assertEquals("", response.body());
+        assertEquals(1, hits("GET /items/4 1"));
+    }
+
+    @SneakyThrows
+    private HttpResponse<String> send(String method, String path, long userId) {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .header("X-Sharer-User-Id", String.valueOf(userId))
+                        .header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofString("GET".equals(method) ? "" : "{}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private int hits(String request) {
+        return hits.getOrDefault(request, new AtomicInteger()).get();
+    }
+
+    @SneakyThrows
+    private static void handle(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        hits.computeIfAbsent(exchange.getRequestMethod() + " " + path + " "
+                + exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"), key -> new AtomicInteger()).incrementAndGet();
+        String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (condition != null) {
+            ifNoneMatch.add(condition);
+        }
+
+        exchange.getResponseHeaders().set("ETag", ETAG);
+        if (ETAG.equals(condition)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = ("{\"id\":" + path.substring(path.lastIndexOf('/') + 1) + "}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheTest {
+
+    private static final Duration FRESH = Duration.ZERO;
+    private static final Duration STALE = Duration.ofMinutes(2);
+
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setEnabled(true);
+        properties.setTtl(Duration.ofMinutes(1));
+        cache = new ResponseCache(properties);
+    }
+
+    @Test
+    void put_whenGenerationUnchanged_thenCached() {
+        CachedResponse response = response(null, FRESH);
+
+        cache.put("/items", "1 /1", response, cache.generation("/items"));
+
+        assertSame(response, cache.get("/items", "1 /1"));
+    }
+
+    @Test
+    void put_whenInvalidatedWhileInFlight_thenNotCached() {
+        long generation = cache.generation("/items");
+        cache.invalidate(List.of("/items"));
+
+        cache.put("/items", "1 /1", response(null, FRESH), generation);
+
+        assertNull(cache.get("/items", "1 /1"));
+    }
+
+    @Test
+    void invalidate_thenOnlyGivenPrefixesCleared() {
+        cache.put("/items", "1 /1", response(null, FRESH), cache.generation("/items"));
+        cache.put("/users", "1 /1", response(null, FRESH), cache.generation("/users"));
+
+        cache.invalidate(List.of("/items", "/bookings"));
+
+        assertNull(cache.get("/items", "1 /1"));
+        assertNotNull(cache.get("/users", "1 /1"));
+    }
+
+    @Test
+    void get_whenStale_thenReturnedOnlyWithEtag() {
+        cache.put("/items", "1 /1", response(null, STALE), cache.generation("/items"));
+        cache.put("/items", "1 /2", response("\"v1\"", STALE), cache.generation("/items"));
+
+        assertNull(cache.get("/items", "1 /1"));
+        assertNotNull(cache.get("/items", "1 /2"));
+    }
+
+    @Test
+    void responseCache_whenPropertiesDefault_thenDisabled() {
+        assertFalse(new ResponseCacheConfig().responseCache(new ResponseCacheProperties()).isEnabled());
+        assertTrue(cache.isEnabled());
+    }
+
+    private static CachedResponse response(String etag, Duration age) {
+        HttpHeaders headers = new HttpHeaders();
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+        return new CachedResponse(headers, new byte[0], System.nanoTime() - age.toNanos());
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseStreamingConfigTest {
+
+    @Test
+    void addReturnValueHandlers_thenStreamHandlerAdded() {
+        List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>();
+
+        new ResponseStreamingConfig().addReturnValueHandlers(handlers);
+
+        assertEquals(1, handlers.size());
+        assertTrue(handlers.get(0) instanceof DataBufferStreamReturnValueHandler);
+    }
+}
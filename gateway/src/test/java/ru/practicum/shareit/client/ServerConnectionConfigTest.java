@@ -0,0 +1,30 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.resources.ConnectionProvider;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerConnectionConfigTest {
+
+    private final ServerConnectionConfig config = new ServerConnectionConfig();
+
+    @Test
+    void serverConnectionProvider_thenPoolSizedFromProperties() {
+        ServerConnectionProperties properties = new ServerConnectionProperties();
+        properties.setMaxConnections(7);
+
+        ConnectionProvider provider = config.serverConnectionProvider(properties);
+        try {
+            ReactorClientHttpConnector connector = config.serverClientHttpConnector(provider, properties);
+
+            assertNotNull(connector);
+            assertEquals(ServerConnectionConfig.POOL_NAME, provider.name());
+            assertEquals(7, provider.maxConnections());
+        } finally {
+            provider.dispose();
+        }
+        assertTrue(provider.isDisposed());
+    }
+}
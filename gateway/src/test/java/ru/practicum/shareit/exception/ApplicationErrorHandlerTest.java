@@ -0,0 +1,38 @@
+package ru.practicum.shareit.exception;
+
+import org.junit.jupiter.api.Test;
+
+import javax.validation.ConstraintViolationException;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationErrorHandlerTest {
+
+    private final ApplicationErrorHandler handler = new ApplicationErrorHandler();
+
+    @Test
+    void handleBadRequestException_thenMessageReturned() {
+        assertEquals(Map.of("Ошибка сервера", "bad"), handler.handleBadRequestException(new BadRequestException("bad")));
+    }
+
+    @Test
+    void handleIllegalArgumentException_thenMessageAndStackTraceReturned() {
+        ErrorResponse response = handler.handleIllegalArgumentException(new IllegalArgumentException("Unknown state: X"));
+
+        assertEquals("Unknown state: X", response.getError());
+        assertTrue(response.getTrace().startsWith("java.lang.IllegalArgumentException: Unknown state: X"));
+    }
+
+    @Test
+    void handleNotFoundException_thenMessageReturned() {
+        assertEquals(Map.of("Ошибка:", "missing"), handler.handleNotFoundException(new NotFoundException("missing")));
+    }
+
+    @Test
+    void handleConstraintViolationException_thenMessageReturned() {
+        assertEquals(Map.of("Ошибка сервера", "size: must be greater than 0"),
+                handler.handleConstraintViolationException(new ConstraintViolationException("size: must be greater than 0", Set.of())));
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemClientTest {
+
+    private final List<ClientRequest> requests = new ArrayList<>();
+    private final ItemClient itemClient = new ItemClient("http://server",
+            WebClient.builder().exchangeFunction(request -> {
+                requests.add(request);
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                        .body("{}\n")
+                        .build());
+            }),
+            new ResponseCache(new ResponseCacheProperties()));
+
+    @Test
+    void mutations_thenSentToItemPaths() {
+        itemClient.addCommentItem(new CommentDto(), 2L, 1L).block();
+        itemClient.addItem(new ItemDto(), 1L).block();
+        itemClient.addItems(List.of(new ItemDto()), 1L).block();
+        itemClient.updateItem(new ItemDto(), 2L, 1L).block();
+
+        assertEquals(HttpMethod.POST, requests.get(0).method());
+        assertEquals("http://server/items/2/comment", url(0));
+        assertEquals("http://server/items", url(1));
+        assertEquals("http://server/items/batch", url(2));
+        assertEquals(HttpMethod.PATCH, requests.get(3).method());
+        assertEquals("http://server/items/2", url(3));
+        assertEquals("1", requests.get(3).headers().getFirst("X-Sharer-User-Id"));
+    }
+
+    @Test
+    void reads_thenSentToItemPaths() {
+        itemClient.getItemWithBookings(2L, 1L).block();
+        itemClient.getAllUserItems(1L).block();
+        itemClient.getComments(2L, 1L, null, 20).block();
+        itemClient.getComments(2L, 1L, "abc", 20).block();
+
+        assertEquals("http://server/items/2", url(0));
+        assertEquals("http://server/items", url(1));
+        assertEquals("http://server/items/2/comments?size=20", url(2));
+        assertEquals("http://server/items/2/comments?size=20&cursor=abc", url(3));
+    }
+
+    @Test
+    void getItemsBySearch_whenAfterIdGiven_thenPagedByKeyset() {
+        itemClient.getItemsBySearch("drill", 1L, 0, 10, null).block();
+        itemClient.getItemsBySearch("drill", 1L, 0, 10, 5L).block();
+
+        assertEquals("http://server/items/search?text=drill&from=0&size=10", url(0));
+        assertEquals("http://server/items/search?text=drill&from=0&size=10&afterId=5", url(1));
+    }
+
+    @Test
+    void getItemsBySearch_whenSizeAbsent_thenSentUnpaged() {
+        itemClient.getItemsBySearch("drill", 1L, 0, null, null).block();
+        itemClient.getItemsBySearch("drill", 1L, 0, null, 5L).block();
+
+        assertEquals("http://server/items/search?text=drill&from=0", url(0));
+        assertEquals("http://server/items/search?text=drill&from=0&afterId=5", url(1));
+    }
+
+    @Test
+    void streamItemsBySearch_thenLinesStreamed() {
+        List<String> lines = itemClient.streamItemsBySearch("drill", 1L).collectList().block();
+
+        assertEquals(List.of("{}\n"), lines);
+        assertEquals("http://server/items/search/stream?text=drill", url(0));
+    }
+
+    private String url(int index) {
+        return requests.get(index).url().toString();
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemControllerTest {
+
+    private final Mono<ResponseEntity<Object>> response = Mono.just(ResponseEntity.ok().build());
+    private final ItemDto itemDto = new ItemDto(null, "drill", "cordless drill", true, null);
+
+    @Mock
+    private ItemClient itemClient;
+
+    @InjectMocks
+    private ItemController itemController;
+
+    @Test
+    void addCommentItem_thenDelegatedToClient() {
+        CommentDto commentDto = new CommentDto();
+        when(itemClient.addCommentItem(commentDto, 2L, 1L)).thenReturn(response);
+
+        assertSame(response, itemController.addCommentItem(commentDto, 2L, 1L));
+    }
+
+    @Test
+    void addItem_thenDelegatedToClient() {
+        when(itemClient.addItem(itemDto, 1L)).thenReturn(response);
+
+        assertSame(response, itemController.addItem(itemDto, 1L));
+    }
+
+    @Test
+    void addItems_thenDelegatedToClient() {
+        when(itemClient.addItems(List.of(itemDto), 1L)).thenReturn(response);
+
+        assertSame(response, itemController.addItems(List.of(itemDto), 1L));
+    }
+
+    @Test
+    void updateItem_thenDelegatedToClient() {
+        when(itemClient.updateItem(itemDto, 2L, 1L)).thenReturn(response);
+
+        assertSame(response, itemController.updateItem(itemDto, 2L, 1L));
+    }
+
+    @Test
+    void getItem_thenDelegatedToClient() {
+        when(itemClient.getItemWithBookings(2L, 1L)).thenReturn(response);
+
+        assertSame(response, itemController.getItem(2L, 1L));
+    }
+
+    @Test
+    void getComments_thenDelegatedToClient() {
+        when(itemClient.getComments(2L, 1L, "abc", 20)).thenReturn(response);
+
+        assertSame(response, itemController.getComments(2L, 1L, "abc", 20));
+    }
+
+    @Test
+    void getAllUserItems_thenDelegatedToClient() {
+        when(itemClient.getAllUserItems(1L)).thenReturn(response);
+
+        assertSame(response, itemController.getAllUserItems(1L));
+    }
+
+    @Test
+    void getItemsBySearch_thenDelegatedToClient() {
+        when(itemClient.getItemsBySearch("drill", 1L, 0, 10, 5L)).thenReturn(response);
+
+        assertSame(response, itemController.getItemsBySearch("drill", 1L, 0, 10, 5L));
+    }
+
+    @Test
+    void getItemsBySearch_whenSizeAbsent_thenPassedOnUnpaged() {
+        when(itemClient.getItemsBySearch("drill", 1L, 0, null, null)).thenReturn(response);
+
+        assertSame(response, itemController.getItemsBySearch("drill", 1L, 0, null, null));
+    }
+
+    @Test
+    void streamItemsBySearch_thenNdjsonStreamReturned() {
+        Flux<String> lines = Flux.just("{}\n");
+        when(itemClient.streamItemsBySearch("drill", 1L)).thenReturn(lines);
+
+        ResponseEntity<Flux<String>> streamed = itemController.streamItemsBySearch("drill", 1L);
+
+        assertEquals(HttpStatus.OK, streamed.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, streamed.getHeaders().getContentType());
+        assertSame(lines, streamed.getBody());
+    }
+}
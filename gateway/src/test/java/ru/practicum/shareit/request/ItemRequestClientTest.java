@@ -0,0 +1,48 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemRequestClientTest {
+
+    private final List<ClientRequest> requests = new ArrayList<>();
+    private final ItemRequestClient itemRequestClient = new ItemRequestClient("http://server",
+            WebClient.builder().exchangeFunction(request -> {
+                requests.add(request);
+                return Mono.just(ClientResponse.create(HttpStatus.OK).body("{}").build());
+            }),
+            new ResponseCache(new ResponseCacheProperties()));
+
+    @Test
+    void requests_thenSentToRequestPaths() {
+        itemRequestClient.addRequest(new ItemRequestDto(), 1L).block();
+        itemRequestClient.getAllUserRequests(1L).block();
+        itemRequestClient.getAllOtherUsersRequests(1L, 0, 10).block();
+        itemRequestClient.getRequestById(2L, 1L).block();
+
+        assertEquals(HttpMethod.POST, requests.get(0).method());
+        assertEquals("http://server/requests", url(0));
+        assertEquals(HttpMethod.GET, requests.get(1).method());
+        assertEquals("http://server/requests", url(1));
+        assertEquals("http://server/requests/all?from=0&size=10", url(2));
+        assertEquals("http://server/requests/2", url(3));
+        assertEquals("1", requests.get(3).headers().getFirst("X-Sharer-User-Id"));
+    }
+
+    private String url(int index) {
+        return requests.get(index).url().toString();
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemRequestControllerTest {
+
+    private final Mono<ResponseEntity<Object>> response = Mono.just(ResponseEntity.ok().build());
+
+    @Mock
+    private ItemRequestClient itemRequestClient;
+
+    @InjectMocks
+    private ItemRequestController itemRequestController;
+
+    @Test
+    void addRequest_thenDelegatedToClient() {
+        ItemRequestDto itemRequestDto = new ItemRequestDto();
+        when(itemRequestClient.addRequest(itemRequestDto, 1L)).thenReturn(response);
+
+        assertSame(response, itemRequestController.addRequest(itemRequestDto, 1L));
+    }
+
+    @Test
+    void getAllUserRequests_thenDelegatedToClient() {
+        when(itemRequestClient.getAllUserRequests(1L)).thenReturn(response);
+
+        assertSame(response, itemRequestController.getAllUserRequests(1L));
+    }
+
+    @Test
+    void getAllOtherUsersRequests_thenDelegatedToClient() {
+        when(itemRequestClient.getAllOtherUsersRequests(1L, 0, 10)).thenReturn(response);
+
+        assertSame(response, itemRequestController.getAllOtherUsersRequests(1L, 0, 10));
+    }
+
+    @Test
+    void getRequestById_thenDelegatedToClient() {
+        when(itemRequestClient.getRequestById(2L, 1L)).thenReturn(response);
+
+        assertSame(response, itemRequestController.getRequestById(2L, 1L));
+    }
+}
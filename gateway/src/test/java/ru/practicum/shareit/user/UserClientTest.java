@@ -0,0 +1,60 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserClientTest {
+
+    private final List<ClientRequest> requests = new ArrayList<>();
+    private final UserClient userClient = new UserClient("http://server",
+            WebClient.builder().exchangeFunction(request -> {
+                requests.add(request);
+                return Mono.just(ClientResponse.create(HttpStatus.OK).body("{}").build());
+            }),
+            new ResponseCache(new ResponseCacheProperties()));
+
+    @Test
+    void requests_thenSentToUserPaths() {
+        userClient.saveUser(new UserDto()).block();
+        userClient.updateUser(new UserDto(), 1L).block();
+        userClient.getUser(1L).block();
+        userClient.getAllUsers().block();
+        userClient.deleteUser(1L).block();
+
+        assertEquals(HttpMethod.POST, requests.get(0).method());
+        assertEquals("http://server/users", url(0));
+        assertNull(requests.get(0).headers().getFirst("X-Sharer-User-Id"));
+        assertEquals(HttpMethod.PATCH, requests.get(1).method());
+        assertEquals("http://server/users/1", url(1));
+        assertEquals("http://server/users/1", url(2));
+        assertEquals("http://server/users", url(3));
+        assertEquals(HttpMethod.DELETE, requests.get(4).method());
+        assertEquals("http://server/users/1", url(4));
+    }
+
+    @Test
+    void getBookings_thenSentWithStateAndPage() {
+        userClient.getBookings(1L, "ALL", 0, 10).block();
+        userClient.getOwnerBookings(1L, "ALL", 0, 10).block();
+
+        assertEquals("http://server/users?state=ALL&from=0&size=10", url(0));
+        assertEquals("http://server/users/owner?state=ALL&from=0&size=10", url(1));
+    }
+
+    private String url(int index) {
+        return requests.get(index).url().toString();
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserControllerTest {
+
+    private final Mono<ResponseEntity<Object>> response = Mono.just(ResponseEntity.ok().build());
+    private final UserDto userDto = new UserDto(null, "user", "user@mail.ru");
+
+    @Mock
+    private UserClient userClient;
+
+    @InjectMocks
+    private UserController userController;
+
+    @Test
+    void saveNewUser_thenDelegatedToClient() {
+        when(userClient.saveUser(userDto)).thenReturn(response);
+
+        assertSame(response, userController.saveNewUser(userDto));
+    }
+
+    @Test
+    void updateUser_thenDelegatedToClient() {
+        when(userClient.updateUser(userDto, 1L)).thenReturn(response);
+
+        assertSame(response, userController.updateUser(userDto, 1L));
+    }
+
+    @Test
+    void getUser_thenDelegatedToClient() {
+        when(userClient.getUser(1L)).thenReturn(response);
+
+        assertSame(response, userController.getUser(1L));
+    }
+
+    @Test
+    void deleteUser_thenDelegatedToClient() {
+        when(userClient.deleteUser(1L)).thenReturn(response);
+
+        assertSame(response, userController.deleteUser(1L));
+    }
+
+    @Test
+    void getAllUsers_thenDelegatedToClient() {
+        when(userClient.getAllUsers()).thenReturn(response);
+
+        assertSame(response, userController.getAllUsers());
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import ru.practicum.shareit.item.ItemInfoCache;
+
+import java.time.Duration;
+
+/**
+ * Caching advice runs outside the transactional advice, so a cache hit does not open a transaction.
+ * Puts and evictions made inside a transaction are applied only after it commits.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String ITEM_INFO = "item-info";
+    public static final String ITEM_COMMENTS = "item-comments";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${cache.users.spec}") String usersSpec,
+                                     @Value("${cache.item-info.spec}") String itemInfoSpec,
+                                     @Value("${cache.item-info.ttl}") Duration itemInfoTtl,
+                                     @Value("${cache.item-comments.spec}") String itemCommentsSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(USERS);
+        cacheManager.setCacheSpecification(usersSpec);
+        cacheManager.registerCustomCache(ITEM_INFO, Caffeine.from(itemInfoSpec)
+                .expireAfter(ItemInfoCache.expiry(itemInfoTtl))
+                .build());
+        cacheManager.registerCustomCache(ITEM_COMMENTS, Caffeine.from(itemCommentsSpec).build());
+
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Invalidation counters for a cache filled from the database on a miss.
+ * A reader takes a stamp before it loads and stores the result only if the key was not invalidated since,
+ * so a load that raced with a committed change cannot replace the eviction that change made.
+ * Keys share a fixed number of counters; a collision only drops a put.
+ */
+public class CacheGenerations {
+
+    private static final int STRIPES = 1024;
+
+    private final AtomicLongArray counters = new AtomicLongArray(STRIPES);
+
+    public long stamp(Object key) {
+        return counters.get(stripe(key));
+    }
+
+    public boolean isCurrent(Object key, long stamp) {
+        return counters.get(stripe(key)) == stamp;
+    }
+
+    public void invalidate(Object key) {
+        counters.incrementAndGet(stripe(key));
+    }
+
+    /**
+     * Runs the action once the current transaction commits, or right away outside a transaction.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), STRIPES);
+    }
+}
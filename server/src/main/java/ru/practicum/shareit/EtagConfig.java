@@ -0,0 +1,30 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * GET responses of item, booking and request reads carry an ETag hashed from the serialized body,
+ * and a matching If-None-Match gets an empty 304. Streamed responses are left alone, since the
+ * filter would buffer them whole.
+ */
+@Configuration
+public class EtagConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                return request.getRequestURI().endsWith("/stream");
+            }
+        });
+        registration.addUrlPatterns("/items", "/items/*", "/bookings", "/bookings/*", "/requests", "/requests/*");
+
+        return registration;
+    }
+}
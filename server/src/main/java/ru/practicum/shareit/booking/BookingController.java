@@ -2,8 +2,11 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoInfo;
 
@@ -16,6 +19,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BookingController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     @PostMapping("/bookings")
@@ -38,6 +43,16 @@ public class BookingController {
         return ResponseEntity.ok(BookingMapper.toBookingDtoInfo(bookingService.approveBooking(bookingId, approved, userId)));
     }
 
+    @PatchMapping("/bookings/batch")
+    public ResponseEntity<List<BookingDecisionResultDto>> updateBookings(@RequestBody List<BookingDecisionDto> decisions,
+                                                                         @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.debug("PATCH /bookings/batch");
+        log.debug("X-Sharer-User-Id: {}", userId);
+        log.debug("decisions: {}", decisions.size());
+
+        return ResponseEntity.ok(bookingService.approveBookings(decisions, userId));
+    }
+
     @GetMapping("/bookings/{bookingId}")
     public ResponseEntity<BookingDtoInfo> getBooking(@PathVariable long bookingId,
                                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -52,12 +67,17 @@ public class BookingController {
     public ResponseEntity<List<BookingDtoInfo>> getAllUserBooking(@RequestParam(value = "state", required = false) String state,
                                                                   @RequestHeader("X-Sharer-User-Id") Long userId,
                                                                   @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                                  @RequestParam(required = false, defaultValue = "10") Integer size) {
+                                                                  @RequestParam(required = false, defaultValue = "10") Integer size,
+                                                                  @RequestParam(required = false) String cursor) {
         log.debug("GET /bookings?state={state}");
         log.debug("X-Sharer-User-Id: {}", userId);
         log.debug("BookingStatus: {}", state);
         log.debug("from: {}", from);
         log.debug("size: {}", size);
+        log.debug("cursor: {}", cursor);
+        if (cursor != null) {
+            return toCursorResponse(bookingService.getAllUserBookingByCursor(state, userId, cursor, size));
+        }
 
         return ResponseEntity.ok(bookingService.getAllUserBooking(state, userId, from, size)
                 .stream()
@@ -69,16 +89,34 @@ public class BookingController {
     public ResponseEntity<List<BookingDtoInfo>> getAllBookingsUserItems(@RequestParam(value = "state", required = false) String state,
                                                                         @RequestHeader("X-Sharer-User-Id") Long userId,
                                                                         @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                                        @RequestParam(required = false, defaultValue = "10") Integer size) {
+                                                                        @RequestParam(required = false, defaultValue = "10") Integer size,
+                                                                        @RequestParam(required = false) String cursor) {
         log.debug("GET /bookings/owner?state={state}");
         log.debug("X-Sharer-User-Id: {}", userId);
         log.debug("BookingStatus: {}", state);
         log.debug("from: {}", from);
         log.debug("size: {}", size);
+        log.debug("cursor: {}", cursor);
+        if (cursor != null) {
+            return toCursorResponse(bookingService.getAllBookingsUserItemsByCursor(state, userId, cursor, size));
+        }
 
         return ResponseEntity.ok(bookingService.getAllBookingsUserItems(state, userId, from, size)
                 .stream()
                 .map(booking -> BookingMapper.toBookingDtoInfo(booking))
                 .collect(Collectors.toList()));
     }
+
+    private ResponseEntity<List<BookingDtoInfo>> toCursorResponse(Slice<Booking> bookings) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.hasNext()) {
+            List<Booking> content = bookings.getContent();
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.of(content.get(content.size() - 1)).encode());
+        }
+
+        return response.body(bookings
+                .stream()
+                .map(booking -> BookingMapper.toBookingDtoInfo(booking))
+                .collect(Collectors.toList()));
+    }
 }
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingInterval {
+    Long itemId;
+    Long bookingId;
+    Long bookerId;
+    LocalDateTime start;
+    LocalDateTime end;
+    BookingStatus status;
+
+    public static BookingInterval of(Booking booking) {
+        return new BookingInterval(booking.getItem().getId(), booking.getId(), booking.getBooker().getId(),
+                booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+
+    public Booking toBooking() {
+        return Booking.builder()
+                .id(bookingId)
+                .start(start)
+                .end(end)
+                .item(Item.builder().id(itemId).build())
+                .booker(User.builder().id(bookerId).build())
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * How a single booking decision guards against a concurrent decision on the same booking.
+ * Either way the decision locks the item row before it writes the booking, so decisions on one item
+ * write one at a time and take their locks in the same order as adding a booking or deciding a batch.
+ * <ul>
+ * <li>OPTIMISTIC reads the booking before that lock. A decision that lost the race holds a stale
+ * version, fails on save and is retried; the retry sees the booking is no longer WAITING.</li>
+ * <li>PESSIMISTIC reads only the item id of the booking, locks the item, then reads the booking with a row lock
+ * and decides on that row, so the loser reads the committed status and the retry loop is never reached.</li>
+ * </ul>
+ */
+public enum BookingLockMode {
+
+    OPTIMISTIC,
+    PESSIMISTIC
+}
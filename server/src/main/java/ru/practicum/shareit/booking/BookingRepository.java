@@ -1,72 +1,211 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking b where b.id = :bookingId " +
             "and (b.booker.id = :itemOwnerId or b.item.owner.id = :itemOwnerId) ")
     Optional<Booking> getByBookingIdAndOwnerItemId(@Param("bookingId") Long bookingId,@Param("itemOwnerId") Long itemOwnerId);
 
+    @Query(" select distinct b.item.id from Booking b where b.id in :bookingIds and b.item.owner.id = :ownerId ")
+    List<Long> findItemIdsByIdInAndOwnerId(@Param("bookingIds") Collection<Long> bookingIds, @Param("ownerId") Long ownerId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query(" select b from Booking b where b.id in :bookingIds and b.item.owner.id = :ownerId ")
+    List<Booking> findAllByIdInAndOwnerId(@Param("bookingIds") Collection<Long> bookingIds, @Param("ownerId") Long ownerId);
+
+    @Query(" select b from Booking b where b.item.id in :itemIds and b.status = :status " +
+            "and b.start < :end and b.end > :start ")
+    List<Booking> findAllOverlapping(@Param("itemIds") Collection<Long> itemIds,
+                                     @Param("status") BookingStatus status,
+                                     @Param("start") LocalDateTime start,
+                                     @Param("end") LocalDateTime end);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(" update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id in :bookingIds and b.status = :expected ")
+    int updateStatuses(@Param("bookingIds") Collection<Long> bookingIds,
+                       @Param("expected") BookingStatus expected,
+                       @Param("status") BookingStatus status);
+
+    @Query(" select b.item.id from Booking b where b.id = :bookingId ")
+    Optional<Long> findItemIdById(@Param("bookingId") Long bookingId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(" select b from Booking b where b.id = :bookingId ")
+    Optional<Booking> findByIdForUpdate(@Param("bookingId") Long bookingId);
+
     //SAME OWNER
-    @Query("select b from Booking b where b.item.owner.id = :userId and b.status = :name " +
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            " where i.owner.id = :userId and b.status = :name " +
             " order by b.start desc ")
-    Page<Booking> findAllBookingByOwnerIdAndByStatus(@Param("userId") Long userId, @Param("name") BookingStatus name, Pageable pageable);
+    List<Booking> findAllBookingByOwnerIdAndByStatus(@Param("userId") Long userId, @Param("name") BookingStatus name, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id = :userId order by b.start desc ")
-    Page<Booking> findAllBookingByOwnerId(@Param("userId") Long userId, Pageable pageable);
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            " where i.owner.id = :userId order by b.start desc ")
+    List<Booking> findAllBookingByOwnerId(@Param("userId") Long userId, Pageable pageable);
 
     //PAST OWNER
-    @Query("select b from Booking b where b.item.owner.id = :userId and b.end < now() and b.status = :name " +
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            " where i.owner.id = :userId and b.end < now() and b.status = :name " +
             "order by b.start desc ")
-    Page<Booking> findAllBookingByOwnerIdAndByStatusPast(@Param("userId") Long userId, @Param("name") BookingStatus name, Pageable pageable);
+    List<Booking> findAllBookingByOwnerIdAndByStatusPast(@Param("userId") Long userId, @Param("name") BookingStatus name, Pageable pageable);
 
     //CURRENT OWNER
-    @Query("select b from Booking b where b.item.owner.id = :userId and b.start < now() and b.end > now() order by b.start desc ")
-    Page<Booking> findAllBookingByOwnerIdAndByStatusCurrent(@Param("userId") Long userId, Pageable pageable);
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            " where i.owner.id = :userId and b.start < now() and b.end > now() order by b.start desc ")
+    List<Booking> findAllBookingByOwnerIdAndByStatusCurrent(@Param("userId") Long userId, Pageable pageable);
 
     //FUTURE OWNER
-    @Query("select b from Booking b where b.item.owner.id = :userId and b.start > now() order by b.start desc ")
-    Page<Booking> findAllBookingByOwnerIdAndByStatusFuture(@Param("userId") Long userId, Pageable pageable);
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            " where i.owner.id = :userId and b.start > now() order by b.start desc ")
+    List<Booking> findAllBookingByOwnerIdAndByStatusFuture(@Param("userId") Long userId, Pageable pageable);
 
     //SAME BOOKER
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking b where b.booker.id = :userId and b.status = :name order by b.start desc ")
-    Page<Booking> findAllBookingByUserIdAndByStatus(@Param("userId") Long userId, @Param("name") BookingStatus name, Pageable pageable);
+    List<Booking> findAllBookingByUserIdAndByStatus(@Param("userId") Long userId, @Param("name") BookingStatus name, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking b where b.booker.id = :userId order by b.start desc ")
-    Page<Booking> findAllBookingByUserId(@Param("userId") Long userId, Pageable pageable);
+    List<Booking> findAllBookingByUserId(@Param("userId") Long userId, Pageable pageable);
 
     //CURRENT
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking b where b.booker.id = :userId and b.start < now() and b.end > now() order by b.start desc ")
-    Page<Booking> findAllBookingByUserIdAndByStatusCurrent(@Param("userId") Long userId, Pageable pageable);
+    List<Booking> findAllBookingByUserIdAndByStatusCurrent(@Param("userId") Long userId, Pageable pageable);
 
     //FUTURE
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking b where b.booker.id = :userId and b.start > now() order by b.start desc ")
-    Page<Booking> findAllBookingByUserIdAndByStatusFuture(@Param("userId") Long userId, Pageable pageable);
+    List<Booking> findAllBookingByUserIdAndByStatusFuture(@Param("userId") Long userId, Pageable pageable);
 
     //PAST
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking b where b.booker.id = :userId and b.end < now() and b.status = :name " +
             " order by b.start desc ")
-    Page<Booking> findAllBookingByUserIdAndByStatusPast(@Param("userId")Long userId, @Param("name") BookingStatus name, Pageable pageable);
+    List<Booking> findAllBookingByUserIdAndByStatusPast(@Param("userId")Long userId, @Param("name") BookingStatus name, Pageable pageable);
+
+    //KEYSET OWNER
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            " where i.owner.id = :userId and b.status = :name " +
+            " and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            " order by b.start desc, b.id desc ")
+    Slice<Booking> findAllBookingByOwnerIdAndByStatusBefore(@Param("userId") Long userId, @Param("name") BookingStatus name,
+                                                            @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            " where i.owner.id = :userId " +
+            " and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            " order by b.start desc, b.id desc ")
+    Slice<Booking> findAllBookingByOwnerIdBefore(@Param("userId") Long userId,
+                                                 @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            " where i.owner.id = :userId and b.end < now() and b.status = :name " +
+            " and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            " order by b.start desc, b.id desc ")
+    Slice<Booking> findAllBookingByOwnerIdAndByStatusPastBefore(@Param("userId") Long userId, @Param("name") BookingStatus name,
+                                                                @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            " where i.owner.id = :userId and b.start < now() and b.end > now() " +
+            " and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            " order by b.start desc, b.id desc ")
+    Slice<Booking> findAllBookingByOwnerIdAndByStatusCurrentBefore(@Param("userId") Long userId,
+                                                                   @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            " where i.owner.id = :userId and b.start > now() " +
+            " and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            " order by b.start desc, b.id desc ")
+    Slice<Booking> findAllBookingByOwnerIdAndByStatusFutureBefore(@Param("userId") Long userId,
+                                                                  @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
+
+    //KEYSET BOOKER
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b where b.booker.id = :userId and b.status = :name " +
+            " and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            " order by b.start desc, b.id desc ")
+    Slice<Booking> findAllBookingByUserIdAndByStatusBefore(@Param("userId") Long userId, @Param("name") BookingStatus name,
+                                                           @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b where b.booker.id = :userId " +
+            " and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            " order by b.start desc, b.id desc ")
+    Slice<Booking> findAllBookingByUserIdBefore(@Param("userId") Long userId,
+                                                @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b where b.booker.id = :userId and b.end < now() and b.status = :name " +
+            " and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            " order by b.start desc, b.id desc ")
+    Slice<Booking> findAllBookingByUserIdAndByStatusPastBefore(@Param("userId") Long userId, @Param("name") BookingStatus name,
+                                                               @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b where b.booker.id = :userId and b.start < now() and b.end > now() " +
+            " and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            " order by b.start desc, b.id desc ")
+    Slice<Booking> findAllBookingByUserIdAndByStatusCurrentBefore(@Param("userId") Long userId,
+                                                                  @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b where b.booker.id = :userId and b.start > now() " +
+            " and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            " order by b.start desc, b.id desc ")
+    Slice<Booking> findAllBookingByUserIdAndByStatusFutureBefore(@Param("userId") Long userId,
+                                                                 @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
 
     //LAST NEXT
     @Query("select b from Booking b where b.start < now() and b.item.id = :itemId " +
             " and b.status in :statuses order by b.start DESC ")
-    Page<Booking> findLastItemBooking(@Param("itemId") Long itemId, @Param("statuses") List<BookingStatus> workedStatuses, Pageable pageable);
+    List<Booking> findLastItemBooking(@Param("itemId") Long itemId, @Param("statuses") List<BookingStatus> workedStatuses, Pageable pageable);
 
 
     @Query("select b from Booking b where b.start >= now() and b.end > now() and b.item.id = :itemId " +
             " and b.status in :statuses order by b.start ")
-    Page<Booking> findNextItemBooking(@Param("itemId") Long itemId, @Param("statuses") List<BookingStatus> workedStatuses, Pageable pageable);
+    List<Booking> findNextItemBooking(@Param("itemId") Long itemId, @Param("statuses") List<BookingStatus> workedStatuses, Pageable pageable);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            " where b.item.id = :itemId and b.status = :status and b.start < :end and b.end > :start ")
+    boolean existsOverlapping(@Param("itemId") Long itemId, @Param("status") BookingStatus status,
+                              @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("select new ru.practicum.shareit.booking.BookingInterval(b.item.id, b.id, b.booker.id, b.start, b.end, b.status) " +
+            " from Booking b where b.status in :statuses ")
+    List<BookingInterval> findAllIntervalsByStatuses(@Param("statuses") List<BookingStatus> statuses);
+
+    //LAST NEXT FOR ITEM LIST
+    @Query("select b from Booking b where b.start < now() and b.item.id in :itemIds and b.status in :statuses " +
+            " and b.start = (select max(lb.start) from Booking lb where lb.item.id = b.item.id " +
+            "  and lb.start < now() and lb.status in :statuses) ")
+    List<Booking> findLastItemBookings(@Param("itemIds") List<Long> itemIds, @Param("statuses") List<BookingStatus> workedStatuses);
+
+    @Query("select b from Booking b where b.start >= now() and b.end > now() and b.item.id in :itemIds " +
+            " and b.status in :statuses " +
+            " and b.start = (select min(nb.start) from Booking nb where nb.item.id = b.item.id " +
+            "  and nb.start >= now() and nb.end > now() and nb.status in :statuses) ")
+    List<Booking> findNextItemBookings(@Param("itemIds") List<Long> itemIds, @Param("statuses") List<BookingStatus> workedStatuses);
 
     @Query("select b from Booking b where b.end < now() and b.item.id = :itemId and b.booker.id = :userId and b.status = :name ")
-    Page<Booking> findLastFinishedBookingByItemIdAndUserId(@Param("itemId") Long itemId, @Param("userId") Long userId,
+    List<Booking> findLastFinishedBookingByItemIdAndUserId(@Param("itemId") Long itemId, @Param("userId") Long userId,
                                                            @Param("name") BookingStatus name, Pageable pageable);
 
 }
@@ -1,5 +1,8 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 import java.util.List;
@@ -9,9 +12,15 @@ public interface BookingService {
 
     Booking approveBooking(Long bookingId, Boolean approved, Long userId);
 
+    List<BookingDecisionResultDto> approveBookings(List<BookingDecisionDto> decisions, Long userId);
+
     Booking getBooking(long bookingId, Long userId);
 
     List<Booking> getAllUserBooking(String state, Long userId, Integer from, Integer size);
 
     List<Booking> getAllBookingsUserItems(String state, Long userId, Integer from, Integer size);
+
+    Slice<Booking> getAllUserBookingByCursor(String state, Long userId, String cursor, Integer size);
+
+    Slice<Booking> getAllBookingsUserItemsByCursor(String state, Long userId, String cursor, Integer size);
 }
@@ -2,21 +2,38 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.CommonPageRequest;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemInfoCache;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -27,62 +44,214 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ItemService itemService;
     private final UserService userService;
+    private final ItemInfoCache itemInfoCache;
+    private final ItemBookingTimeline itemBookingTimeline;
+    private final TransactionTemplate transactionTemplate;
+    @Value("${booking.approve.lock-mode}")
+    private BookingLockMode approveLockMode;
+    @Value("${booking.approve.max-attempts}")
+    private int approveMaxAttempts;
+    @Value("${booking.batch.max-size}")
+    private int batchMaxSize;
 
     @Override
     @Transactional
     public Booking addBooking(BookingDto bookingDto, Long userId) {
         log.debug("addBooking");
-        Optional<Item> itemO = Optional.ofNullable(itemService.getItem(bookingDto.getItemId(), userId));
-        if (!itemO.isPresent()) {
-            throw new NotFoundException("Item not found");
+        if (itemBookingTimeline.isBooked(bookingDto.getItemId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new ConflictException("Item already booked for these dates");
         }
-        Item item = itemO.get();
+        Item item = itemService.getItemForUpdate(bookingDto.getItemId());
         if (!item.getAvailable()) {
             throw new BadRequestException("Item not available");
         }
-        User user = userService.getUser(userId);
-        if (!userId.equals(user.getId())) {
-            throw new NotFoundException("User not found");
-        }
+        User user = userService.getUserReference(userId);
         if (userId.equals(item.getOwner().getId())) {
             throw new NotFoundException("User is owner");
         }
+        if (bookingRepository.existsOverlapping(item.getId(), BookingStatus.APPROVED, bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new ConflictException("Item already booked for these dates");
+        }
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
+        Booking savedBooking = bookingRepository.save(booking);
+        itemInfoCache.evict(item.getId());
+        itemBookingTimeline.index(savedBooking);
 
-        return bookingRepository.save(booking);
+        return savedBooking;
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Booking approveBooking(Long bookingId, Boolean approved, Long userId) {
         log.debug("approveBooking");
-        User user = userService.getUser(userId);
-        if (!userId.equals(user.getId())) {
-            throw new NotFoundException("User not found");
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> approve(bookingId, approved, userId));
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= approveMaxAttempts) {
+                    throw new ConflictException("Booking was changed concurrently");
+                }
+                log.debug("approveBooking: booking {} changed concurrently, attempt {}", bookingId, attempt);
+            }
         }
-        Optional<Booking> bookingO = Optional.ofNullable(bookingRepository.getByBookingIdAndOwnerItemId(bookingId, userId)
-                .orElseThrow(() -> new NotFoundException("Booking not found")));
-        Booking booking = bookingO.get();
-        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
-            throw new BadRequestException("Cannot change booking status: " + booking.getStatus().name());
+    }
+
+    /**
+     * Locks the item before the booking row, in the order adding and batch-deciding bookings take them.
+     */
+    private Booking approve(Long bookingId, Boolean approved, Long userId) {
+        userService.requireExists(userId);
+        Booking booking;
+        if (approveLockMode == BookingLockMode.PESSIMISTIC) {
+            Long itemId = bookingRepository.findItemIdById(bookingId)
+                    .orElseThrow(() -> new NotFoundException("Booking not found"));
+            lockOwnedItem(itemId, userId);
+            booking = bookingRepository.findByIdForUpdate(bookingId)
+                    .orElseThrow(() -> new NotFoundException("Booking not found"));
+            requireWaiting(booking);
+        } else {
+            booking = bookingRepository.getByBookingIdAndOwnerItemId(bookingId, userId)
+                    .orElseThrow(() -> new NotFoundException("Booking not found"));
+            requireWaiting(booking);
+            lockOwnedItem(booking.getItem().getId(), userId);
+        }
+        Long itemId = booking.getItem().getId();
+        if (approved && (itemBookingTimeline.isBooked(itemId, booking.getStart(), booking.getEnd())
+                || bookingRepository.existsOverlapping(itemId, BookingStatus.APPROVED, booking.getStart(), booking.getEnd()))) {
+            throw new ConflictException("Item already booked for these dates");
         }
-        Item item = itemService.getItem(booking.getItem().getId(), userId);
+        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        Booking savedBooking = bookingRepository.saveAndFlush(booking);
+        itemInfoCache.evict(itemId);
+        itemBookingTimeline.index(savedBooking);
+
+        return savedBooking;
+    }
+
+    private void lockOwnedItem(Long itemId, Long userId) {
+        Item item = itemService.getItemForUpdate(itemId);
         if (!item.getOwner().getId().equals(userId)) {
             throw new NotFoundException("Item not found");
         }
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+    }
+
+    private static void requireWaiting(Booking booking) {
+        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+            throw new BadRequestException("Cannot change booking status: " + booking.getStatus().name());
+        }
+    }
+
+    /**
+     * Locks the items of the owned bookings before reading the bookings themselves, so every status is read
+     * under the lock that any other decision on that booking has to take first.
+     */
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> approveBookings(List<BookingDecisionDto> decisions, Long userId) {
+        log.debug("approveBookings");
+        if (decisions.size() > batchMaxSize) {
+            throw new BadRequestException("Too many bookings in batch: " + decisions.size() + ", max " + batchMaxSize);
+        }
+        userService.requireExists(userId);
+        Set<Long> bookingIds = decisions
+                .stream()
+                .map(decision -> decision.getBookingId())
+                .collect(Collectors.toSet());
+        List<Long> itemIds = bookingRepository.findItemIdsByIdInAndOwnerId(bookingIds, userId);
+        if (itemIds.isEmpty()) {
+            return decisions
+                    .stream()
+                    .map(decision -> new BookingDecisionResultDto(decision.getBookingId(), null, "Booking not found"))
+                    .collect(Collectors.toList());
+        }
+        itemService.getItemsForUpdate(itemIds);
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdInAndOwnerId(bookingIds, userId)
+                .stream()
+                .collect(Collectors.toMap(booking -> booking.getId(), booking -> booking));
+        List<Booking> approvedBookings = bookings.isEmpty() ? new ArrayList<>()
+                : new ArrayList<>(bookingRepository.findAllOverlapping(itemIds, BookingStatus.APPROVED,
+                bookings.values().stream().map(booking -> booking.getStart()).min(Comparator.naturalOrder()).get(),
+                bookings.values().stream().map(booking -> booking.getEnd()).max(Comparator.naturalOrder()).get()));
+
+        List<BookingDecisionResultDto> results = new ArrayList<>();
+        Map<BookingStatus, List<Booking>> decided = new EnumMap<>(BookingStatus.class);
+        Set<Long> seen = new HashSet<>();
+        for (BookingDecisionDto decision : decisions) {
+            Booking booking = bookings.get(decision.getBookingId());
+            String error = null;
+            if (!seen.add(decision.getBookingId())) {
+                error = "Duplicate booking id";
+            } else if (booking == null) {
+                error = "Booking not found";
+            } else if (decision.getApproved() == null) {
+                error = "Approved flag is required";
+            } else if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+                error = "Cannot change booking status: " + booking.getStatus().name();
+            } else if (decision.getApproved() && (itemBookingTimeline.isBooked(booking.getItem().getId(), booking.getStart(), booking.getEnd())
+                    || overlaps(approvedBookings, booking))) {
+                error = "Item already booked for these dates";
+            }
+            if (error != null) {
+                results.add(new BookingDecisionResultDto(decision.getBookingId(), null, error));
+                continue;
+            }
+            BookingStatus status = decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+            if (status == BookingStatus.APPROVED) {
+                approvedBookings.add(booking);
+            }
+            decided.computeIfAbsent(status, key -> new ArrayList<>()).add(booking);
+            results.add(new BookingDecisionResultDto(booking.getId(), status, null));
+        }
+
+        Set<Long> changed = new HashSet<>();
+        for (Map.Entry<BookingStatus, List<Booking>> entry : decided.entrySet()) {
+            List<Long> ids = entry.getValue().stream().map(booking -> booking.getId()).collect(Collectors.toList());
+            if (bookingRepository.updateStatuses(ids, BookingStatus.WAITING, entry.getKey()) != ids.size()) {
+                changed.addAll(changedBookingIds(ids, entry.getKey()));
+            }
+            for (Booking booking : entry.getValue()) {
+                if (changed.contains(booking.getId())) {
+                    continue;
+                }
+                booking.setStatus(entry.getKey());
+                itemInfoCache.evict(booking.getItem().getId());
+                itemBookingTimeline.index(booking);
+            }
+        }
+        if (!changed.isEmpty()) {
+            results.replaceAll(result -> result.getStatus() != null && changed.contains(result.getBookingId())
+                    ? new BookingDecisionResultDto(result.getBookingId(), null, "Booking was changed concurrently")
+                    : result);
+        }
+
+        return results;
+    }
 
-        return bookingRepository.save(booking);
+    /**
+     * The bookings of a status update that did not end up in the decided status. The item locks make this
+     * unreachable for decisions made through this service; it guards writers that bypass them.
+     */
+    private List<Long> changedBookingIds(List<Long> ids, BookingStatus status) {
+        return bookingRepository.findAllById(ids)
+                .stream()
+                .filter(booking -> booking.getStatus() != status)
+                .map(booking -> booking.getId())
+                .collect(Collectors.toList());
+    }
+
+    private static boolean overlaps(List<Booking> approvedBookings, Booking booking) {
+        return approvedBookings
+                .stream()
+                .anyMatch(approved -> approved.getItem().getId().equals(booking.getItem().getId())
+                        && approved.getStart().isBefore(booking.getEnd())
+                        && approved.getEnd().isAfter(booking.getStart()));
     }
 
     @Override
     @Transactional
     public Booking getBooking(long bookingId, Long userId) {
         log.debug("getBooking");
-        User user = userService.getUser(userId);
-        if (!userId.equals(user.getId())) {
-            throw new NotFoundException("User not found");
-        }
+        userService.requireExists(userId);
 
         return bookingRepository.getByBookingIdAndOwnerItemId(bookingId, userId)
                 .orElseThrow(() -> new NotFoundException("Booking not found"));
@@ -93,15 +262,12 @@ public class BookingServiceImpl implements BookingService {
     public List<Booking> getAllUserBooking(String state, Long userId, Integer from, Integer size) {
         log.debug("getAllUserBooking");
         CommonPageRequest pageable = new CommonPageRequest(from, size);
-        User user = userService.getUser(userId);
-        if (!userId.equals(user.getId())) {
-            throw new NotFoundException("User not found");
-        }
+        userService.requireExists(userId);
         BookingStatus status = BookingStatus.from(state);
         if (status == null) {
             throw new IllegalArgumentException("Unknown state: " + state);
         }
-        Page<Booking> bookingsList = null;
+        List<Booking> bookingsList = null;
         switch (status) {
             case ALL:
                 bookingsList = bookingRepository.findAllBookingByUserId(userId, pageable);
@@ -123,7 +289,7 @@ public class BookingServiceImpl implements BookingService {
                 break;
         }
 
-        return bookingsList == null ? Collections.EMPTY_LIST : bookingsList.getContent();
+        return bookingsList == null ? Collections.EMPTY_LIST : bookingsList;
     }
 
     @Override
@@ -131,15 +297,12 @@ public class BookingServiceImpl implements BookingService {
     public List<Booking> getAllBookingsUserItems(String state, Long userId, Integer from, Integer size) {
         log.debug("getAllBookingsUserItems");
         CommonPageRequest pageable = new CommonPageRequest(from, size);
-        User user = userService.getUser(userId);
-        if (!userId.equals(user.getId())) {
-            throw new NotFoundException("User not found");
-        }
+        userService.requireExists(userId);
         BookingStatus status = BookingStatus.from(state);
         if (status == null) {
             throw new IllegalArgumentException("Unknown state: " + state);
         }
-        Page<Booking> bookingsList = null;
+        List<Booking> bookingsList = null;
         switch (status) {
             case ALL:
                 bookingsList = bookingRepository.findAllBookingByOwnerId(userId, pageable);
@@ -161,6 +324,88 @@ public class BookingServiceImpl implements BookingService {
                 break;
         }
 
-        return bookingsList == null ? Collections.EMPTY_LIST : bookingsList.getContent();
+        return bookingsList == null ? Collections.EMPTY_LIST : bookingsList;
+    }
+
+    @Override
+    @Transactional
+    public Slice<Booking> getAllUserBookingByCursor(String state, Long userId, String cursor, Integer size) {
+        log.debug("getAllUserBookingByCursor");
+        BookingCursor position = BookingCursor.decode(cursor);
+        PageRequest pageable = PageRequest.of(0, size);
+        userService.requireExists(userId);
+        BookingStatus status = BookingStatus.from(state);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown state: " + state);
+        }
+        LocalDateTime start = position.getStart();
+        Long id = position.getId();
+        Slice<Booking> bookingsSlice = null;
+        switch (status) {
+            case ALL:
+                bookingsSlice = bookingRepository.findAllBookingByUserIdBefore(userId, start, id, pageable);
+                break;
+            case WAITING:
+                bookingsSlice = bookingRepository.findAllBookingByUserIdAndByStatusBefore(userId, BookingStatus.WAITING,
+                        start, id, pageable);
+                break;
+            case PAST:
+                bookingsSlice = bookingRepository.findAllBookingByUserIdAndByStatusPastBefore(userId, BookingStatus.APPROVED,
+                        start, id, pageable);
+                break;
+            case CURRENT:
+                bookingsSlice = bookingRepository.findAllBookingByUserIdAndByStatusCurrentBefore(userId, start, id, pageable);
+                break;
+            case FUTURE:
+                bookingsSlice = bookingRepository.findAllBookingByUserIdAndByStatusFutureBefore(userId, start, id, pageable);
+                break;
+            case REJECTED:
+                bookingsSlice = bookingRepository.findAllBookingByUserIdAndByStatusBefore(userId, BookingStatus.REJECTED,
+                        start, id, pageable);
+                break;
+        }
+
+        return bookingsSlice == null ? new SliceImpl<>(Collections.emptyList()) : bookingsSlice;
+    }
+
+    @Override
+    @Transactional
+    public Slice<Booking> getAllBookingsUserItemsByCursor(String state, Long userId, String cursor, Integer size) {
+        log.debug("getAllBookingsUserItemsByCursor");
+        BookingCursor position = BookingCursor.decode(cursor);
+        PageRequest pageable = PageRequest.of(0, size);
+        userService.requireExists(userId);
+        BookingStatus status = BookingStatus.from(state);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown state: " + state);
+        }
+        LocalDateTime start = position.getStart();
+        Long id = position.getId();
+        Slice<Booking> bookingsSlice = null;
+        switch (status) {
+            case ALL:
+                bookingsSlice = bookingRepository.findAllBookingByOwnerIdBefore(userId, start, id, pageable);
+                break;
+            case WAITING:
+                bookingsSlice = bookingRepository.findAllBookingByOwnerIdAndByStatusBefore(userId, BookingStatus.WAITING,
+                        start, id, pageable);
+                break;
+            case PAST:
+                bookingsSlice = bookingRepository.findAllBookingByOwnerIdAndByStatusPastBefore(userId, BookingStatus.APPROVED,
+                        start, id, pageable);
+                break;
+            case CURRENT:
+                bookingsSlice = bookingRepository.findAllBookingByOwnerIdAndByStatusCurrentBefore(userId, start, id, pageable);
+                break;
+            case FUTURE:
+                bookingsSlice = bookingRepository.findAllBookingByOwnerIdAndByStatusFutureBefore(userId, start, id, pageable);
+                break;
+            case REJECTED:
+                bookingsSlice = bookingRepository.findAllBookingByOwnerIdAndByStatusBefore(userId, BookingStatus.REJECTED,
+                        start, id, pageable);
+                break;
+        }
+
+        return bookingsSlice == null ? new SliceImpl<>(Collections.emptyList()) : bookingsSlice;
     }
 }
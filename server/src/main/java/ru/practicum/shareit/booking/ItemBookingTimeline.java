@@ -0,0 +1,235 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory per-item timeline of worked bookings ordered by start, plus the approved ones on their own.
+ * Last/next lookups and overlap checks are binary searches; disabled unless booking.timeline.enabled=true.
+ * <p>
+ * Every booking applied by {@link #index} bumps a generation counter and remembers it per booking.
+ * {@link #build} reads the bookings table without holding the lock, so it keeps the indexed state of any
+ * booking changed after its read started instead of the older row from the snapshot.
+ * <p>
+ * Each build keeps per item only the bookings that have not ended yet and the latest one started before now,
+ * the only past booking a last lookup can still return; indexed bookings are added until the next build.
+ */
+@Component
+@Slf4j
+public class ItemBookingTimeline {
+
+    private static final Comparator<BookingInterval> ORDER = Comparator
+            .comparing((BookingInterval interval) -> interval.getStart())
+            .thenComparing(interval -> interval.getBookingId());
+
+    private final BookingRepository bookingRepository;
+    private final List<BookingStatus> workedStatuses;
+    private final boolean enabled;
+    private final Map<Long, NavigableSet<BookingInterval>> worked = new HashMap<>();
+    private final Map<Long, NavigableSet<BookingInterval>> approved = new HashMap<>();
+    private final Map<Long, BookingInterval> intervals = new HashMap<>();
+    private final Map<Long, Long> changedAt = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long generation;
+
+    public ItemBookingTimeline(BookingRepository bookingRepository,
+                               @Value("${booking.statuses.worked}") List<BookingStatus> workedStatuses,
+                               @Value("${booking.timeline.enabled}") boolean enabled) {
+        this.bookingRepository = bookingRepository;
+        this.workedStatuses = workedStatuses;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${booking.timeline.rebuild-interval:PT10M}",
+            initialDelayString = "${booking.timeline.rebuild-interval:PT10M}")
+    @Transactional(readOnly = true)
+    public synchronized void build() {
+        if (!enabled) {
+            return;
+        }
+        long snapshotGeneration = generation();
+        List<BookingInterval> stored = bookingRepository.findAllIntervalsByStatuses(workedStatuses);
+        lock.writeLock().lock();
+        try {
+            Set<Long> changed = changedSince(snapshotGeneration);
+            List<BookingInterval> kept = changed.stream()
+                    .map(bookingId -> intervals.get(bookingId))
+                    .filter(interval -> interval != null)
+                    .collect(Collectors.toList());
+            worked.clear();
+            approved.clear();
+            intervals.clear();
+            stored.stream()
+                    .filter(interval -> !changed.contains(interval.getBookingId()))
+                    .forEach(interval -> add(interval));
+            kept.forEach(interval -> add(interval));
+            prune(LocalDateTime.now());
+            log.info("Item booking timeline built: {} bookings, {} items", intervals.size(), worked.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Booking booking) {
+        if (!enabled) {
+            return;
+        }
+        BookingInterval interval = BookingInterval.of(booking);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                changed(interval.getBookingId());
+                remove(interval.getBookingId());
+                if (workedStatuses.contains(interval.getStatus())) {
+                    add(interval);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public Optional<Booking> getLast(Long itemId, LocalDateTime now) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<BookingInterval> timeline = worked.get(itemId);
+
+            return timeline == null ? Optional.empty() : Optional.ofNullable(timeline.lower(probe(itemId, now)))
+                    .map(interval -> interval.toBooking());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Booking> getNext(Long itemId, LocalDateTime now) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<BookingInterval> timeline = worked.get(itemId);
+
+            return timeline == null ? Optional.empty() : Optional.ofNullable(timeline.ceiling(probe(itemId, now)))
+                    .map(interval -> interval.toBooking());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isBooked(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!enabled) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            NavigableSet<BookingInterval> timeline = approved.get(itemId);
+            if (timeline == null) {
+                return false;
+            }
+            BookingInterval before = timeline.lower(probe(itemId, end));
+
+            return before != null && before.getEnd().isAfter(start);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long generation() {
+        lock.readLock().lock();
+        try {
+            return generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void changed(Long bookingId) {
+        changedAt.put(bookingId, ++generation);
+    }
+
+    /**
+     * Returns the bookings changed after the given generation and forgets the older changes, which
+     * the snapshot taken at that generation already reflects. Callers hold the write lock.
+     */
+    private Set<Long> changedSince(long snapshotGeneration) {
+        changedAt.values().removeIf(changeGeneration -> changeGeneration <= snapshotGeneration);
+
+        return new HashSet<>(changedAt.keySet());
+    }
+
+    /**
+     * Drops the bookings ended by now that started before the latest one started by now. Callers hold the write lock.
+     */
+    private void prune(LocalDateTime now) {
+        List<Long> expired = new ArrayList<>();
+        worked.forEach((itemId, timeline) -> {
+            BookingInterval last = timeline.lower(probe(itemId, now));
+            if (last != null) {
+                timeline.headSet(last, false)
+                        .stream()
+                        .filter(interval -> !interval.getEnd().isAfter(now))
+                        .forEach(interval -> expired.add(interval.getBookingId()));
+            }
+        });
+        expired.forEach(bookingId -> remove(bookingId));
+    }
+
+    private void add(BookingInterval interval) {
+        intervals.put(interval.getBookingId(), interval);
+        worked.computeIfAbsent(interval.getItemId(), key -> new TreeSet<>(ORDER)).add(interval);
+        if (interval.getStatus() == BookingStatus.APPROVED) {
+            approved.computeIfAbsent(interval.getItemId(), key -> new TreeSet<>(ORDER)).add(interval);
+        }
+    }
+
+    private void remove(Long bookingId) {
+        BookingInterval interval = intervals.remove(bookingId);
+        if (interval == null) {
+            return;
+        }
+        remove(worked, interval);
+        remove(approved, interval);
+    }
+
+    private static void remove(Map<Long, NavigableSet<BookingInterval>> timelines, BookingInterval interval) {
+        NavigableSet<BookingInterval> timeline = timelines.get(interval.getItemId());
+        if (timeline != null) {
+            timeline.remove(interval);
+            if (timeline.isEmpty()) {
+                timelines.remove(interval.getItemId());
+            }
+        }
+    }
+
+    private static BookingInterval probe(Long itemId, LocalDateTime start) {
+        return new BookingInterval(itemId, Long.MIN_VALUE, null, start, start, null);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = {"bookingId"})
+public class BookingDecisionDto {
+
+    private Long bookingId;
+    private Boolean approved;
+}
@@ -24,6 +24,15 @@ public class ApplicationErrorHandler {
         return Map.of("Ошибка сервера", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(code = HttpStatus.CONFLICT, reason = "ConflictException")
+    public Map<String, String> handleConflictException(final ConflictException e) {
+        log.debug("Ошибка:{}", e.getMessage());
+        log.debug("stacktrace ошибки:{}", e.getStackTrace());
+
+        return Map.of("Ошибка:", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(code = HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleIllegalArgumentException(final IllegalArgumentException e) {
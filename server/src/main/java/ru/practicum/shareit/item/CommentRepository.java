@@ -1,12 +1,49 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    @Query(" select c from Comment c where c.item.id = :itemId ")
-    List<Comment> findAllCommentsByItemId(@Param("itemId") Long itemId);
+    @Query(" select new ru.practicum.shareit.item.dto.ItemInfoDto$CommentDto(c.id, c.text, c.author.name, c.created) " +
+            " from Comment c where c.item.id = :itemId order by c.created, c.id ")
+    List<ItemInfoDto.CommentDto> findCommentsByItemId(@Param("itemId") Long itemId, Pageable pageable);
+
+    @Query(" select new ru.practicum.shareit.item.dto.ItemInfoDto$CommentDto(c.id, c.text, c.author.name, c.created) " +
+            " from Comment c where c.item.id = :itemId " +
+            " and (c.created > :created or (c.created = :created and c.id > :id)) order by c.created, c.id ")
+    Slice<ItemInfoDto.CommentDto> findCommentsByItemIdAfter(@Param("itemId") Long itemId,
+                                                            @Param("created") LocalDateTime created,
+                                                            @Param("id") Long id, Pageable pageable);
+
+    /**
+     * The first {@code limit} comments of each item, in the order {@link #findCommentsByItemId} pages them.
+     */
+    @Query(value = " select c.item_id as \"itemId\", c.comment_id as \"id\", c.text as \"text\", " +
+            "  u.name as \"authorName\", c.created as \"created\" " +
+            " from (select cm.*, row_number() over (partition by cm.item_id order by cm.created, cm.comment_id) as rn " +
+            "  from comments as cm where cm.item_id in (:itemIds)) as c " +
+            " join users as u on u.user_id = c.user_id " +
+            " where c.rn <= :limit " +
+            " order by c.item_id, c.created, c.comment_id ",
+            nativeQuery = true)
+    List<ItemComment> findFirstCommentsByItemIds(@Param("itemIds") List<Long> itemIds, @Param("limit") int limit);
+
+    interface ItemComment {
+        Long getItemId();
+
+        Long getId();
+
+        String getText();
+
+        String getAuthorName();
+
+        LocalDateTime getCreated();
+    }
 }
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.CacheConfig;
+import ru.practicum.shareit.CacheGenerations;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The oldest comments of an item, as many as a first page plus one look-ahead row.
+ * New comments are appended in place once their transaction commits,
+ * and a list loaded before that append is not cached over it.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemCommentCache {
+
+    private final CacheManager cacheManager;
+    private final CacheGenerations generations = new CacheGenerations();
+
+    @SuppressWarnings("unchecked")
+    public Optional<List<ItemInfoDto.CommentDto>> get(Long itemId) {
+        return Optional.ofNullable(cache().get(itemId, List.class));
+    }
+
+    /**
+     * Taken before the comments are loaded and passed back to {@link #put}.
+     */
+    public long stamp(Long itemId) {
+        return generations.stamp(itemId);
+    }
+
+    public void put(Long itemId, List<ItemInfoDto.CommentDto> comments, long stamp) {
+        List<ItemInfoDto.CommentDto> copy = Collections.unmodifiableList(new ArrayList<>(comments));
+        CacheGenerations.afterCommit(() -> nativeMap().compute(itemId,
+                (key, current) -> generations.isCurrent(itemId, stamp) ? copy : current));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void append(Long itemId, ItemInfoDto.CommentDto comment, int limit) {
+        CacheGenerations.afterCommit(() -> {
+            generations.invalidate(itemId);
+            nativeMap().computeIfPresent(itemId, (key, value) -> {
+                List<ItemInfoDto.CommentDto> comments = (List<ItemInfoDto.CommentDto>) value;
+                if (comments.size() >= limit
+                        || comments.stream().anyMatch(cached -> cached.getId().equals(comment.getId()))) {
+                    return comments;
+                }
+                List<ItemInfoDto.CommentDto> appended = new ArrayList<>(comments);
+                appended.add(comment);
+
+                return Collections.unmodifiableList(appended);
+            });
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> nativeMap() {
+        return ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache().getNativeCache()).asMap();
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CacheConfig.ITEM_COMMENTS);
+    }
+}
@@ -1,13 +1,20 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -15,7 +22,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class ItemController {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/items/{itemId}/comment")
     public ResponseEntity<CommentDto> addCommentItem(@RequestBody CommentDto commentDto,
@@ -37,6 +48,16 @@ public class ItemController {
         return ResponseEntity.ok(ItemMapper.toItemDto(itemService.addItem(itemDto, userId)));
     }
 
+    @PostMapping("/items/batch")
+    public ResponseEntity<List<ItemBatchResultDto>> addItems(@RequestBody List<ItemDto> itemDtos,
+                                                             @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.debug("POST /items/batch request");
+        log.debug("X-Sharer-User-Id: {}", userId);
+        log.debug("items: {}", itemDtos.size());
+
+        return ResponseEntity.ok(itemService.addItems(itemDtos, userId));
+    }
+
     @PatchMapping("/items/{itemId}")
     public ResponseEntity<ItemDto> updateItem(@RequestBody ItemDto itemDto, @PathVariable Long itemId,
                                                   @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -57,6 +78,25 @@ public class ItemController {
         return ResponseEntity.ok(itemService.getItemWithBookings(itemId, userId));
     }
 
+    @GetMapping("/items/{itemId}/comments")
+    public ResponseEntity<List<ItemInfoDto.CommentDto>> getComments(@PathVariable long itemId,
+                                                                    @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false, defaultValue = "20") Integer size) {
+        log.debug("GET /items/{itemId}/comments?cursor={cursor}&size={size}");
+        log.debug("X-Sharer-User-Id: {}", userId);
+        log.debug("itemId: {}", itemId);
+        log.debug("cursor: {}", cursor);
+        Slice<ItemInfoDto.CommentDto> comments = itemService.getComments(itemId, userId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (comments.hasNext()) {
+            List<ItemInfoDto.CommentDto> content = comments.getContent();
+            response.header(NEXT_CURSOR_HEADER, CommentCursor.of(content.get(content.size() - 1)).encode());
+        }
+
+        return response.body(comments.getContent());
+    }
+
     @GetMapping("/items")
     public ResponseEntity<List<ItemInfoDto>> getAllUserItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.debug("GET /items request");
@@ -67,14 +107,42 @@ public class ItemController {
 
     @GetMapping("/items/search")
     public ResponseEntity<List<ItemDto>> getItemsBySearch(@RequestParam(value = "text") String text,
-                                                       @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.debug("GET /items/search?text={text}");
+                                                       @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestParam(required = false, defaultValue = "0") Integer from,
+                                                       @RequestParam(required = false) Integer size,
+                                                       @RequestParam(required = false) Long afterId) {
+        log.debug("GET /items/search?text={text}&from={from}&size={size}&afterId={afterId}");
         log.debug("X-Sharer-User-Id: {}", userId);
         log.debug("text: {}", text);
+        log.debug("from: {}", from);
+        log.debug("size: {}", size);
+        log.debug("afterId: {}", afterId);
+        List<Item> items = afterId == null
+                ? itemService.getItemsBySearch(text, userId, from, size)
+                : itemService.getItemsBySearchAfter(text, userId, afterId, size);
 
-        return ResponseEntity.ok(itemService.getItemsBySearch(text, userId)
+        return ResponseEntity.ok(items
                 .stream()
                 .map(item -> ItemMapper.toItemDto(item))
                 .collect(Collectors.toList()));
     }
+
+    @GetMapping(value = "/items/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItemsBySearch(@RequestParam(value = "text") String text,
+                                                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.debug("GET /items/search/stream?text={text}");
+        log.debug("X-Sharer-User-Id: {}", userId);
+        log.debug("text: {}", text);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> itemService.streamItemsBySearch(text, userId, item -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(ItemMapper.toItemDto(item)));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+    }
 }
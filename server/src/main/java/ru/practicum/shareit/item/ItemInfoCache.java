@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.CacheConfig;
+import ru.practicum.shareit.CacheGenerations;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Assembled item views keyed by item and by whether the reader owns it.
+ * An owner view expires no later than the start of its next booking, when "last" and "next" shift.
+ * Puts and evictions take effect after the surrounding transaction commits;
+ * a put whose stamp predates an eviction of the item is dropped.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemInfoCache {
+
+    private final CacheManager cacheManager;
+    private final CacheGenerations generations = new CacheGenerations();
+
+    public ItemInfoDto get(Long itemId, Long userId) {
+        Cache cache = cache();
+        Entry ownerEntry = cache.get(new Key(itemId, true), Entry.class);
+        if (ownerEntry != null && ownerEntry.getOwnerId().equals(userId)) {
+            return ownerEntry.getItemInfo();
+        }
+        Entry otherEntry = cache.get(new Key(itemId, false), Entry.class);
+        if (otherEntry != null && !otherEntry.getOwnerId().equals(userId)) {
+            return otherEntry.getItemInfo();
+        }
+
+        return null;
+    }
+
+    /**
+     * Taken before the item view is loaded and passed back to {@link #put}.
+     */
+    public long stamp(Long itemId) {
+        return generations.stamp(itemId);
+    }
+
+    public void put(Item item, Long userId, ItemInfoDto itemInfo, Booking nextBooking, long stamp) {
+        boolean owner = item.getOwner().getId().equals(userId);
+        LocalDateTime expiresAt = nextBooking != null ? nextBooking.getStart() : null;
+        Entry entry = new Entry(item.getOwner().getId(), itemInfo, expiresAt);
+        CacheGenerations.afterCommit(() -> nativeMap().compute(new Key(item.getId(), owner),
+                (key, current) -> generations.isCurrent(item.getId(), stamp) ? entry : current));
+    }
+
+    public void evict(Long itemId) {
+        CacheGenerations.afterCommit(() -> {
+            generations.invalidate(itemId);
+            Map<Object, Object> map = nativeMap();
+            map.remove(new Key(itemId, true));
+            map.remove(new Key(itemId, false));
+        });
+    }
+
+    public static Expiry<Object, Object> expiry(Duration ttl) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Object key, Object value, long currentTime) {
+                long ttlNanos = ttl.toNanos();
+                if (!(value instanceof Entry) || ((Entry) value).getExpiresAt() == null) {
+                    return ttlNanos;
+                }
+                long untilNext = Duration.between(LocalDateTime.now(), ((Entry) value).getExpiresAt()).toNanos();
+
+                return Math.max(0, Math.min(ttlNanos, untilNext));
+            }
+
+            @Override
+            public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> nativeMap() {
+        return ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache().getNativeCache()).asMap();
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CacheConfig.ITEM_INFO);
+    }
+
+    @Value
+    static class Key {
+        Long itemId;
+        boolean owner;
+    }
+
+    @Value
+    static class Entry {
+        Long ownerId;
+        ItemInfoDto itemInfo;
+        LocalDateTime expiresAt;
+    }
+}
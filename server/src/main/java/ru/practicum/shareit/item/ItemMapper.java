@@ -8,6 +8,7 @@ import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -36,27 +37,42 @@ public class ItemMapper {
     }
 
     public static ItemInfoDto toItemInfoDto(Item item, List<Comment> comments, Booking lastBooking, Booking nextBooking) {
+        return toItemInfoDto(item,
+                comments == null ? Collections.EMPTY_LIST : comments
+                        .stream()
+                        .map(comment -> toCommentInfoDto(comment))
+                        .collect(Collectors.toList()),
+                null,
+                lastBooking,
+                nextBooking);
+    }
+
+    public static ItemInfoDto toItemInfoDto(Item item, List<ItemInfoDto.CommentDto> comments, String commentsCursor,
+                                            Booking lastBooking, Booking nextBooking) {
         return new ItemInfoDto(item.getId(),
                 item.getName(),
                 item.getDescription(),
                 item.getAvailable(),
-                comments == null ? Collections.EMPTY_LIST : comments
-                        .stream()
-                        .map(comment -> new ItemInfoDto.CommentDto(comment.getId(), comment.getText(),
-                                comment.getAuthor().getName(), comment.getCreated()))
-                        .collect(Collectors.toList()),
+                comments,
+                commentsCursor,
                 lastBooking == null ? null : new ItemInfoDto.BookingDto(lastBooking.getId(), lastBooking.getBooker().getId()),
                 nextBooking == null ? null : new ItemInfoDto.BookingDto(nextBooking.getId(), nextBooking.getBooker().getId())
         );
     }
 
+    public static ItemInfoDto.CommentDto toCommentInfoDto(Comment comment) {
+
+        return new ItemInfoDto.CommentDto(comment.getId(), comment.getText(), comment.getAuthor().getName(),
+                comment.getCreated());
+    }
+
     public static Comment toComment(CommentDto commentDto, Item item, User user) {
 
         return  Comment.builder()
                 .text(commentDto.getText())
                 .item(Item.builder().id(item.getId()).build())
                 .author(user)
-                .created(LocalDateTime.now())
+                .created(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
                 .build();
     }
 
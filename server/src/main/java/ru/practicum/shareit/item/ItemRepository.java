@@ -1,17 +1,42 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    @Query(" select it from Item  it where it.request.id in :itemRequestIds ")
-    List<Item> findAllByRequestIdList(@Param("itemRequestIds") List<Long> itemRequestIds);
+    @Query(" select new ru.practicum.shareit.item.dto.ItemDto(it.id, it.name, it.description, it.available, it.request.id) " +
+            " from Item it where it.request.id in :itemRequestIds ")
+    List<ItemDto> findAllByRequestIdList(@Param("itemRequestIds") List<Long> itemRequestIds);
+
+    List<Item> findAllByAvailableTrue();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(" select it from Item it where it.id = :itemId ")
+    Optional<Item> findByIdForUpdate(@Param("itemId") Long itemId);
+
+    @Query(" select it.name from Item it where it.owner.id = :ownerId and it.name in :names ")
+    List<String> findNamesByOwnerIdAndNameIn(@Param("ownerId") Long ownerId, @Param("names") Collection<String> names);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(" select it from Item it where it.id in :itemIds order by it.id ")
+    List<Item> findAllByIdForUpdate(@Param("itemIds") Collection<Long> itemIds);
 
     @Query(" select it " +
             " from Item as it " +
@@ -21,11 +46,45 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     @Query(" select it " +
             " from Item as it " +
-            " join it.owner as u " +
             " where it.available = true " +
             " and (" +
             "  lower(it.description) like concat('%', lower(:pattern), '%') " +
             "  or lower(it.name) like concat('%', lower(:pattern), '%') " +
-            ") ")
-    List<Item> findAllBySearch(@Param("pattern") String pattern);
-}
\ No newline at end of file
+            ") " +
+            " order by case when lower(it.name) like concat('%', lower(:pattern), '%') then 0 else 1 end, it.id ")
+    List<Item> findAllBySearch(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(value = " select it.* " +
+            " from items as it " +
+            " where it.available = true " +
+            " and (" +
+            "  lower(it.description) like concat('%', lower(:pattern), '%') " +
+            "  or lower(it.name) like concat('%', lower(:pattern), '%') " +
+            ") " +
+            " order by similarity(lower(it.name), lower(:pattern)) desc, " +
+            "  word_similarity(lower(:pattern), lower(coalesce(it.description, ''))) desc, it.item_id ",
+            nativeQuery = true)
+    List<Item> findAllBySearchRanked(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(" select it " +
+            " from Item as it " +
+            " where it.available = true " +
+            " and it.id > :afterId " +
+            " and (" +
+            "  lower(it.description) like concat('%', lower(:pattern), '%') " +
+            "  or lower(it.name) like concat('%', lower(:pattern), '%') " +
+            ") " +
+            " order by it.id ")
+    List<Item> findAllBySearchAfter(@Param("pattern") String pattern, @Param("afterId") Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "100"))
+    @Query(" select it " +
+            " from Item as it " +
+            " where it.available = true " +
+            " and (" +
+            "  lower(it.description) like concat('%', lower(:pattern), '%') " +
+            "  or lower(it.name) like concat('%', lower(:pattern), '%') " +
+            ") " +
+            " order by it.id ")
+    Stream<Item> streamAllBySearch(@Param("pattern") String pattern);
+}
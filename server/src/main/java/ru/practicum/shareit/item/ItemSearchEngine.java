@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item;
+
+public enum ItemSearchEngine {
+
+    LIKE,
+    TRIGRAM,
+    MEMORY
+}
@@ -0,0 +1,354 @@
+package ru.practicum.shareit.item;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory trigram inverted index over the name and description of available items.
+ * Used by item search when item.search.engine=memory; every other engine leaves it empty.
+ * <p>
+ * Every change applied by {@link #index} or {@link #removeOwner} bumps a generation counter and
+ * remembers it per item. {@link #build} and {@link #checkConsistency} read the items table without
+ * holding the lock, so they leave alone any item changed after their read started: its entry is
+ * newer than the snapshot.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Long> changedAt = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long generation;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${item.search.engine}") ItemSearchEngine searchEngine) {
+        this.itemRepository = itemRepository;
+        this.enabled = searchEngine == ItemSearchEngine.MEMORY;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void build() {
+        if (!enabled) {
+            return;
+        }
+        long snapshotGeneration = generation();
+        List<IndexedItem> available = itemRepository.findAllByAvailableTrue()
+                .stream()
+                .map(item -> IndexedItem.of(item))
+                .collect(Collectors.toList());
+        lock.writeLock().lock();
+        try {
+            Set<Long> changed = changedSince(snapshotGeneration);
+            List<IndexedItem> kept = changed.stream()
+                    .map(itemId -> items.get(itemId))
+                    .filter(item -> item != null)
+                    .collect(Collectors.toList());
+            items.clear();
+            postings.clear();
+            available.stream()
+                    .filter(item -> !changed.contains(item.getId()))
+                    .forEach(item -> add(item));
+            kept.forEach(item -> add(item));
+            log.info("Item search index built: {} items, {} trigrams", items.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Item item) {
+        if (!enabled) {
+            return;
+        }
+        IndexedItem indexedItem = IndexedItem.of(item);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                changed(indexedItem.getId());
+                remove(indexedItem.getId());
+                if (indexedItem.isAvailable()) {
+                    add(indexedItem);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeOwner(Long ownerId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                List<Long> ownerItemIds = items.values()
+                        .stream()
+                        .filter(item -> ownerId.equals(item.getOwnerId()))
+                        .map(item -> item.getId())
+                        .collect(Collectors.toList());
+                ownerItemIds.forEach(itemId -> {
+                    changed(itemId);
+                    remove(itemId);
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public List<Item> search(String pattern, Integer from, Integer size) {
+        String text = pattern.toLowerCase();
+
+        return find(text).stream()
+                .sorted(Comparator.comparing((IndexedItem item) -> item.getSearchName().contains(text) ? 0 : 1)
+                        .thenComparing(item -> item.getId()))
+                .skip(from)
+                .limit(size)
+                .map(item -> item.toItem())
+                .collect(Collectors.toList());
+    }
+
+    public List<Item> searchAfter(String pattern, Long afterId, Integer size) {
+        return find(pattern.toLowerCase()).stream()
+                .filter(item -> item.getId() > afterId)
+                .sorted(Comparator.comparing(item -> item.getId()))
+                .limit(size)
+                .map(item -> item.toItem())
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${item.search.memory.check-interval:PT10M}",
+            initialDelayString = "${item.search.memory.check-interval:PT10M}")
+    @Transactional(readOnly = true)
+    public synchronized ConsistencyReport checkConsistency() {
+        if (!enabled) {
+            return new ConsistencyReport(Collections.emptySet(), Collections.emptySet(), Collections.emptySet());
+        }
+        long snapshotGeneration = generation();
+        Map<Long, IndexedItem> stored = itemRepository.findAllByAvailableTrue()
+                .stream()
+                .map(item -> IndexedItem.of(item))
+                .collect(Collectors.toMap(item -> item.getId(), item -> item));
+        Set<Long> missing = new TreeSet<>();
+        Set<Long> stale = new TreeSet<>();
+        Set<Long> outdated = new TreeSet<>();
+        lock.writeLock().lock();
+        try {
+            Set<Long> changed = changedSince(snapshotGeneration);
+            stored.forEach((itemId, item) -> {
+                IndexedItem indexed = items.get(itemId);
+                if (changed.contains(itemId)) {
+                    return;
+                }
+                if (indexed == null) {
+                    missing.add(itemId);
+                } else if (!indexed.getName().equals(item.getName())
+                        || !indexed.getDescription().equals(item.getDescription())) {
+                    outdated.add(itemId);
+                }
+            });
+            items.keySet()
+                    .stream()
+                    .filter(itemId -> !stored.containsKey(itemId) && !changed.contains(itemId))
+                    .forEach(itemId -> stale.add(itemId));
+            stale.forEach(itemId -> remove(itemId));
+            outdated.forEach(itemId -> remove(itemId));
+            missing.forEach(itemId -> add(stored.get(itemId)));
+            outdated.forEach(itemId -> add(stored.get(itemId)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ConsistencyReport report = new ConsistencyReport(missing, stale, outdated);
+        if (!report.isConsistent()) {
+            log.warn("Item search index diverged from items table and was repaired: {}", report);
+        }
+
+        return report;
+    }
+
+    private long generation() {
+        lock.readLock().lock();
+        try {
+            return generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void changed(Long itemId) {
+        changedAt.put(itemId, ++generation);
+    }
+
+    /**
+     * Returns the items changed after the given generation and forgets the older changes, which
+     * the snapshot taken at that generation already reflects. Callers hold the write lock.
+     */
+    private Set<Long> changedSince(long snapshotGeneration) {
+        changedAt.values().removeIf(changeGeneration -> changeGeneration <= snapshotGeneration);
+
+        return new HashSet<>(changedAt.keySet());
+    }
+
+    private List<IndexedItem> find(String text) {
+        lock.readLock().lock();
+        try {
+            return candidates(text)
+                    .stream()
+                    .map(itemId -> items.get(itemId))
+                    .filter(item -> item.matches(text))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> candidates(String text) {
+        if (text.length() < GRAM) {
+            return items.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(text)) {
+            Set<Long> list = postings.get(gram);
+            if (list == null) {
+                return Collections.emptyList();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size()));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+
+        return result;
+    }
+
+    private void add(IndexedItem item) {
+        items.put(item.getId(), item);
+        for (String gram : item.grams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(item.getId());
+        }
+    }
+
+    private void remove(Long itemId) {
+        IndexedItem item = items.remove(itemId);
+        if (item == null) {
+            return;
+        }
+        for (String gram : item.grams()) {
+            Set<Long> list = postings.get(gram);
+            if (list != null) {
+                list.remove(itemId);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM));
+        }
+
+        return result;
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class IndexedItem {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final String searchName;
+        private final String searchDescription;
+        private final boolean available;
+        private final Long ownerId;
+        private final Long requestId;
+
+        static IndexedItem of(Item item) {
+            String description = item.getDescription() == null ? "" : item.getDescription();
+
+            return new IndexedItem(item.getId(),
+                    item.getName(),
+                    description,
+                    item.getName().toLowerCase(),
+                    description.toLowerCase(),
+                    Boolean.TRUE.equals(item.getAvailable()),
+                    item.getOwner() != null ? item.getOwner().getId() : null,
+                    item.getRequest() != null ? item.getRequest().getId() : null);
+        }
+
+        boolean matches(String text) {
+            return searchName.contains(text) || searchDescription.contains(text);
+        }
+
+        Set<String> grams() {
+            Set<String> result = ItemSearchIndex.grams(searchName);
+            result.addAll(ItemSearchIndex.grams(searchDescription));
+
+            return result;
+        }
+
+        Item toItem() {
+            return Item.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .available(available)
+                    .request(requestId != null ? ItemRequest.builder().id(requestId).build() : null)
+                    .build();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
+    @ToString
+    public static final class ConsistencyReport {
+        private final Set<Long> missing;
+        private final Set<Long> stale;
+        private final Set<Long> outdated;
+
+        public boolean isConsistent() {
+            return missing.isEmpty() && stale.isEmpty() && outdated.isEmpty();
+        }
+    }
+}
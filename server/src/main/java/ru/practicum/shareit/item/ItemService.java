@@ -1,23 +1,39 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     Item addItem(ItemDto itemDto, Long userId);
 
+    List<ItemBatchResultDto> addItems(List<ItemDto> itemDtos, Long userId);
+
     Item updateItem(ItemDto itemDto, Long itemId, Long userId);
 
     List<ItemInfoDto> getAllUserItems(Long userId);
 
     Item getItem(Long itemId, Long userId);
 
-    List<Item> getItemsBySearch(String pattern, Long userId);
+    Item getItemForUpdate(Long itemId);
+
+    List<Item> getItemsForUpdate(Collection<Long> itemIds);
+
+    List<Item> getItemsBySearch(String pattern, Long userId, Integer from, Integer size);
+
+    List<Item> getItemsBySearchAfter(String pattern, Long userId, Long afterId, Integer size);
+
+    void streamItemsBySearch(String pattern, Long userId, Consumer<Item> consumer);
 
     ItemInfoDto getItemWithBookings(Long itemId, Long userId);
 
+    Slice<ItemInfoDto.CommentDto> getComments(Long itemId, Long userId, String cursor, Integer size);
+
     Comment addCommentItem(CommentDto commentDto,Long itemId, Long userId);
 }
@@ -2,27 +2,48 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.CommonPageRequest;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingTimeline;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
-import java.util.ArrayList;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -31,19 +52,119 @@ import java.util.Optional;
 public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final UserService userService;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemInfoCache itemInfoCache;
+    private final ItemCommentCache itemCommentCache;
+    private final ItemBookingTimeline itemBookingTimeline;
+    private final TransactionTemplate transactionTemplate;
     @Value("${booking.statuses.worked}")
     private final List<BookingStatus> workedStatuses;
+    @Value("${item.search.engine}")
+    private ItemSearchEngine searchEngine;
+    @Value("${item.comments.size}")
+    private int commentsSize;
+    @Value("${item.batch.max-size}")
+    private int batchMaxSize;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     @Transactional
     public Item addItem(ItemDto itemDto, Long userId) {
         log.debug("addItem");
-        User user = userService.getUser(userId);
+        userService.requireExists(userId);
 
-        return itemRepository.save(ItemMapper.toItem(itemDto, userId));
+        Item item = itemRepository.save(ItemMapper.toItem(itemDto, userId));
+        itemSearchIndex.index(item);
+
+        return item;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ItemBatchResultDto> addItems(List<ItemDto> itemDtos, Long userId) {
+        log.debug("addItems");
+        if (itemDtos.size() > batchMaxSize) {
+            throw new BadRequestException("Too many items in batch: " + itemDtos.size() + ", max " + batchMaxSize);
+        }
+        userService.requireExists(userId);
+        ItemBatchResultDto[] results = new ItemBatchResultDto[itemDtos.size()];
+        Set<String> names = new HashSet<>(itemRepository.findNamesByOwnerIdAndNameIn(userId, itemDtos
+                .stream()
+                .map(itemDto -> itemDto.getName())
+                .collect(Collectors.toSet())));
+        Set<Long> requestIds = itemDtos
+                .stream()
+                .map(itemDto -> itemDto.getRequestId())
+                .filter(requestId -> requestId != null)
+                .collect(Collectors.toSet());
+        Set<Long> existingRequestIds = requestIds.isEmpty()
+                ? Collections.emptySet()
+                : new HashSet<>(itemRequestRepository.findIdsByIdIn(requestIds));
+        Map<Integer, Item> items = new LinkedHashMap<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            Long requestId = itemDtos.get(i).getRequestId();
+            if (requestId != null && !existingRequestIds.contains(requestId)) {
+                results[i] = new ItemBatchResultDto(i, null, "Request not found: " + requestId);
+                continue;
+            }
+            if (!names.add(itemDtos.get(i).getName())) {
+                results[i] = new ItemBatchResultDto(i, null, "Item name already exists: " + itemDtos.get(i).getName());
+                continue;
+            }
+            Item item = ItemMapper.toItem(itemDtos.get(i), userId);
+            item.setId(null);
+            items.put(i, item);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> saveItems(items.values()));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("addItems: batch rejected, saving items one by one: {}", e.getMostSpecificCause().getMessage());
+            for (Map.Entry<Integer, Item> entry : items.entrySet()) {
+                Item item = entry.getValue();
+                item.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+                        saveItems(List.of(item));
+                    });
+                } catch (DataIntegrityViolationException ex) {
+                    results[entry.getKey()] = new ItemBatchResultDto(entry.getKey(), null, toBatchError(item, ex));
+                }
+            }
+        }
+        items.forEach((index, item) -> {
+            if (results[index] == null) {
+                results[index] = new ItemBatchResultDto(index, item.getId(), null);
+            }
+        });
+
+        return Arrays.asList(results);
+    }
+
+    private void saveItems(Collection<Item> items) {
+        itemRepository.saveAll(items);
+        itemRepository.flush();
+        items.forEach(item -> itemSearchIndex.index(item));
+    }
+
+    private static String toBatchError(Item item, DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException
+                ? ((ConstraintViolationException) e.getCause()).getConstraintName()
+                : null;
+        if ("uq_user_item_name".equalsIgnoreCase(constraint)) {
+            return "Item name already exists: " + item.getName();
+        }
+        if ("fk_items_to_requests".equalsIgnoreCase(constraint)) {
+            return "Request not found: " + item.getRequest().getId();
+        }
+
+        return "Item not saved";
     }
 
     @Override
@@ -62,58 +183,111 @@ public class ItemServiceImpl implements ItemService {
         itemUpdated.setDescription(Optional.ofNullable(itemDto.getDescription()).orElse(itemUpdated.getDescription()));
         itemUpdated.setAvailable(Optional.ofNullable(itemDto.getAvailable()).orElse(itemUpdated.getAvailable()));
 
-        return itemRepository.save(itemUpdated);
+        Item item = itemRepository.save(itemUpdated);
+        itemSearchIndex.index(item);
+        itemInfoCache.evict(itemId);
+
+        return item;
     }
 
     @Override
     public List<ItemInfoDto> getAllUserItems(Long userId) {
         log.debug("getAllUserItems");
-        Booking lastBooking;
-        Booking nextBooking;
-        List<ItemInfoDto> itemInfoDtos = new ArrayList<>();
         List<Item> items = itemRepository.findAllByOwner(userId);
-        for (Item item : items) {
-            lastBooking = null;
-            nextBooking = null;
-            Pageable firstInPage = PageRequest.of(0, 1);
-            Page<Booking> lastBookingPage = bookingRepository.findLastItemBooking(item.getId(), workedStatuses, firstInPage);
-            Page<Booking> nextBookingPage = bookingRepository.findNextItemBooking(item.getId(), workedStatuses, firstInPage);
-            if (!lastBookingPage.isEmpty()) {
-                lastBooking = lastBookingPage.getContent().get(0);
-            }
-            if (!nextBookingPage.isEmpty()) {
-                nextBooking = nextBookingPage.getContent().get(0);
-            }
-
-            itemInfoDtos.add(ItemMapper.toItemInfoDto(item, null, lastBooking, nextBooking));
+        if (items.isEmpty()) {
+            return Collections.emptyList();
         }
+        List<Long> itemIds = items.stream()
+                .map(item -> item.getId())
+                .collect(Collectors.toList());
+        Map<Long, Booking> lastBookings;
+        Map<Long, Booking> nextBookings;
+        if (itemBookingTimeline.isEnabled()) {
+            LocalDateTime now = LocalDateTime.now();
+            lastBookings = new HashMap<>();
+            nextBookings = new HashMap<>();
+            itemIds.forEach(itemId -> {
+                itemBookingTimeline.getLast(itemId, now).ifPresent(booking -> lastBookings.put(itemId, booking));
+                itemBookingTimeline.getNext(itemId, now).ifPresent(booking -> nextBookings.put(itemId, booking));
+            });
+        } else {
+            lastBookings = bookingRepository.findLastItemBookings(itemIds, workedStatuses)
+                    .stream()
+                    .collect(Collectors.toMap(booking -> booking.getItem().getId(), booking -> booking, (first, second) -> first));
+            nextBookings = bookingRepository.findNextItemBookings(itemIds, workedStatuses)
+                    .stream()
+                    .collect(Collectors.toMap(booking -> booking.getItem().getId(), booking -> booking, (first, second) -> first));
+        }
+        Map<Long, List<ItemInfoDto.CommentDto>> comments = commentRepository.findFirstCommentsByItemIds(itemIds, commentsSize + 1)
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItemId(), Collectors.mapping(comment ->
+                        new ItemInfoDto.CommentDto(comment.getId(), comment.getText(), comment.getAuthorName(),
+                                comment.getCreated()), Collectors.toList())));
+
+        return items.stream()
+                .map(item -> {
+                    List<ItemInfoDto.CommentDto> itemComments = comments.getOrDefault(item.getId(), Collections.emptyList());
+                    String commentsCursor = null;
+                    if (itemComments.size() > commentsSize) {
+                        itemComments = itemComments.subList(0, commentsSize);
+                        commentsCursor = CommentCursor.of(itemComments.get(commentsSize - 1)).encode();
+                    }
 
-        return itemInfoDtos;
+                    return ItemMapper.toItemInfoDto(item, itemComments, commentsCursor,
+                            lastBookings.get(item.getId()),
+                            nextBookings.get(item.getId()));
+                })
+                .collect(Collectors.toList());
     }
 
     @Override
     public ItemInfoDto getItemWithBookings(Long itemId, Long userId) {
         log.debug("getItemWithBookings");
+        ItemInfoDto cachedItemInfo = itemInfoCache.get(itemId, userId);
+        if (cachedItemInfo != null) {
+            return cachedItemInfo;
+        }
+        long stamp = itemInfoCache.stamp(itemId);
         Booking lastBooking = null;
         Booking nextBooking = null;
         Optional<Item> itemO = itemRepository.findById(itemId);
         if (!itemO.isPresent()) {
             throw new NotFoundException("Item not found!");
         }
-        if (itemO.get().getOwner().getId().equals(userId)) {
+        if (itemO.get().getOwner().getId().equals(userId) && itemBookingTimeline.isEnabled()) {
+            LocalDateTime now = LocalDateTime.now();
+            lastBooking = itemBookingTimeline.getLast(itemId, now).orElse(null);
+            nextBooking = itemBookingTimeline.getNext(itemId, now).orElse(null);
+        } else if (itemO.get().getOwner().getId().equals(userId)) {
             Pageable firstInPage = PageRequest.of(0, 1);
-            Page<Booking> lastBookingPage = bookingRepository.findLastItemBooking(itemId, workedStatuses, firstInPage);
-            Page<Booking> nextBookingPage = bookingRepository.findNextItemBooking(itemId, workedStatuses, firstInPage);
-            if (!lastBookingPage.isEmpty()) {
-                lastBooking = lastBookingPage.getContent().get(0);
+            List<Booking> lastBookings = bookingRepository.findLastItemBooking(itemId, workedStatuses, firstInPage);
+            List<Booking> nextBookings = bookingRepository.findNextItemBooking(itemId, workedStatuses, firstInPage);
+            if (!lastBookings.isEmpty()) {
+                lastBooking = lastBookings.get(0);
             }
-            if (!nextBookingPage.isEmpty()) {
-                nextBooking = nextBookingPage.getContent().get(0);
+            if (!nextBookings.isEmpty()) {
+                nextBooking = nextBookings.get(0);
             }
         }
-        List<Comment> commentList = commentRepository.findAllCommentsByItemId(itemId);
+        List<ItemInfoDto.CommentDto> comments = getFirstComments(itemId);
+        String commentsCursor = null;
+        if (comments.size() > commentsSize) {
+            comments = comments.subList(0, commentsSize);
+            commentsCursor = CommentCursor.of(comments.get(commentsSize - 1)).encode();
+        }
+        ItemInfoDto itemInfo = ItemMapper.toItemInfoDto(itemO.get(), comments, commentsCursor, lastBooking, nextBooking);
+        itemInfoCache.put(itemO.get(), userId, itemInfo, nextBooking, stamp);
 
-        return ItemMapper.toItemInfoDto(itemO.get(), commentList, lastBooking, nextBooking);
+        return itemInfo;
+    }
+
+    @Override
+    public Slice<ItemInfoDto.CommentDto> getComments(Long itemId, Long userId, String cursor, Integer size) {
+        log.debug("getComments");
+        CommentCursor position = CommentCursor.decode(cursor);
+
+        return commentRepository.findCommentsByItemIdAfter(itemId, position.getCreated(), position.getId(),
+                PageRequest.of(0, size));
     }
 
     @Override
@@ -128,28 +302,99 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<Item> getItemsBySearch(String pattern, Long userId) {
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Item getItemForUpdate(Long itemId) {
+        log.debug("getItemForUpdate");
+
+        return itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NotFoundException("Item not found!"));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Item> getItemsForUpdate(Collection<Long> itemIds) {
+        log.debug("getItemsForUpdate");
+
+        return itemRepository.findAllByIdForUpdate(itemIds);
+    }
+
+    @Override
+    public List<Item> getItemsBySearch(String pattern, Long userId, Integer from, Integer size) {
         log.debug("getItemsBySearch");
         if (pattern.isBlank()) {
             return Collections.emptyList();
         }
+        if (searchEngine == ItemSearchEngine.MEMORY) {
+            return itemSearchIndex.search(pattern, from, size == null ? Integer.MAX_VALUE : size);
+        }
+        Pageable pageable = size == null ? Pageable.unpaged() : new CommonPageRequest(from, size);
+        if (searchEngine == ItemSearchEngine.TRIGRAM) {
+            return itemRepository.findAllBySearchRanked(pattern, pageable);
+        }
 
-        return itemRepository.findAllBySearch(pattern);
+        return itemRepository.findAllBySearch(pattern, pageable);
+    }
+
+    @Override
+    public List<Item> getItemsBySearchAfter(String pattern, Long userId, Long afterId, Integer size) {
+        log.debug("getItemsBySearchAfter");
+        if (pattern.isBlank()) {
+            return Collections.emptyList();
+        }
+        if (searchEngine == ItemSearchEngine.MEMORY) {
+            return itemSearchIndex.searchAfter(pattern, afterId, size == null ? Integer.MAX_VALUE : size);
+        }
+
+        return itemRepository.findAllBySearchAfter(pattern, afterId,
+                size == null ? Pageable.unpaged() : PageRequest.of(0, size));
+    }
+
+    @Override
+    public void streamItemsBySearch(String pattern, Long userId, Consumer<Item> consumer) {
+        log.debug("streamItemsBySearch");
+        if (pattern.isBlank()) {
+            return;
+        }
+        if (searchEngine == ItemSearchEngine.MEMORY) {
+            itemSearchIndex.searchAfter(pattern, 0L, Integer.MAX_VALUE).forEach(consumer);
+            return;
+        }
+        try (Stream<Item> items = itemRepository.streamAllBySearch(pattern)) {
+            items.forEach(item -> {
+                consumer.accept(item);
+                entityManager.detach(item);
+            });
+        }
     }
 
     @Override
     @Transactional
     public Comment addCommentItem(CommentDto comment, Long itemId, Long userId) {
         log.debug("addCommentItem");
-        User user = userService.getUser(userId);
+        User user = userService.getUserReference(userId);
         Pageable firstInPage = PageRequest.of(0, 1);
-        Page<Booking> bookingPage = bookingRepository.findLastFinishedBookingByItemIdAndUserId(itemId, userId,
+        List<Booking> finishedBookings = bookingRepository.findLastFinishedBookingByItemIdAndUserId(itemId, userId,
                 BookingStatus.APPROVED, firstInPage);
-        if (bookingPage.isEmpty()) {
+        if (finishedBookings.isEmpty()) {
             throw new BadRequestException("Booking for comment not found");
         }
-        Booking booking = bookingPage.getContent().get(0);
+        Booking booking = finishedBookings.get(0);
+
+        Comment savedComment = commentRepository.save(ItemMapper.toComment(comment, booking.getItem(), user));
+        itemInfoCache.evict(itemId);
+        itemCommentCache.append(itemId, ItemMapper.toCommentInfoDto(savedComment), commentsSize + 1);
+
+        return savedComment;
+    }
+
+    private List<ItemInfoDto.CommentDto> getFirstComments(Long itemId) {
+        return itemCommentCache.get(itemId).orElseGet(() -> {
+            long stamp = itemCommentCache.stamp(itemId);
+            List<ItemInfoDto.CommentDto> comments = commentRepository.findCommentsByItemId(itemId,
+                    PageRequest.of(0, commentsSize + 1));
+            itemCommentCache.put(itemId, comments, stamp);
 
-        return commentRepository.save(ItemMapper.toComment(comment, booking.getItem(), user));
+            return comments;
+        });
     }
 }
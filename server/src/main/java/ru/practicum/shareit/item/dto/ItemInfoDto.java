@@ -17,6 +17,7 @@ public class ItemInfoDto {
     private String description;
     private Boolean available;
     private List<CommentDto> comments;
+    private String commentsCursor;
     private BookingDto lastBooking;
     private BookingDto nextBooking;
 
@@ -1,14 +1,12 @@
 package ru.practicum.shareit.request;
 
-import ru.practicum.shareit.item.Item;
-import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class ItemRequestMapper {
 
@@ -20,12 +18,12 @@ public class ItemRequestMapper {
                 .build();
     }
 
-    public static ItemRequestInfoDto toItemRequestDtoInfo(ItemRequest itemRequest, List<Item> itemList) {
+    public static ItemRequestInfoDto toItemRequestDtoInfo(ItemRequest itemRequest, List<ItemDto> itemList) {
         return ItemRequestInfoDto.builder()
                 .id(itemRequest.getId())
                 .description(itemRequest.getDescription())
                 .created(itemRequest.getCreated())
-                .items(itemList.stream().map(item -> ItemMapper.toItemDto(item)).collect(Collectors.toList()))
+                .items(itemList)
                 .build();
     }
 
@@ -1,12 +1,12 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,6 +15,9 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
     List<ItemRequest> findAllRequestWithItemsByUserId(@Param("userId") Long userId);
 
     @Query("select ir from ItemRequest ir where ir.requestor.id  != :userId order by ir.created desc ")
-    Page<ItemRequest> findAllRequestWithItemsByNotUserId(@Param("userId") Long userId, Pageable pageable);
+    List<ItemRequest> findAllRequestWithItemsByNotUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select ir.id from ItemRequest ir where ir.id in :requestIds ")
+    List<Long> findIdsByIdIn(@Param("requestIds") Collection<Long> requestIds);
 
 }
\ No newline at end of file
@@ -2,18 +2,18 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.CommonPageRequest;
 import ru.practicum.shareit.exception.NotFoundException;
-import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
-import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -31,7 +31,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional
     public ItemRequest addRequest(ItemRequest itemRequest) {
         log.debug("addRequest");
-        User user = userService.getUser(itemRequest.getRequestor().getId());
+        userService.requireExists(itemRequest.getRequestor().getId());
 
         return itemRequestRepository.save(itemRequest);
     }
@@ -39,51 +39,51 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public List<ItemRequestInfoDto> getAllUserRequests(Long userId) {
         log.debug("getAllUserRequests");
-        User user = userService.getUser(userId);
+        userService.requireExists(userId);
         List<ItemRequest> itemRequestList = itemRequestRepository.findAllRequestWithItemsByUserId(userId);
-        List<Item> itemList = itemRepository.findAllByRequestIdList(itemRequestList
-                .stream()
-                .map(item -> item.getId())
-                .collect(Collectors.toList()));
 
-        return itemRequestList
-                .stream()
-                .map(itemRequest -> ItemRequestMapper.toItemRequestDtoInfo(itemRequest, itemList
-                        .stream()
-                        .filter(f -> f.getRequest().getId().equals(itemRequest.getId()))
-                        .collect(Collectors.toList())))
-                .collect(Collectors.toList());
+        return toItemRequestInfoDtoList(itemRequestList);
     }
 
     @Override
     public List<ItemRequestInfoDto> getAllOtherUsersRequests(Long userId, Integer from, Integer size) {
         log.debug("getAllOtherUsersRequests");
         CommonPageRequest pageable = new CommonPageRequest(from, size);
-        User user = userService.getUser(userId);
-        Page<ItemRequest> itemRequestList = itemRequestRepository.findAllRequestWithItemsByNotUserId(userId, pageable);
-        List<Item> itemList = itemRepository.findAllByRequestIdList(itemRequestList
-                .map(item -> item.getId())
-                .getContent());
+        userService.requireExists(userId);
+        List<ItemRequest> itemRequestList = itemRequestRepository.findAllRequestWithItemsByNotUserId(userId, pageable);
 
-        return itemRequestList
-                .map(itemRequest -> ItemRequestMapper.toItemRequestDtoInfo(itemRequest, itemList
-                        .stream()
-                        .filter(f -> f.getRequest().getId().equals(itemRequest.getId()))
-                        .collect(Collectors.toList())))
-                .getContent();
+        return toItemRequestInfoDtoList(itemRequestList);
     }
 
     @Override
     public ItemRequestInfoDto getRequestById(Long requestId, Long userId) {
         log.debug("getRequestById");
-        User user = userService.getUser(userId);
+        userService.requireExists(userId);
         Optional<ItemRequest> itemRequestO = itemRequestRepository.findById(requestId);
         if (!itemRequestO.isPresent()) {
             throw new NotFoundException("ItemRequest not found");
         }
         ItemRequest itemRequest = itemRequestO.get();
-        List<Item> itemList = itemRepository.findAllByRequestIdList(List.of(itemRequest.getId()));
+        List<ItemDto> itemList = itemRepository.findAllByRequestIdList(List.of(itemRequest.getId()));
 
         return ItemRequestMapper.toItemRequestDtoInfo(itemRequest, itemList);
     }
+
+    private List<ItemRequestInfoDto> toItemRequestInfoDtoList(List<ItemRequest> itemRequestList) {
+        if (itemRequestList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, List<ItemDto>> itemsByRequestId = itemRepository.findAllByRequestIdList(itemRequestList
+                        .stream()
+                        .map(itemRequest -> itemRequest.getId())
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(item -> item.getRequestId()));
+
+        return itemRequestList
+                .stream()
+                .map(itemRequest -> ItemRequestMapper.toItemRequestDtoInfo(itemRequest,
+                        itemsByRequestId.getOrDefault(itemRequest.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.sql;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * JDBC work done on the current thread while an HTTP request is handled.
+ * Collection is active only between {@link #start()} and {@link #stop()}. Statements run on other
+ * threads, such as a streamed response body written by an async task executor, are not counted.
+ */
+@Getter
+@ToString
+public class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long rows;
+    private long nanos;
+
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+
+        return statistics;
+    }
+
+    public static SqlStatistics stop() {
+        SqlStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+
+        return statistics;
+    }
+
+    static void statement(long elapsedNanos) {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+            statistics.nanos += elapsedNanos;
+        }
+    }
+
+    static void row() {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.rows++;
+        }
+    }
+
+    public long getMillis() {
+        return nanos / 1_000_000;
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SqlStatisticsProperties.class)
+public class SqlStatisticsConfig {
+
+    @Bean
+    public static SqlStatisticsDataSourcePostProcessor sqlStatisticsDataSourcePostProcessor() {
+        return new SqlStatisticsDataSourcePostProcessor();
+    }
+
+    @Bean
+    public SqlStatisticsFilter sqlStatisticsFilter(SqlStatisticsProperties properties, MeterRegistry meterRegistry) {
+        return new SqlStatisticsFilter(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.sql;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps every DataSource so statement executions and fetched rows are reported to {@link SqlStatistics}.
+ * The wrapper closes the pool it delegates to, so the inferred destroy method of the DataSource bean
+ * still shuts the pool down with the context.
+ */
+public class SqlStatisticsDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof StatisticsDataSource)) {
+            return new StatisticsDataSource((DataSource) bean);
+        }
+
+        return bean;
+    }
+
+    private static JdbcHandler connectionHandler() {
+        return (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement) {
+                return proxy(statementType(result), result, statementHandler());
+            }
+
+            return result;
+        };
+    }
+
+    private static JdbcHandler statementHandler() {
+        return (target, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                Object result = invoke(target, method, args);
+
+                return method.getName().equals("getResultSet") && result != null
+                        ? proxy(ResultSet.class, result, resultSetHandler())
+                        : result;
+            }
+            long started = System.nanoTime();
+            try {
+                Object result = invoke(target, method, args);
+
+                return result instanceof ResultSet ? proxy(ResultSet.class, result, resultSetHandler()) : result;
+            } finally {
+                SqlStatistics.statement(System.nanoTime() - started);
+            }
+        };
+    }
+
+    private static JdbcHandler resultSetHandler() {
+        return (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                SqlStatistics.row();
+            }
+
+            return result;
+        };
+    }
+
+    private static Class<?> statementType(Object statement) {
+        if (statement instanceof CallableStatement) {
+            return CallableStatement.class;
+        }
+        if (statement instanceof PreparedStatement) {
+            return PreparedStatement.class;
+        }
+
+        return Statement.class;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, Object target, JdbcHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlStatisticsDataSourcePostProcessor.class.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> method.getName().equals("equals") && args != null && args.length == 1
+                        ? proxy == args[0]
+                        : handler.handle(target, method, args));
+    }
+
+    static class StatisticsDataSource extends DelegatingDataSource implements Closeable {
+
+        StatisticsDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return proxy(Connection.class, super.getConnection(), connectionHandler());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return proxy(Connection.class, super.getConnection(username, password), connectionHandler());
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (getTargetDataSource() instanceof Closeable) {
+                ((Closeable) getTargetDataSource()).close();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface JdbcHandler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
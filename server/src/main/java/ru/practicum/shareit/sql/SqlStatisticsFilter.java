@@ -0,0 +1,106 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts JDBC statements, fetched rows and database time for every request,
+ * records them per endpoint and warns when the endpoint's statement budget is exceeded.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    static final String ROWS_HEADER = "X-Sql-Rows";
+    static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    private final SqlStatisticsProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        HttpServletResponse responseToUse = response;
+        if (properties.isHeaders() && !(response instanceof ContentCachingResponseWrapper)) {
+            responseToUse = new ContentCachingResponseWrapper(response);
+        }
+        SqlStatistics.start();
+        SqlStatistics statistics;
+        try {
+            filterChain.doFilter(request, responseToUse);
+        } finally {
+            statistics = SqlStatistics.stop();
+        }
+        if (!isAsyncStarted(request)) {
+            record(endpoint(request), statistics);
+            writeHeaders(responseToUse, statistics, responseToUse != response);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private void record(String endpoint, SqlStatistics statistics) {
+        DistributionSummary.builder("shareit.sql.statements")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("shareit.sql.rows")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.getRows());
+        Timer.builder("shareit.sql.time")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.getNanos(), TimeUnit.NANOSECONDS);
+        int budget = properties.getBudget(endpoint);
+        if (statistics.getStatements() > budget) {
+            log.warn("SQL statement budget exceeded for {}: {} statements (budget {}), {} rows, {} ms",
+                    endpoint, statistics.getStatements(), budget, statistics.getRows(), statistics.getMillis());
+        }
+    }
+
+    /**
+     * A caching wrapper created further out (e.g. by the ETag filter) is left for its owner to copy.
+     */
+    private void writeHeaders(HttpServletResponse response, SqlStatistics statistics, boolean ownWrapper) throws IOException {
+        ContentCachingResponseWrapper wrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (wrapper == null) {
+            return;
+        }
+        if (!wrapper.isCommitted()) {
+            wrapper.setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+            wrapper.setHeader(ROWS_HEADER, String.valueOf(statistics.getRows()));
+            wrapper.setHeader(TIME_HEADER, String.valueOf(statistics.getMillis()));
+        }
+        if (ownWrapper) {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        return request.getMethod() + " " + (pattern != null ? pattern : "UNMATCHED");
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "sql.statistics")
+@Getter
+@Setter
+public class SqlStatisticsProperties {
+
+    private boolean headers = false;
+
+    private int budget = 10;
+
+    /**
+     * Statement budgets keyed by endpoint, e.g. "GET /items/{itemId}".
+     */
+    private Map<String, Integer> budgets = new HashMap<>();
+
+    public int getBudget(String endpoint) {
+        return budgets.getOrDefault(endpoint, budget);
+    }
+}
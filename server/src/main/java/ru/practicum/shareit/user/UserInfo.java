@@ -0,0 +1,17 @@
+package ru.practicum.shareit.user;
+
+import lombok.Value;
+
+/**
+ * Read-only copy of a user. This, not the entity, is what the users cache shares between sessions and threads.
+ */
+@Value
+public class UserInfo {
+    Long id;
+    String name;
+    String email;
+
+    public static UserInfo of(User user) {
+        return new UserInfo(user.getId(), user.getName(), user.getEmail());
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.CacheConfig;
+import ru.practicum.shareit.CacheGenerations;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Users read by id. Puts and evictions take effect after the surrounding transaction commits;
+ * a put whose stamp predates an eviction of the user is dropped.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserInfoCache {
+
+    private final CacheManager cacheManager;
+    private final CacheGenerations generations = new CacheGenerations();
+
+    public Optional<UserInfo> get(Long userId) {
+        return Optional.ofNullable(cache().get(userId, UserInfo.class));
+    }
+
+    /**
+     * Taken before the user is loaded and passed back to {@link #put}.
+     */
+    public long stamp(Long userId) {
+        return generations.stamp(userId);
+    }
+
+    public void put(UserInfo user, long stamp) {
+        CacheGenerations.afterCommit(() -> nativeMap().compute(user.getId(),
+                (key, current) -> generations.isCurrent(user.getId(), stamp) ? user : current));
+    }
+
+    public void evict(Long userId) {
+        CacheGenerations.afterCommit(() -> {
+            generations.invalidate(userId);
+            nativeMap().remove(userId);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> nativeMap() {
+        return ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache().getNativeCache()).asMap();
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CacheConfig.USERS);
+    }
+}
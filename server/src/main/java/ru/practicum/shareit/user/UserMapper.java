@@ -11,6 +11,14 @@ public class UserMapper {
         );
     }
 
+    public static UserDto toUserDto(UserInfo user) {
+        return new UserDto(
+                user.getId(),
+                user.getName(),
+                user.getEmail()
+        );
+    }
+
     public static User toUser(UserDto userDto) {
         return new User(
                 0L,
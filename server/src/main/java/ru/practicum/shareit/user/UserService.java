@@ -11,7 +11,11 @@ public interface UserService {
 
     int deleteUser(Long userId);
 
-    User getUser(Long userId);
+    UserInfo getUser(Long userId);
+
+    User getUserReference(Long userId);
+
+    void requireExists(long userId);
 
     List<UserDto> getAllUsers();
 }
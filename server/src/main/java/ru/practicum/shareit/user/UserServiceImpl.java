@@ -2,9 +2,12 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.CacheConfig;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -18,6 +21,8 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final UserInfoCache userInfoCache;
 
     @Transactional
     @Override
@@ -38,30 +43,62 @@ public class UserServiceImpl implements UserService {
         User userUpdated = userO.get();
         userUpdated.setName(Optional.ofNullable(userDto.getName()).orElse(userUpdated.getName()));
         userUpdated.setEmail(Optional.ofNullable(userDto.getEmail()).orElse(userUpdated.getEmail()));
+        User user = userRepository.save(userUpdated);
+        userInfoCache.evict(userId);
 
-        return userRepository.save(userUpdated);
+        return user;
     }
 
 
 
     @Transactional
     @Override
+    @CacheEvict(cacheNames = CacheConfig.ITEM_INFO, allEntries = true)
     public int deleteUser(Long userId) {
         log.debug("deleteUser");
         userRepository.deleteById(userId);
+        itemSearchIndex.removeOwner(userId);
+        userInfoCache.evict(userId);
 
         return 0;
     }
 
     @Override
-    public User getUser(Long userId) {
+    public UserInfo getUser(Long userId) {
         log.debug("getUser");
+        Optional<UserInfo> cachedUser = userInfoCache.get(userId);
+        if (cachedUser.isPresent()) {
+            return cachedUser.get();
+        }
+        long stamp = userInfoCache.stamp(userId);
         Optional<User> userO = userRepository.findById(userId);
         if (!userO.isPresent()) {
              throw new NotFoundException("User not found!");
         }
+        UserInfo user = UserInfo.of(userO.get());
+        userInfoCache.put(user, stamp);
+
+        return user;
+    }
+
+    @Override
+    public User getUserReference(Long userId) {
+        log.debug("getUserReference");
+        requireExists(userId);
 
-        return userO.get();
+        return userRepository.getReferenceById(userId);
+    }
+
+    /**
+     * Always asks the database: a cached user may have been deleted by another instance, and an index-only
+     * existence check is cheaper than the foreign key violation a stale answer would cause.
+     */
+    @Override
+    public void requireExists(long userId) {
+        log.debug("requireExists");
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User not found!");
+        }
     }
 
     @Override
@@ -0,0 +1,53 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm
+    ON items USING GIN (lower(name) gin_trgm_ops) WHERE available = true;
+
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm
+    ON items USING GIN (lower(description) gin_trgm_ops) WHERE available = true;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Exclusion constraints cannot be added NOT VALID: on a database that already holds overlapping approved
+-- bookings of an item the constraint is skipped with a warning until they are rejected, and item locks alone
+-- keep new approvals from overlapping.
+DO '
+DECLARE
+    overlapping bigint;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_bookings_item_approved'') THEN
+        SELECT COUNT(*) INTO overlapping
+        FROM bookings AS b1
+        JOIN bookings AS b2 ON b2.item_id = b1.item_id AND b2.booking_id > b1.booking_id
+        WHERE b1.status = ''APPROVED'' AND b2.status = ''APPROVED''
+            AND tsrange(b1.start_date, b1.end_date) && tsrange(b2.start_date, b2.end_date);
+        IF overlapping > 0 THEN
+            RAISE WARNING ''ex_bookings_item_approved not added: % pairs of approved bookings overlap'', overlapping;
+        ELSE
+            ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_approved
+                EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+                WHERE (status = ''APPROVED'');
+        END IF;
+    END IF;
+END
+';
+
+SELECT setval('users_seq', GREATEST((SELECT MAX(user_id) FROM users) + 1, last_value + 50), false)
+FROM users_seq
+WHERE (SELECT MAX(user_id) FROM users) >= last_value;
+
+SELECT setval('requests_seq', GREATEST((SELECT MAX(request_id) FROM requests) + 1, last_value + 50), false)
+FROM requests_seq
+WHERE (SELECT MAX(request_id) FROM requests) >= last_value;
+
+SELECT setval('items_seq', GREATEST((SELECT MAX(item_id) FROM items) + 1, last_value + 50), false)
+FROM items_seq
+WHERE (SELECT MAX(item_id) FROM items) >= last_value;
+
+SELECT setval('bookings_seq', GREATEST((SELECT MAX(booking_id) FROM bookings) + 1, last_value + 50), false)
+FROM bookings_seq
+WHERE (SELECT MAX(booking_id) FROM bookings) >= last_value;
+
+SELECT setval('comments_seq', GREATEST((SELECT MAX(comment_id) FROM comments) + 1, last_value + 50), false)
+FROM comments_seq
+WHERE (SELECT MAX(comment_id) FROM comments) >= last_value;
@@ -1,5 +1,5 @@
 CREATE TABLE IF NOT EXISTS users (
-  user_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  user_id BIGINT NOT NULL,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL,
   CONSTRAINT pk_user PRIMARY KEY (user_id),
@@ -7,7 +7,7 @@ CREATE TABLE IF NOT EXISTS users (
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-  request_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  request_id BIGINT NOT NULL,
   description VARCHAR(32000) NOT NULL,
   user_id BIGINT NOT NULL,
   created TIMESTAMP NOT NULL,
@@ -16,7 +16,7 @@ CREATE TABLE IF NOT EXISTS requests (
 );
 
 CREATE TABLE IF NOT EXISTS items (
-  item_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  item_id BIGINT NOT NULL,
   name VARCHAR(255) NOT NULL,
   description VARCHAR(32000),
   available BOOLEAN NOT NULL,
@@ -29,19 +29,22 @@ CREATE TABLE IF NOT EXISTS items (
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-    booking_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    booking_id BIGINT NOT NULL,
     start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id BIGINT NOT NULL,
     user_id BIGINT NOT NULL,
     status VARCHAR(32) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_bookings PRIMARY KEY (booking_id),
     CONSTRAINT fk_bookings_to_items FOREIGN KEY(item_id) REFERENCES items(item_id),
     CONSTRAINT fk_bookings_to_users FOREIGN KEY(user_id) REFERENCES users(user_id)
 );
 
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
 CREATE TABLE IF NOT EXISTS comments (
-    comment_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    comment_id BIGINT NOT NULL,
     text VARCHAR(32000) NOT NULL,
     item_id BIGINT NOT NULL,
     user_id BIGINT NOT NULL,
@@ -50,3 +53,21 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT fk_comments_to_items FOREIGN KEY(item_id) REFERENCES items(item_id),
     CONSTRAINT fk_comments_to_users FOREIGN KEY(user_id) REFERENCES users(user_id)
 );
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (user_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status_start ON bookings (user_id, status, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created);
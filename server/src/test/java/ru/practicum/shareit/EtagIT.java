@@ -0,0 +1,135 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class EtagIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.saveUser(new UserDto(null, "owner", "owner" + System.nanoTime() + "@email.ru"));
+        item = itemService.addItem(new ItemDto(null, "drill", "description", true, null), owner.getId());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItem_whenIfNoneMatchesEtag_thenNotModified() {
+        String etag = etag(read("/items/" + item.getId(), owner.getId(), null).andExpect(status().isOk()));
+
+        read("/items/" + item.getId(), owner.getId(), etag)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItem_whenItemChanged_thenNewEtag() {
+        String etag = etag(read("/items/" + item.getId(), owner.getId(), null));
+
+        mockMvc.perform(patch("/items/" + item.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"hammer\"}"))
+                .andExpect(status().isOk());
+
+        String changedEtag = etag(read("/items/" + item.getId(), owner.getId(), etag).andExpect(status().isOk()));
+        assertNotEquals(etag, changedEtag);
+    }
+
+    @SneakyThrows
+    @Test
+    void getBookingAndListings_whenIfNoneMatchesEtag_thenNotModified() {
+        User booker = userService.saveUser(new UserDto(null, "booker", "booker" + System.nanoTime() + "@email.ru"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        long bookingId = bookingService.addBooking(new BookingDto(item.getId(), start, start.plusDays(1)), booker.getId()).getId();
+
+        for (String path : new String[]{"/bookings/" + bookingId, "/bookings", "/items", "/requests"}) {
+            long userId = "/items".equals(path) ? owner.getId() : booker.getId();
+            String etag = etag(read(path, userId, null).andExpect(status().isOk()));
+
+            read(path, userId, etag).andExpect(status().isNotModified());
+        }
+    }
+
+    @SneakyThrows
+    @Test
+    void streamItemsBySearch_thenNoEtag() {
+        MvcResult result = mockMvc.perform(get("/items/search/stream")
+                        .param("text", "drill")
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @SneakyThrows
+    private ResultActions read(String path, long userId, String ifNoneMatch) {
+        return mockMvc.perform(get(path)
+                .header("X-Sharer-User-Id", userId)
+                .headers(ifNoneMatch != null ? headers(ifNoneMatch) : new HttpHeaders()));
+    }
+
+    private static HttpHeaders headers(String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(ifNoneMatch);
+        return headers;
+    }
+
+    private static String etag(ResultActions result) {
+        String etag = result.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares bulk booking and comment inserts sent row by row (as forced by identity ids) with
+ * pooled sequence ids and ordered JDBC batches.
+ * Run explicitly: mvn test -Dtest=InsertBatchBenchmark
+ */
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn",
+        "logging.level.ru.practicum.shareit.InsertBatchBenchmark=info"})
+@Slf4j
+class InsertBatchBenchmark {
+
+    private static final int ITERATIONS = 5;
+    private static final int ROWS = 2_000;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private Statistics statistics;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        booker = userRepository.save(User.builder().name("booker").email("booker@email.ru").build());
+        User owner = userRepository.save(User.builder().name("owner").email("owner@email.ru").build());
+        item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void bulkInserts() {
+        Session session = entityManager.unwrap(Session.class);
+        int batchSize = session.getJdbcBatchSize() != null ? session.getJdbcBatchSize()
+                : entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions().getJdbcBatchSize();
+
+        insert(1);
+        insert(batchSize);
+        long rowByRow = 0;
+        long batched = 0;
+        long rowByRowStatements = 0;
+        long batchedStatements = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            statistics.clear();
+            rowByRow += insert(1);
+            rowByRowStatements += statistics.getPrepareStatementCount();
+            statistics.clear();
+            batched += insert(batchSize);
+            batchedStatements += statistics.getPrepareStatementCount();
+        }
+
+        log.info(String.format("%d bookings + %d comments: row by row %5d ms, %5d statements | batch of %d %5d ms, %4d statements",
+                ROWS, ROWS, rowByRow / ITERATIONS, rowByRowStatements / ITERATIONS,
+                batchSize, batched / ITERATIONS, batchedStatements / ITERATIONS));
+        assertTrue(batchedStatements < rowByRowStatements);
+    }
+
+    private long insert(int batchSize) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        long started = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            entityManager.persist(Booking.builder()
+                    .booker(booker)
+                    .item(item)
+                    .status(BookingStatus.WAITING)
+                    .start(LocalDateTime.now().plusDays(i))
+                    .end(LocalDateTime.now().plusDays(i + 1))
+                    .build());
+            entityManager.persist(Comment.builder()
+                    .text("comment" + i)
+                    .item(item)
+                    .author(booker)
+                    .created(LocalDateTime.now())
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        booker = entityManager.getReference(User.class, booker.getId());
+        item = entityManager.getReference(Item.class, item.getId());
+
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
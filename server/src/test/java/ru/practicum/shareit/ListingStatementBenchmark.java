@@ -0,0 +1,160 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares JDBC statements per listing call for Page results (content + count) and List results (content only).
+ * Run explicitly: mvn test -Dtest=ListingStatementBenchmark
+ */
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn",
+        "logging.level.ru.practicum.shareit.ListingStatementBenchmark=info"})
+@Slf4j
+class ListingStatementBenchmark {
+
+    private static final int ITERATIONS = 500;
+    private static final int ROWS = 30;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private PagedListingRepository pagedRepository;
+    private Statistics statistics;
+    private User booker;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        pagedRepository = new JpaRepositoryFactory(entityManager).getRepository(PagedListingRepository.class);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        booker = userRepository.save(User.builder().name("booker").email("booker@email.ru").build());
+        owner = userRepository.save(User.builder().name("owner").email("owner@email.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+        for (int i = 0; i < ROWS; i++) {
+            bookingRepository.save(Booking.builder()
+                    .booker(booker)
+                    .item(item)
+                    .status(BookingStatus.WAITING)
+                    .start(LocalDateTime.now().plusDays(i))
+                    .end(LocalDateTime.now().plusDays(i + 1))
+                    .build());
+            itemRequestRepository.save(ItemRequest.builder()
+                    .description("request" + i)
+                    .created(LocalDateTime.now().minusMinutes(i))
+                    .requestor(booker)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listingStatements() {
+        CommonPageRequest secondPage = new CommonPageRequest(10, 10);
+
+        report("bookings?state=ALL",
+                () -> pagedRepository.findAllBookingByUserId(booker.getId(), secondPage),
+                () -> bookingRepository.findAllBookingByUserId(booker.getId(), secondPage));
+        report("bookings?state=WAITING",
+                () -> pagedRepository.findAllBookingByUserIdAndByStatus(booker.getId(), BookingStatus.WAITING, secondPage),
+                () -> bookingRepository.findAllBookingByUserIdAndByStatus(booker.getId(), BookingStatus.WAITING, secondPage));
+        report("bookings/owner?state=ALL",
+                () -> pagedRepository.findAllBookingByOwnerId(owner.getId(), secondPage),
+                () -> bookingRepository.findAllBookingByOwnerId(owner.getId(), secondPage));
+        report("requests/all",
+                () -> pagedRepository.findAllRequestWithItemsByNotUserId(owner.getId(), secondPage),
+                () -> itemRequestRepository.findAllRequestWithItemsByNotUserId(owner.getId(), secondPage));
+    }
+
+    private void report(String listing, Supplier<Object> paged, Supplier<Object> listed) {
+        long pagedStatements = statements(paged);
+        long listedStatements = statements(listed);
+        long pagedMicros = micros(paged);
+        long listedMicros = micros(listed);
+
+        log.info(String.format("%-26s Page: %d statements, %5d us | List: %d statements, %5d us",
+                listing, pagedStatements, pagedMicros, listedStatements, listedMicros));
+        assertEquals(pagedStatements - 1, listedStatements);
+    }
+
+    private long statements(Supplier<Object> call) {
+        statistics.clear();
+        call.get();
+        entityManager.clear();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long micros(Supplier<Object> call) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+            entityManager.clear();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+            entityManager.clear();
+        }
+
+        return (System.nanoTime() - started) / ITERATIONS / 1000;
+    }
+
+    interface PagedListingRepository extends Repository<Booking, Long> {
+
+        @Query("select b from Booking b where b.booker.id = :userId order by b.start desc ")
+        Page<Booking> findAllBookingByUserId(@Param("userId") Long userId, Pageable pageable);
+
+        @Query("select b from Booking b where b.booker.id = :userId and b.status = :name order by b.start desc ")
+        Page<Booking> findAllBookingByUserIdAndByStatus(@Param("userId") Long userId, @Param("name") BookingStatus name,
+                                                        Pageable pageable);
+
+        @Query("select b from Booking b where b.item.owner.id = :userId order by b.start desc ")
+        Page<Booking> findAllBookingByOwnerId(@Param("userId") Long userId, Pageable pageable);
+
+        @Query("select ir from ItemRequest ir where ir.requestor.id  != :userId order by ir.created desc ")
+        Page<ItemRequest> findAllRequestWithItemsByNotUserId(@Param("userId") Long userId, Pageable pageable);
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares optimistic (version + retry) and pessimistic (row lock) approval when every booking
+ * receives several concurrent decisions.
+ * Run explicitly: mvn test -Dtest=BookingApprovalBenchmark
+ */
+@SpringBootTest(properties = "logging.level.ru.practicum.shareit.booking.BookingApprovalBenchmark=info")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Slf4j
+class BookingApprovalBenchmark {
+
+    private static final int THREADS = 16;
+    private static final int ITEMS = 10;
+    private static final int BOOKINGS_PER_ITEM = 10;
+    private static final int CLICKS_PER_BOOKING = 4;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void approval() {
+        BookingServiceImpl target = AopTestUtils.getUltimateTargetObject(bookingService);
+        for (BookingLockMode mode : List.of(BookingLockMode.OPTIMISTIC, BookingLockMode.PESSIMISTIC,
+                BookingLockMode.OPTIMISTIC, BookingLockMode.PESSIMISTIC)) {
+            ReflectionTestUtils.setField(target, "approveLockMode", mode);
+            run(mode);
+        }
+    }
+
+    @SneakyThrows
+    private void run(BookingLockMode mode) {
+        String suffix = mode.name() + System.nanoTime();
+        User owner = userService.saveUser(new UserDto(null, "owner", "owner" + suffix + "@email.ru"));
+        User booker = userService.saveUser(new UserDto(null, "booker", "booker" + suffix + "@email.ru"));
+        List<Long> bookingIds = new ArrayList<>();
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemService.addItem(new ItemDto(null, "item" + i, "benchmark item", true, null), owner.getId());
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                BookingDto bookingDto = new BookingDto(item.getId(), from.plusDays(j), from.plusDays(j).plusHours(12));
+                bookingIds.add(bookingService.addBooking(bookingDto, booker.getId()).getId());
+            }
+        }
+        List<Long> clicks = new ArrayList<>();
+        for (int i = 0; i < CLICKS_PER_BOOKING; i++) {
+            clicks.addAll(bookingIds);
+        }
+        Collections.shuffle(clicks);
+
+        AtomicInteger decided = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long bookingId : clicks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    bookingService.approveBooking(bookingId, true, owner.getId());
+                    decided.incrementAndGet();
+                } catch (BadRequestException | ConflictException e) {
+                    refused.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        executor.shutdown();
+
+        log.info(String.format("%-11s %4d decisions on %3d bookings: %5d ms, %6.0f decisions/s",
+                mode, clicks.size(), bookingIds.size(), millis, clicks.size() * 1000.0 / Math.max(millis, 1)));
+        assertEquals(bookingIds.size(), decided.get());
+        assertEquals(clicks.size() - bookingIds.size(), refused.get());
+    }
+}
@@ -0,0 +1,231 @@
+package ru.practicum.shareit.booking;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BookingConcurrencyIT {
+
+    private static final int THREADS = 8;
+    private static final int REQUESTS = 120;
+    private static final int HOT_ITEMS = 3;
+    private static final int BOOKINGS_PER_ITEM = 4;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @SneakyThrows
+    @Test
+    void addAndApproveBooking_whenOverlappingRequestsRace_thenNoApprovedOverlaps() {
+        User owner = userService.saveUser(new UserDto(null, "owner", "owner-concurrency@email.ru"));
+        User booker = userService.saveUser(new UserDto(null, "booker", "booker-concurrency@email.ru"));
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < HOT_ITEMS; i++) {
+            items.add(itemService.addItem(new ItemDto(null, "item" + i, "hot item", true, null), owner.getId()));
+        }
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            Item item = items.get(i % HOT_ITEMS);
+            LocalDateTime from = base.plusHours(i % 5);
+            BookingDto bookingDto = new BookingDto(item.getId(), from, from.plusHours(3));
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    Booking booking = bookingService.addBooking(bookingDto, booker.getId());
+                    bookingService.approveBooking(booking.getId(), true, owner.getId());
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<Long> itemIds = items.stream().map(item -> item.getId()).collect(Collectors.toList());
+        Map<Long, List<Booking>> approvedByItem = bookingRepository.findAll()
+                .stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .filter(booking -> itemIds.contains(booking.getItem().getId()))
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        assertEquals(HOT_ITEMS, approvedByItem.size());
+        for (List<Booking> approved : approvedByItem.values()) {
+            for (int i = 0; i < approved.size(); i++) {
+                for (int j = i + 1; j < approved.size(); j++) {
+                    Booking first = approved.get(i);
+                    Booking second = approved.get(j);
+                    assertFalse(first.getStart().isBefore(second.getEnd()) && second.getStart().isBefore(first.getEnd()),
+                            "Approved bookings overlap: " + first.getId() + " and " + second.getId());
+                }
+            }
+        }
+        assertTrue(conflicts.get() > 0);
+    }
+
+    @Test
+    void approveBooking_whenSameBookingDecidedConcurrently_thenSingleDecisionWins() {
+        decideConcurrently("optimistic");
+    }
+
+    @Test
+    void approveBooking_whenPessimisticAndSameBookingDecidedConcurrently_thenSingleDecisionWins() {
+        BookingServiceImpl target = AopTestUtils.getTargetObject(bookingService);
+        ReflectionTestUtils.setField(target, "approveLockMode", BookingLockMode.PESSIMISTIC);
+        try {
+            decideConcurrently("pessimistic");
+        } finally {
+            ReflectionTestUtils.setField(target, "approveLockMode", BookingLockMode.OPTIMISTIC);
+        }
+    }
+
+    @SneakyThrows
+    @Test
+    void approveBookingAndApproveBookings_whenPessimisticAndRacingOnSameItems_thenNoDeadlockAndEachDecidedOnce() {
+        BookingServiceImpl target = AopTestUtils.getTargetObject(bookingService);
+        ReflectionTestUtils.setField(target, "approveLockMode", BookingLockMode.PESSIMISTIC);
+        try {
+            User owner = userService.saveUser(new UserDto(null, "owner", "owner-mixed@email.ru"));
+            User booker = userService.saveUser(new UserDto(null, "booker", "booker-mixed@email.ru"));
+            LocalDateTime base = LocalDateTime.now().plusDays(60).truncatedTo(ChronoUnit.HOURS);
+            List<Long> bookingIds = new ArrayList<>();
+            for (int i = 0; i < HOT_ITEMS; i++) {
+                Item item = itemService.addItem(new ItemDto(null, "item" + i, "mixed item", true, null), owner.getId());
+                for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                    LocalDateTime from = base.plusDays(j);
+                    bookingIds.add(bookingService.addBooking(new BookingDto(item.getId(), from, from.plusHours(3)),
+                            booker.getId()).getId());
+                }
+            }
+            List<BookingDecisionDto> batch = bookingIds.stream()
+                    .map(bookingId -> new BookingDecisionDto(bookingId, true))
+                    .collect(Collectors.toList());
+            List<Long> singles = new ArrayList<>(bookingIds);
+            Collections.reverse(singles);
+
+            AtomicInteger decided = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                boolean batchDecider = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    if (batchDecider) {
+                        List<BookingDecisionResultDto> results = bookingService.approveBookings(batch, owner.getId());
+                        decided.addAndGet((int) results.stream().filter(result -> result.getStatus() != null).count());
+                        return null;
+                    }
+                    for (Long bookingId : singles) {
+                        try {
+                            bookingService.approveBooking(bookingId, true, owner.getId());
+                            decided.incrementAndGet();
+                        } catch (BadRequestException | ConflictException e) {
+                            continue;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            assertEquals(bookingIds.size(), decided.get());
+            assertTrue(bookingRepository.findAllById(bookingIds)
+                    .stream()
+                    .allMatch(booking -> booking.getStatus() == BookingStatus.APPROVED));
+        } finally {
+            ReflectionTestUtils.setField(target, "approveLockMode", BookingLockMode.OPTIMISTIC);
+        }
+    }
+
+    @SneakyThrows
+    private void decideConcurrently(String mode) {
+        User owner = userService.saveUser(new UserDto(null, "owner", "owner-decision-" + mode + "@email.ru"));
+        User booker = userService.saveUser(new UserDto(null, "booker", "booker-decision-" + mode + "@email.ru"));
+        Item item = itemService.addItem(new ItemDto(null, "item", "contended item", true, null), owner.getId());
+        LocalDateTime from = LocalDateTime.now().plusDays(30);
+        Booking booking = bookingService.addBooking(new BookingDto(item.getId(), from, from.plusDays(1)), booker.getId());
+
+        List<Booking> decisions = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approved = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    decisions.add(bookingService.approveBooking(booking.getId(), approved, owner.getId()));
+                } catch (BadRequestException | ConflictException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, decisions.size());
+        assertEquals(THREADS - 1, rejected.get());
+        assertEquals(decisions.get(0).getStatus(), bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+    }
+}
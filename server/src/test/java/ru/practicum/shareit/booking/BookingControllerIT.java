@@ -7,8 +7,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoInfo;
 import ru.practicum.shareit.exception.BadRequestException;
@@ -24,6 +28,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -83,6 +88,29 @@ class BookingControllerIT {
         verify(bookingService).addBooking(expectedBookingDto, expectedUserId);
     }
 
+    @SneakyThrows
+    @Test
+    void updateBookings_whenInvoked_thenReturnedResultPerId() {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(expectedBookingId, true),
+                new BookingDecisionDto(2L, false));
+        List<BookingDecisionResultDto> results = List.of(
+                new BookingDecisionResultDto(expectedBookingId, BookingStatus.APPROVED, null),
+                new BookingDecisionResultDto(2L, null, "Booking not found"));
+        when(bookingService.approveBookings(decisions, expectedUserId)).thenReturn(results);
+
+        String result = mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", expectedUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(results), result);
+        verify(bookingService, never()).approveBooking(any(), any(), any());
+    }
+
     @SneakyThrows
     @Test
     void addBooking_whenBookingNotValid_thenExceptionThrown() {
@@ -273,6 +301,25 @@ class BookingControllerIT {
         verify(bookingService).getAllUserBooking("ALL", expectedUserId, 0, 1);
     }
 
+    @SneakyThrows
+    @Test
+    void getAllUserBooking_whenCursorGiven_thenNextCursorHeaderReturned() {
+        expectedBooking.setId(expectedBookingId);
+        String cursor = BookingCursor.of(expectedBooking).encode();
+        when(bookingService.getAllUserBookingByCursor("ALL", expectedUserId, "", 1))
+                .thenReturn(new SliceImpl<>(List.of(expectedBooking), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", expectedUserId)
+                        .param("state", "ALL")
+                        .param("cursor", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, cursor));
+
+        verify(bookingService, never()).getAllUserBooking(anyString(), anyLong(), anyInt(), anyInt());
+    }
+
     @SneakyThrows
     @Test
     void getAllUserBooking_whenUserNotFound_thenExceptionThrown() {
@@ -7,7 +7,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoInfo;
 import ru.practicum.shareit.item.Item;
@@ -19,6 +23,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -66,6 +71,18 @@ class BookingControllerTest {
         assertEquals(expectedBookingDtoInfo, response.getBody());
     }
 
+    @Test
+    void updateBookings_whenInvoked_thenResponseStatusOkWithResultsInBody() {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(expectedBookingId, true));
+        List<BookingDecisionResultDto> results = List.of(new BookingDecisionResultDto(expectedBookingId, BookingStatus.APPROVED, null));
+        when(bookingService.approveBookings(decisions, expectedUserId)).thenReturn(results);
+
+        ResponseEntity<List<BookingDecisionResultDto>> response = bookingController.updateBookings(decisions, expectedUserId);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(results, response.getBody());
+    }
+
     @Test
     void updateBooking_whenInvoked_thenResponseStatusOkWithBookingInBody() {
         when(bookingService.approveBooking(expectedBookingId, true, expectedUserId)).thenReturn(expectedBooking);
@@ -91,7 +108,7 @@ class BookingControllerTest {
         List<Booking> expectedBookingsList = List.of(expectedBooking);
         when(bookingService.getAllUserBooking("ALL", expectedUserId, 0, 1)).thenReturn(expectedBookingsList);
 
-        ResponseEntity<List<BookingDtoInfo>> response = bookingController.getAllUserBooking("ALL", expectedUserId, 0, 1);
+        ResponseEntity<List<BookingDtoInfo>> response = bookingController.getAllUserBooking("ALL", expectedUserId, 0, 1, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(List.of(expectedBookingDtoInfo), response.getBody());
@@ -102,10 +119,36 @@ class BookingControllerTest {
         List<Booking> expectedBookingsList = List.of(expectedBooking);
         when(bookingService.getAllBookingsUserItems("ALL", expectedUserId, 0, 1)).thenReturn(expectedBookingsList);
 
-        ResponseEntity<List<BookingDtoInfo>> response = bookingController.getAllBookingsUserItems("ALL", expectedUserId, 0, 1);
+        ResponseEntity<List<BookingDtoInfo>> response = bookingController.getAllBookingsUserItems("ALL", expectedUserId, 0, 1, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(List.of(expectedBookingDtoInfo), response.getBody());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllUserBooking_whenInvokedWithCursorAndHasNext_thenNextCursorInHeader() {
+        expectedBooking.setId(expectedBookingId);
+        when(bookingService.getAllUserBookingByCursor("ALL", expectedUserId, "", 1))
+                .thenReturn(new SliceImpl<>(List.of(expectedBooking), PageRequest.of(0, 1), true));
+
+        ResponseEntity<List<BookingDtoInfo>> response = bookingController.getAllUserBooking("ALL", expectedUserId, 0, 1, "");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(BookingMapper.toBookingDtoInfo(expectedBooking)), response.getBody());
+        assertEquals(BookingCursor.of(expectedBooking).encode(),
+                response.getHeaders().getFirst(BookingController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getAllBookingsUserItems_whenInvokedWithCursorAndLastSlice_thenNoNextCursor() {
+        when(bookingService.getAllBookingsUserItemsByCursor("ALL", expectedUserId, "", 1))
+                .thenReturn(new SliceImpl<>(List.of(expectedBooking), PageRequest.of(0, 1), false));
+
+        ResponseEntity<List<BookingDtoInfo>> response = bookingController.getAllBookingsUserItems("ALL", expectedUserId, 0, 1, "");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(expectedBookingDtoInfo), response.getBody());
+        assertNull(response.getHeaders().getFirst(BookingController.NEXT_CURSOR_HEADER));
+    }
+}
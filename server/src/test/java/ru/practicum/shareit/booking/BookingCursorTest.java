@@ -0,0 +1,56 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingCursorTest {
+
+    private final LocalDateTime start = LocalDateTime.of(2023, 3, 1, 12, 30, 15);
+
+    @Test
+    void decode_whenEncoded_thenSameCursorReturned() {
+        BookingCursor cursor = BookingCursor.of(Booking.builder().id(7L).start(start).build());
+
+        BookingCursor decoded = BookingCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertEquals(start, decoded.getStart());
+        assertEquals(7L, decoded.getId());
+    }
+
+    @Test
+    void encode_thenUrlSafeWithoutPadding() {
+        String token = new BookingCursor(start, 1L).encode();
+
+        assertFalse(token.contains("="));
+        assertFalse(token.contains("+"));
+        assertFalse(token.contains("/"));
+    }
+
+    @Test
+    void decode_whenTokenAbsent_thenCursorBeforeEveryBooking() {
+        BookingCursor first = BookingCursor.decode(null);
+
+        assertSame(first, BookingCursor.decode(" "));
+        assertTrue(first.getStart().isAfter(LocalDateTime.now().plusYears(1000)));
+        assertEquals(Long.MAX_VALUE, first.getId());
+    }
+
+    @Test
+    void decode_whenTokenMalformed_thenExceptionThrown() {
+        String withoutSeparator = Base64.getUrlEncoder().encodeToString("2023-03-01T12:30".getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().encodeToString("yesterday_1".getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().encodeToString("2023-03-01T12:30_x".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BadRequestException.class, () -> BookingCursor.decode("not base64!"));
+        assertThrows(BadRequestException.class, () -> BookingCursor.decode(withoutSeparator));
+        assertThrows(BadRequestException.class, () -> BookingCursor.decode(badDate));
+        assertThrows(BadRequestException.class, () -> BookingCursor.decode(badId));
+    }
+}
@@ -0,0 +1,235 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every booking, owner-item and comment repository query, captures the SQL Hibernate generates
+ * for it and checks that H2 plans it with the index added for that query shape.
+ * <p>
+ * H2 gives every foreign key column an index of its own, PostgreSQL does not. The test drops the
+ * foreign keys, and H2's indexes with them, so the planner is left with the indexes PostgreSQL has.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.booking.BookingIndexIT$SqlRecorder")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BookingIndexIT {
+
+    private static final int USERS = 20;
+    private static final int ITEMS_PER_USER = 5;
+    private static final int BOOKINGS_PER_ITEM = 20;
+    private static final String[] STATUSES = {"WAITING", "APPROVED", "REJECTED", "APPROVED"};
+    private static final String[][] FOREIGN_KEYS = {
+            new String[]{"requests", "fk_requests_to_users"},
+            new String[]{"items", "fk_items_to_users"},
+            new String[]{"items", "fk_items_to_requests"},
+            new String[]{"bookings", "fk_bookings_to_items"},
+            new String[]{"bookings", "fk_bookings_to_users"},
+            new String[]{"comments", "fk_comments_to_items"},
+            new String[]{"comments", "fk_comments_to_users"}};
+
+    private static final String BOOKER_START = "IX_BOOKINGS_BOOKER_START";
+    private static final String BOOKER_STATUS_START = "IX_BOOKINGS_BOOKER_STATUS_START";
+    private static final String ITEM_STATUS_START = "IX_BOOKINGS_ITEM_STATUS_START";
+    private static final String COMMENTS_ITEM_CREATED = "IX_COMMENTS_ITEM_CREATED";
+    private static final String ITEMS_OWNER = "UQ_USER_ITEM_NAME";
+
+    private static final PageRequest PAGE = PageRequest.of(0, 10);
+    private static final LocalDateTime CURSOR = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final List<BookingStatus> WORKED = List.of(BookingStatus.APPROVED, BookingStatus.WAITING);
+    private static final List<Long> ITEMS = List.of(7L, 8L, 9L);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @BeforeEach
+    void setUp() {
+        if (jdbcTemplate.queryForObject("select count(*) from bookings", Long.class) > 0) {
+            return;
+        }
+        for (String[] foreignKey : FOREIGN_KEYS) {
+            jdbcTemplate.execute("alter table " + foreignKey[0] + " drop constraint " + foreignKey[1]);
+        }
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (long userId = 1; userId <= USERS; userId++) {
+            users.add(new Object[]{userId, "user" + userId, "user" + userId + "@email.ru"});
+        }
+        for (long itemId = 1; itemId <= USERS * ITEMS_PER_USER; itemId++) {
+            long ownerId = (itemId - 1) / ITEMS_PER_USER + 1;
+            items.add(new Object[]{itemId, "item" + itemId, "description" + itemId, true, ownerId});
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                long bookerId = (ownerId + i) % USERS + 1;
+                LocalDateTime start = now.plusDays(i - BOOKINGS_PER_ITEM / 2);
+                bookings.add(new Object[]{bookings.size() + 1, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(12)),
+                        itemId, bookerId, STATUSES[i % STATUSES.length]});
+            }
+            comments.add(new Object[]{itemId, "comment" + itemId, itemId, ownerId % USERS + 1, Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("insert into users (user_id, name, email) values (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("insert into items (item_id, name, description, available, user_id) " +
+                "values (?, ?, ?, ?, ?)", items);
+        jdbcTemplate.batchUpdate("insert into bookings (booking_id, start_date, end_date, item_id, user_id, status) " +
+                "values (?, ?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.batchUpdate("insert into comments (comment_id, text, item_id, user_id, created) values (?, ?, ?, ?, ?)", comments);
+        jdbcTemplate.execute("analyze");
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                query("findAllBookingByOwnerIdAndByStatus", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByOwnerIdAndByStatus(3L, BookingStatus.WAITING, PAGE)),
+                query("findAllBookingByOwnerId", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByOwnerId(3L, PAGE)),
+                query("findAllBookingByOwnerIdAndByStatusPast", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByOwnerIdAndByStatusPast(3L, BookingStatus.APPROVED, PAGE)),
+                query("findAllBookingByOwnerIdAndByStatusCurrent", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByOwnerIdAndByStatusCurrent(3L, PAGE)),
+                query("findAllBookingByOwnerIdAndByStatusFuture", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByOwnerIdAndByStatusFuture(3L, PAGE)),
+                query("findAllBookingByUserIdAndByStatus", BOOKER_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByUserIdAndByStatus(3L, BookingStatus.WAITING, PAGE)),
+                query("findAllBookingByUserId", BOOKER_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByUserId(3L, PAGE)),
+                query("findAllBookingByUserIdAndByStatusPast", BOOKER_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByUserIdAndByStatusPast(3L, BookingStatus.APPROVED, PAGE)),
+                query("findAllBookingByUserIdAndByStatusCurrent", BOOKER_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByUserIdAndByStatusCurrent(3L, PAGE)),
+                query("findAllBookingByUserIdAndByStatusFuture", BOOKER_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByUserIdAndByStatusFuture(3L, PAGE)),
+                query("findAllBookingByOwnerIdAndByStatusBefore", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByOwnerIdAndByStatusBefore(3L,
+                                BookingStatus.WAITING, CURSOR, 100L, PAGE)),
+                query("findAllBookingByOwnerIdBefore", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByOwnerIdBefore(3L, CURSOR, 100L, PAGE)),
+                query("findAllBookingByOwnerIdAndByStatusPastBefore", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByOwnerIdAndByStatusPastBefore(3L,
+                                BookingStatus.APPROVED, CURSOR, 100L, PAGE)),
+                query("findAllBookingByOwnerIdAndByStatusCurrentBefore", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByOwnerIdAndByStatusCurrentBefore(3L, CURSOR, 100L, PAGE)),
+                query("findAllBookingByOwnerIdAndByStatusFutureBefore", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByOwnerIdAndByStatusFutureBefore(3L, CURSOR, 100L, PAGE)),
+                query("findAllBookingByUserIdAndByStatusBefore", BOOKER_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByUserIdAndByStatusBefore(3L,
+                                BookingStatus.WAITING, CURSOR, 100L, PAGE)),
+                query("findAllBookingByUserIdBefore", BOOKER_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByUserIdBefore(3L, CURSOR, 100L, PAGE)),
+                query("findAllBookingByUserIdAndByStatusPastBefore", BOOKER_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByUserIdAndByStatusPastBefore(3L,
+                                BookingStatus.APPROVED, CURSOR, 100L, PAGE)),
+                query("findAllBookingByUserIdAndByStatusCurrentBefore", BOOKER_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByUserIdAndByStatusCurrentBefore(3L, CURSOR, 100L, PAGE)),
+                query("findAllBookingByUserIdAndByStatusFutureBefore", BOOKER_START,
+                        (bookings, items, comments) -> bookings.findAllBookingByUserIdAndByStatusFutureBefore(3L, CURSOR, 100L, PAGE)),
+                query("findLastItemBooking", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findLastItemBooking(7L, WORKED, PAGE)),
+                query("findNextItemBooking", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findNextItemBooking(7L, WORKED, PAGE)),
+                query("existsOverlapping", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.existsOverlapping(7L, BookingStatus.APPROVED, CURSOR, CURSOR.plusDays(1))),
+                query("findAllOverlapping", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findAllOverlapping(ITEMS, BookingStatus.APPROVED, CURSOR, CURSOR.plusDays(1))),
+                query("findLastItemBookings", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findLastItemBookings(ITEMS, WORKED)),
+                query("findNextItemBookings", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findNextItemBookings(ITEMS, WORKED)),
+                query("findLastFinishedBookingByItemIdAndUserId", ITEM_STATUS_START,
+                        (bookings, items, comments) -> bookings.findLastFinishedBookingByItemIdAndUserId(7L, 3L,
+                                BookingStatus.APPROVED, PAGE)),
+                query("findAllByOwner", ITEMS_OWNER,
+                        (bookings, items, comments) -> items.findAllByOwner(3L)),
+                query("findCommentsByItemId", COMMENTS_ITEM_CREATED,
+                        (bookings, items, comments) -> comments.findCommentsByItemId(7L, PAGE)),
+                query("findCommentsByItemIdAfter", COMMENTS_ITEM_CREATED,
+                        (bookings, items, comments) -> comments.findCommentsByItemIdAfter(7L, CURSOR, 100L, PAGE)),
+                query("findFirstCommentsByItemIds", COMMENTS_ITEM_CREATED,
+                        (bookings, items, comments) -> comments.findFirstCommentsByItemIds(ITEMS, 10))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void repositoryQuery_whenExplained_thenPlannedWithIndex(String query, String index, RepositoryQuery repositoryQuery) {
+        SqlRecorder.STATEMENTS.clear();
+        repositoryQuery.run(bookingRepository, itemRepository, commentRepository);
+        assertEquals(1, SqlRecorder.STATEMENTS.size(), query + " ran " + SqlRecorder.STATEMENTS);
+
+        String plan = explain(SqlRecorder.STATEMENTS.get(0));
+
+        assertTrue(plan.contains(index), query + " is not planned with " + index + ":\n" + plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                List<String> plan = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.add(resultSet.getString(1));
+                    }
+                }
+                return plan.stream().collect(Collectors.joining("\n"));
+            }
+        });
+    }
+
+    private static Arguments query(String query, String index, RepositoryQuery repositoryQuery) {
+        return Arguments.of(query, index, repositoryQuery);
+    }
+
+    @FunctionalInterface
+    interface RepositoryQuery {
+        void run(BookingRepository bookings, ItemRepository items, CommentRepository comments);
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
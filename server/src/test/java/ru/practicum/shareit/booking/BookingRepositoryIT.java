@@ -5,8 +5,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
@@ -16,10 +16,12 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -93,11 +95,68 @@ class BookingRepositoryIT {
         assertEquals(itemOwnerId, bookingO.get().getItem().getOwner().getId());
     }
 
+    @Test
+    void findAllIntervalsByStatuses_whenInvoked_thenWorkedBookingsProjected() {
+        bookingRepository.save(Booking.builder()
+                .booker(user)
+                .item(item)
+                .status(BookingStatus.REJECTED)
+                .start(LocalDateTime.now().plusDays(2))
+                .end(LocalDateTime.now().plusDays(3))
+                .build());
+
+        List<BookingInterval> intervals = bookingRepository.findAllIntervalsByStatuses(workedStatuses);
+
+        assertEquals(1, intervals.size());
+        assertEquals(item.getId(), intervals.get(0).getItemId());
+        assertEquals(user.getId(), intervals.get(0).getBookerId());
+        assertEquals(BookingStatus.WAITING, intervals.get(0).getStatus());
+    }
+
+    @Test
+    void existsOverlapping_whenApprovedBookingIntersects_thenTrue() {
+        LocalDateTime start = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.SECONDS);
+        bookingRepository.save(Booking.builder()
+                .booker(user)
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .start(start)
+                .end(start.plusDays(2))
+                .build());
+
+        assertTrue(bookingRepository.existsOverlapping(item.getId(), BookingStatus.APPROVED, start.plusDays(1), start.plusDays(3)));
+        assertFalse(bookingRepository.existsOverlapping(item.getId(), BookingStatus.APPROVED, start.plusDays(2), start.plusDays(3)));
+        assertFalse(bookingRepository.existsOverlapping(item.getId(), BookingStatus.APPROVED, start.minusDays(5), start.minusDays(4)));
+    }
+
+    @Test
+    void updateStatuses_whenOwnedWaitingBookings_thenUpdatedInOneStatement() {
+        List<Booking> bookings = bookingRepository.findAllByIdInAndOwnerId(List.of(1L, 2L), userOwner.getId());
+        assertEquals(1, bookings.size());
+        assertTrue(bookingRepository.findAllByIdInAndOwnerId(List.of(1L), user.getId()).isEmpty());
+
+        int updated = bookingRepository.updateStatuses(List.of(1L), BookingStatus.WAITING, BookingStatus.APPROVED);
+        int repeated = bookingRepository.updateStatuses(List.of(1L), BookingStatus.WAITING, BookingStatus.REJECTED);
+
+        Booking booking = bookingRepository.findById(1L).orElseThrow();
+        assertEquals(1, updated);
+        assertEquals(0, repeated);
+        assertEquals(BookingStatus.APPROVED, booking.getStatus());
+        assertEquals(1L, booking.getVersion());
+    }
+
+    @Test
+    void findItemIdsByIdInAndOwnerId_whenOwnedBookings_thenDistinctItemIdsReturned() {
+        assertEquals(List.of(item.getId()), bookingRepository.findItemIdsByIdInAndOwnerId(List.of(1L, 2L), userOwner.getId()));
+        assertTrue(bookingRepository.findItemIdsByIdInAndOwnerId(List.of(1L), user.getId()).isEmpty());
+        assertEquals(Optional.of(item.getId()), bookingRepository.findItemIdById(1L));
+    }
+
     @Test
     void findAllBookingByOwnerIdAndByStatus() {
         long userId = 2L;
 
-        Page<Booking> bookingPage = bookingRepository.findAllBookingByOwnerIdAndByStatus(userId, BookingStatus.WAITING, pageable);
+        List<Booking> bookingPage = bookingRepository.findAllBookingByOwnerIdAndByStatus(userId, BookingStatus.WAITING, pageable);
 
         assertTrue(!bookingPage.isEmpty());
         assertEquals(1L, bookingPage.stream().count());
@@ -107,7 +166,7 @@ class BookingRepositoryIT {
     void findAllBookingByOwnerId() {
         long userId = 2L;
 
-        Page<Booking> bookingPage = bookingRepository.findAllBookingByOwnerId(userId, pageable);
+        List<Booking> bookingPage = bookingRepository.findAllBookingByOwnerId(userId, pageable);
 
         assertTrue(!bookingPage.isEmpty());
         assertEquals(1L, bookingPage.stream().count());
@@ -125,7 +184,7 @@ class BookingRepositoryIT {
                 .build();
         bookingRepository.save(booking);
 
-        Page<Booking> bookingPage = bookingRepository.findAllBookingByOwnerIdAndByStatusPast(userId, BookingStatus.APPROVED, pageable);
+        List<Booking> bookingPage = bookingRepository.findAllBookingByOwnerIdAndByStatusPast(userId, BookingStatus.APPROVED, pageable);
 
         assertTrue(!bookingPage.isEmpty());
         assertEquals(1L, bookingPage.stream().count());
@@ -143,7 +202,7 @@ class BookingRepositoryIT {
                 .build();
         bookingRepository.save(booking);
 
-        Page<Booking> bookingPage = bookingRepository.findAllBookingByOwnerIdAndByStatusCurrent(userId, pageable);
+        List<Booking> bookingPage = bookingRepository.findAllBookingByOwnerIdAndByStatusCurrent(userId, pageable);
 
         assertTrue(!bookingPage.isEmpty());
         assertEquals(1L, bookingPage.stream().count());
@@ -161,7 +220,7 @@ class BookingRepositoryIT {
                 .build();
         bookingRepository.save(booking);
 
-        Page<Booking> bookingPage = bookingRepository.findAllBookingByOwnerIdAndByStatusFuture(userId, pageable);
+        List<Booking> bookingPage = bookingRepository.findAllBookingByOwnerIdAndByStatusFuture(userId, pageable);
 
         assertTrue(!bookingPage.isEmpty());
         assertEquals(1L, bookingPage.stream().count());
@@ -179,7 +238,7 @@ class BookingRepositoryIT {
                 .build();
         bookingRepository.save(booking);
 
-        Page<Booking> bookingPage = bookingRepository.findAllBookingByUserIdAndByStatus(userId, BookingStatus.APPROVED, pageable);
+        List<Booking> bookingPage = bookingRepository.findAllBookingByUserIdAndByStatus(userId, BookingStatus.APPROVED, pageable);
 
         assertTrue(!bookingPage.isEmpty());
         assertEquals(1L, bookingPage.stream().count());
@@ -197,7 +256,7 @@ class BookingRepositoryIT {
                 .build();
         bookingRepository.save(booking);
 
-        Page<Booking> bookingPage = bookingRepository.findAllBookingByUserId(userId, pageable);
+        List<Booking> bookingPage = bookingRepository.findAllBookingByUserId(userId, pageable);
 
         assertTrue(!bookingPage.isEmpty());
         assertEquals(1L, bookingPage.stream().count());
@@ -215,7 +274,7 @@ class BookingRepositoryIT {
                 .build();
         bookingRepository.save(booking);
 
-        Page<Booking> bookingPage = bookingRepository.findAllBookingByUserIdAndByStatusCurrent(userId, pageable);
+        List<Booking> bookingPage = bookingRepository.findAllBookingByUserIdAndByStatusCurrent(userId, pageable);
 
         assertTrue(!bookingPage.isEmpty());
         assertEquals(1L, bookingPage.stream().count());
@@ -233,7 +292,7 @@ class BookingRepositoryIT {
                 .build();
         bookingRepository.save(booking);
 
-        Page<Booking> bookingPage = bookingRepository.findAllBookingByUserIdAndByStatusFuture(userId, pageable);
+        List<Booking> bookingPage = bookingRepository.findAllBookingByUserIdAndByStatusFuture(userId, pageable);
 
         assertTrue(!bookingPage.isEmpty());
         assertEquals(1L, bookingPage.stream().count());
@@ -251,7 +310,7 @@ class BookingRepositoryIT {
                 .build();
         bookingRepository.save(booking);
 
-        Page<Booking> bookingPage = bookingRepository.findAllBookingByUserIdAndByStatusPast(userId, BookingStatus.APPROVED, pageable);
+        List<Booking> bookingPage = bookingRepository.findAllBookingByUserIdAndByStatusPast(userId, BookingStatus.APPROVED, pageable);
 
         assertTrue(!bookingPage.isEmpty());
         assertEquals(1L, bookingPage.stream().count());
@@ -261,7 +320,7 @@ class BookingRepositoryIT {
     void findLastItemBooking() {
         long userId = 1L;
 
-        Page<Booking> bookingPage = bookingRepository.findLastItemBooking(userId, workedStatuses, pageable);
+        List<Booking> bookingPage = bookingRepository.findLastItemBooking(userId, workedStatuses, pageable);
 
         assertTrue(!bookingPage.isEmpty());
         assertEquals(1L, bookingPage.stream().count());
@@ -278,12 +337,54 @@ class BookingRepositoryIT {
                 .build();
         bookingRepository.save(booking);
 
-        Page<Booking> bookingPage = bookingRepository.findNextItemBooking(item.getId(), workedStatuses, pageable);
+        List<Booking> bookingPage = bookingRepository.findNextItemBooking(item.getId(), workedStatuses, pageable);
 
         assertTrue(!bookingPage.isEmpty());
         assertEquals(1L, bookingPage.stream().count());
     }
 
+    @Test
+    void findLastItemBookings() {
+        Booking olderBooking = Booking.builder()
+                .booker(user)
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .start(LocalDateTime.now().minusDays(3))
+                .end(LocalDateTime.now().minusDays(2))
+                .build();
+        bookingRepository.save(olderBooking);
+
+        List<Booking> bookings = bookingRepository.findLastItemBookings(List.of(item.getId()), workedStatuses);
+
+        assertEquals(1, bookings.size());
+        assertEquals(1L, bookings.get(0).getId());
+    }
+
+    @Test
+    void findNextItemBookings() {
+        Booking nextBooking = Booking.builder()
+                .booker(user)
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build();
+        bookingRepository.save(nextBooking);
+        Booking laterBooking = Booking.builder()
+                .booker(user)
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(4))
+                .build();
+        bookingRepository.save(laterBooking);
+
+        List<Booking> bookings = bookingRepository.findNextItemBookings(List.of(item.getId()), workedStatuses);
+
+        assertEquals(1, bookings.size());
+        assertEquals(nextBooking.getId(), bookings.get(0).getId());
+    }
+
     @Test
     void findLastFinishedBookingByItemIdAndUserId() {
         BookingStatus status = BookingStatus.APPROVED;
@@ -296,10 +397,54 @@ class BookingRepositoryIT {
                 .build();
         bookingRepository.save(booking);
 
-        Page<Booking> bookingPage = bookingRepository.findLastFinishedBookingByItemIdAndUserId(item.getId(), user.getId(),
+        List<Booking> bookingPage = bookingRepository.findLastFinishedBookingByItemIdAndUserId(item.getId(), user.getId(),
                 status, pageable);
 
         assertTrue(!bookingPage.isEmpty());
         assertEquals(1L, bookingPage.stream().count());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllBookingByUserIdBefore() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Booking first = Booking.builder()
+                .booker(user)
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .start(start)
+                .end(start.plusDays(1))
+                .build();
+        bookingRepository.save(first);
+        Booking second = Booking.builder()
+                .booker(user)
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .start(start)
+                .end(start.plusDays(2))
+                .build();
+        bookingRepository.save(second);
+        BookingCursor firstPosition = BookingCursor.decode(null);
+
+        Slice<Booking> firstSlice = bookingRepository.findAllBookingByUserIdBefore(user.getId(),
+                firstPosition.getStart(), firstPosition.getId(), pageable);
+        BookingCursor next = BookingCursor.of(firstSlice.getContent().get(0));
+        Slice<Booking> secondSlice = bookingRepository.findAllBookingByUserIdBefore(user.getId(),
+                next.getStart(), next.getId(), pageable);
+
+        assertTrue(firstSlice.hasNext());
+        assertEquals(second.getId(), firstSlice.getContent().get(0).getId());
+        assertTrue(secondSlice.hasNext());
+        assertEquals(first.getId(), secondSlice.getContent().get(0).getId());
+    }
+
+    @Test
+    void findAllBookingByOwnerIdAndByStatusBefore() {
+        BookingCursor firstPosition = BookingCursor.decode(null);
+
+        Slice<Booking> slice = bookingRepository.findAllBookingByOwnerIdAndByStatusBefore(userOwner.getId(),
+                BookingStatus.WAITING, firstPosition.getStart(), firstPosition.getId(), pageable);
+
+        assertEquals(1, slice.getNumberOfElements());
+        assertTrue(!slice.hasNext());
+    }
+}
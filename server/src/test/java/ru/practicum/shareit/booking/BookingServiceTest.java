@@ -3,16 +3,27 @@ package ru.practicum.shareit.booking;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.CommonPageRequest;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoInfo;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemInfoCache;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -23,6 +34,9 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -37,6 +51,12 @@ class BookingServiceTest {
     private BookingRepository bookingRepository;
     @Mock
     private UserService userService;
+    @Mock
+    private ItemInfoCache itemInfoCache;
+    @Mock
+    private ItemBookingTimeline itemBookingTimeline;
+    @Mock
+    private TransactionTemplate transactionTemplate;
     private Long expectedItemId;
     private Long expectedRequestId;
     private ItemDto expectedDtoItem;
@@ -67,6 +87,14 @@ class BookingServiceTest {
         expectedBookingDto = new BookingDto(expectedBookingId, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
         expectedBooking = BookingMapper.toBooking(expectedBookingDto, expectedItem, expectedUser);
         firstPage = new CommonPageRequest(0, 1);
+        ReflectionTestUtils.setField(bookingService, "approveLockMode", BookingLockMode.OPTIMISTIC);
+        ReflectionTestUtils.setField(bookingService, "approveMaxAttempts", 3);
+        ReflectionTestUtils.setField(bookingService, "batchMaxSize", 5);
+    }
+
+    private void inTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Booking>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -81,7 +109,7 @@ class BookingServiceTest {
     @Test
     void toBookingDtoInfo_checkEqualsAndHashCode() {
         Booking checkedBooking = new Booking(expectedBookingId, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
-                expectedItem, expectedUser, BookingStatus.WAITING);
+                expectedItem, expectedUser, BookingStatus.WAITING, 0L);
         BookingDtoInfo checkedBookingDtoInfo = BookingMapper.toBookingDtoInfo(checkedBooking);
         BookingDtoInfo expectedBookingDtoInfo = BookingMapper.toBookingDtoInfo(expectedBooking);
         expectedBookingDtoInfo.setId(expectedBookingId);
@@ -92,8 +120,8 @@ class BookingServiceTest {
 
     @Test
     void addBooking_whenInvoked_thenReturnedBooking() {
-        when(itemService.getItem(expectedItemId, expectedUserId)).thenReturn(expectedItem);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItem);
+        when(userService.getUserReference(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.save(expectedBooking)).thenReturn(expectedBooking);
 
         Booking actualBooking = bookingService.addBooking(expectedBookingDto,expectedUserId);
@@ -102,19 +130,34 @@ class BookingServiceTest {
         assertEquals(expectedBooking, actualBooking);
         assertEquals(expectedBooking.hashCode(), actualBooking.hashCode());
         verify(bookingRepository).save(expectedBooking);
+        verify(itemInfoCache).evict(expectedItemId);
+        verify(itemBookingTimeline).index(expectedBooking);
     }
 
     @Test
-    void addBooking_whenItemNotFound_thenExceptionThrown() {
-        when(itemService.getItem(expectedItemId, expectedUserId)).thenThrow(new NotFoundException("Item not found!"));
+    void addBooking_whenItemAlreadyBooked_thenExceptionThrown() {
+        when(itemBookingTimeline.isBooked(expectedItemId, expectedBookingDto.getStart(), expectedBookingDto.getEnd()))
+                .thenReturn(true);
 
-        assertThrows(NotFoundException.class, () -> bookingService.addBooking(expectedBookingDto,expectedUserId));
-        verify(bookingRepository, never()).save(expectedBooking);
+        assertThrows(ConflictException.class, () -> bookingService.addBooking(expectedBookingDto, expectedUserId));
+        verify(itemService, never()).getItemForUpdate(any());
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
-    void addBooking_whenItemNotFound2_thenExceptionThrown() {
-        when(itemService.getItem(expectedItemId, expectedUserId)).thenReturn(null);
+    void addBooking_whenOverlappingApprovedBookingStored_thenExceptionThrown() {
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItem);
+        when(userService.getUserReference(expectedUserId)).thenReturn(expectedUser);
+        when(bookingRepository.existsOverlapping(expectedItemId, BookingStatus.APPROVED,
+                expectedBookingDto.getStart(), expectedBookingDto.getEnd())).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> bookingService.addBooking(expectedBookingDto, expectedUserId));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void addBooking_whenItemNotFound_thenExceptionThrown() {
+        when(itemService.getItemForUpdate(expectedItemId)).thenThrow(new NotFoundException("Item not found!"));
 
         assertThrows(NotFoundException.class, () -> bookingService.addBooking(expectedBookingDto,expectedUserId));
         verify(bookingRepository, never()).save(expectedBooking);
@@ -123,7 +166,7 @@ class BookingServiceTest {
     @Test
     void addBooking_whenItemNotAvailable_thenExceptionThrown() {
         expectedItem.setAvailable(false);
-        when(itemService.getItem(expectedItemId, expectedUserId)).thenReturn(expectedItem);
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItem);
 
         assertThrows(BadRequestException.class, () -> bookingService.addBooking(expectedBookingDto,expectedUserId));
         verify(bookingRepository, never()).save(expectedBooking);
@@ -131,8 +174,8 @@ class BookingServiceTest {
 
     @Test
     void addBooking_whenUserNotFound_thenExceptionThrown() {
-        when(itemService.getItem(expectedItemId, expectedUserId)).thenReturn(expectedItem);
-        when(userService.getUser(expectedUserId)).thenReturn(User.builder().id(111L).build());
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItem);
+        when(userService.getUserReference(expectedUserId)).thenThrow(new NotFoundException("User not found!"));
 
         assertThrows(NotFoundException.class, () -> bookingService.addBooking(expectedBookingDto,expectedUserId));
         verify(bookingRepository, never()).save(expectedBooking);
@@ -140,8 +183,8 @@ class BookingServiceTest {
 
     @Test
     void addBooking_whenUserIsOwner_thenExceptionThrown() {
-        when(itemService.getItem(expectedItemId, expectedUserId)).thenReturn(expectedItemOwner);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItemOwner);
+        when(userService.getUserReference(expectedUserId)).thenReturn(expectedUser);
 
         assertThrows(NotFoundException.class, () -> bookingService.addBooking(expectedBookingDto,expectedUserId));
         verify(bookingRepository, never()).save(expectedBooking);
@@ -149,30 +192,157 @@ class BookingServiceTest {
 
     @Test
     void approveBooking_whenInvoked_thenReturnedBooking() {
+        inTransaction();
         expectedBooking.setStatus(BookingStatus.WAITING);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.getByBookingIdAndOwnerItemId(expectedBookingId, expectedUserId)).thenReturn(Optional.of(expectedBooking));
-        when(itemService.getItem(expectedItemId, expectedUserId)).thenReturn(expectedItemOwner);
-        when(bookingRepository.save(expectedBooking)).thenReturn(expectedBooking);
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItemOwner);
+        when(bookingRepository.saveAndFlush(expectedBooking)).thenReturn(expectedBooking);
 
         Booking actualBooking = bookingService.approveBooking(expectedBookingId, true, expectedUserId);
 
         assertEquals(expectedBooking, actualBooking);
-        verify(bookingRepository).save(expectedBooking);
+        verify(bookingRepository).saveAndFlush(expectedBooking);
+        verify(itemInfoCache).evict(expectedItemId);
+        verify(itemBookingTimeline).index(expectedBooking);
     }
 
     @Test
-    void approveBooking_whenUserNotFound_thenExceptionThrown() {
-        when(userService.getUser(expectedUserId)).thenThrow(new NotFoundException("User not found!"));
+    void approveBooking_whenItemAlreadyBooked_thenExceptionThrown() {
+        inTransaction();
+        expectedBooking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.getByBookingIdAndOwnerItemId(expectedBookingId, expectedUserId)).thenReturn(Optional.of(expectedBooking));
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItemOwner);
+        when(itemBookingTimeline.isBooked(expectedItemId, expectedBooking.getStart(), expectedBooking.getEnd()))
+                .thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> bookingService.approveBooking(expectedBookingId, true, expectedUserId));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void approveBooking_whenOverlappingApprovedBookingStored_thenExceptionThrown() {
+        inTransaction();
+        expectedBooking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.getByBookingIdAndOwnerItemId(expectedBookingId, expectedUserId)).thenReturn(Optional.of(expectedBooking));
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItemOwner);
+        when(bookingRepository.existsOverlapping(expectedItemId, BookingStatus.APPROVED,
+                expectedBooking.getStart(), expectedBooking.getEnd())).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> bookingService.approveBooking(expectedBookingId, true, expectedUserId));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void approveBooking_whenRejected_thenOverlapNotChecked() {
+        inTransaction();
+        expectedBooking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.getByBookingIdAndOwnerItemId(expectedBookingId, expectedUserId)).thenReturn(Optional.of(expectedBooking));
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItemOwner);
+        when(bookingRepository.saveAndFlush(expectedBooking)).thenReturn(expectedBooking);
+
+        Booking actualBooking = bookingService.approveBooking(expectedBookingId, false, expectedUserId);
+
+        assertEquals(BookingStatus.REJECTED, actualBooking.getStatus());
+        verify(bookingRepository, never()).existsOverlapping(any(), any(), any(), any());
+    }
+
+    @Test
+    void approveBooking_whenVersionChangedOnce_thenRetried() {
+        inTransaction();
+        expectedBooking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.getByBookingIdAndOwnerItemId(expectedBookingId, expectedUserId)).thenReturn(Optional.of(expectedBooking));
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItemOwner);
+        when(bookingRepository.saveAndFlush(expectedBooking))
+                .thenAnswer(invocation -> {
+                    expectedBooking.setStatus(BookingStatus.WAITING);
+                    throw new ObjectOptimisticLockingFailureException(Booking.class, expectedBookingId);
+                })
+                .thenReturn(expectedBooking);
+
+        Booking actualBooking = bookingService.approveBooking(expectedBookingId, true, expectedUserId);
+
+        assertEquals(BookingStatus.APPROVED, actualBooking.getStatus());
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(itemBookingTimeline).index(expectedBooking);
+    }
+
+    @Test
+    void approveBooking_whenVersionAlwaysChanged_thenConflictAfterMaxAttempts() {
+        inTransaction();
+        when(bookingRepository.getByBookingIdAndOwnerItemId(expectedBookingId, expectedUserId)).thenReturn(Optional.of(expectedBooking));
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItemOwner);
+        when(bookingRepository.saveAndFlush(expectedBooking)).thenAnswer(invocation -> {
+            expectedBooking.setStatus(BookingStatus.WAITING);
+            throw new ObjectOptimisticLockingFailureException(Booking.class, expectedBookingId);
+        });
+
+        assertThrows(ConflictException.class, () -> bookingService.approveBooking(expectedBookingId, true, expectedUserId));
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(itemBookingTimeline, never()).index(any());
+    }
+
+    @Test
+    void approveBooking_whenPessimisticMode_thenItemLockedBeforeBookingRow() {
+        inTransaction();
+        ReflectionTestUtils.setField(bookingService, "approveLockMode", BookingLockMode.PESSIMISTIC);
+        Booking lockedBooking = BookingMapper.toBooking(expectedBookingDto, expectedItemOwner, expectedUser);
+        when(bookingRepository.findItemIdById(expectedBookingId)).thenReturn(Optional.of(expectedItemId));
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItemOwner);
+        when(bookingRepository.findByIdForUpdate(expectedBookingId)).thenReturn(Optional.of(lockedBooking));
+        when(bookingRepository.saveAndFlush(lockedBooking)).thenReturn(lockedBooking);
+
+        Booking actualBooking = bookingService.approveBooking(expectedBookingId, true, expectedUserId);
+
+        assertEquals(BookingStatus.APPROVED, actualBooking.getStatus());
+        InOrder inOrder = inOrder(bookingRepository, itemService);
+        inOrder.verify(bookingRepository).findItemIdById(expectedBookingId);
+        inOrder.verify(itemService).getItemForUpdate(expectedItemId);
+        inOrder.verify(bookingRepository).findByIdForUpdate(expectedBookingId);
+        inOrder.verify(bookingRepository).saveAndFlush(lockedBooking);
+        verify(bookingRepository, never()).getByBookingIdAndOwnerItemId(any(), any());
+    }
+
+    @Test
+    void approveBooking_whenPessimisticModeAndNotOwner_thenExceptionThrown() {
+        inTransaction();
+        ReflectionTestUtils.setField(bookingService, "approveLockMode", BookingLockMode.PESSIMISTIC);
+        when(bookingRepository.findItemIdById(expectedBookingId)).thenReturn(Optional.of(expectedItemId));
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItem);
+
+        assertThrows(NotFoundException.class, () -> bookingService.approveBooking(expectedBookingId, true, expectedUserId));
+        verify(bookingRepository, never()).findByIdForUpdate(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void approveBooking_whenPessimisticModeAndBookingNotFound_thenExceptionThrown() {
+        inTransaction();
+        ReflectionTestUtils.setField(bookingService, "approveLockMode", BookingLockMode.PESSIMISTIC);
+        when(bookingRepository.findItemIdById(expectedBookingId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> bookingService.approveBooking(expectedBookingId, true, expectedUserId));
+        verify(itemService, never()).getItemForUpdate(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
 
-        verify(bookingRepository, never()).save(expectedBooking);
+    @Test
+    void approveBooking_whenPessimisticModeAndDecidedBeforeLock_thenExceptionThrown() {
+        inTransaction();
+        ReflectionTestUtils.setField(bookingService, "approveLockMode", BookingLockMode.PESSIMISTIC);
+        Booking decidedBooking = BookingMapper.toBooking(expectedBookingDto, expectedItemOwner, expectedUser);
+        decidedBooking.setStatus(BookingStatus.REJECTED);
+        when(bookingRepository.findItemIdById(expectedBookingId)).thenReturn(Optional.of(expectedItemId));
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItemOwner);
+        when(bookingRepository.findByIdForUpdate(expectedBookingId)).thenReturn(Optional.of(decidedBooking));
+
+        assertThrows(BadRequestException.class, () -> bookingService.approveBooking(expectedBookingId, true, expectedUserId));
+        verify(bookingRepository, never()).saveAndFlush(any());
     }
 
     @Test
-    void approveBooking_whenUserNotFound2_thenExceptionThrown() {
-        when(userService.getUser(expectedUserId)).thenReturn(User.builder().id(111L).build());
+    void approveBooking_whenUserNotFound_thenExceptionThrown() {
+        inTransaction();
+        doThrow(new NotFoundException("User not found!")).when(userService).requireExists(expectedUserId);
 
         assertThrows(NotFoundException.class, () -> bookingService.approveBooking(expectedBookingId, true, expectedUserId));
 
@@ -181,8 +351,8 @@ class BookingServiceTest {
 
     @Test
     void approveBooking_whenBookingNotFound_thenExceptionThrown() {
+        inTransaction();
         expectedBooking.setStatus(BookingStatus.WAITING);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.getByBookingIdAndOwnerItemId(expectedBookingId, expectedUserId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> bookingService.approveBooking(expectedBookingId, true, expectedUserId));
@@ -192,8 +362,8 @@ class BookingServiceTest {
 
     @Test
     void approveBooking_whenWrongStatus_thenExceptionThrown() {
+        inTransaction();
         expectedBooking.setStatus(BookingStatus.REJECTED);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.getByBookingIdAndOwnerItemId(expectedBookingId, expectedUserId)).thenReturn(Optional.of(expectedBooking));
 
         assertThrows(BadRequestException.class, () -> bookingService.approveBooking(expectedBookingId, true, expectedUserId));
@@ -202,18 +372,179 @@ class BookingServiceTest {
 
     @Test
     void approveBooking_whenItemNotOwner_thenExceptionThrown() {
+        inTransaction();
         expectedBooking.setStatus(BookingStatus.WAITING);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.getByBookingIdAndOwnerItemId(expectedBookingId, expectedUserId)).thenReturn(Optional.of(expectedBooking));
-        when(itemService.getItem(expectedItemId, expectedUserId)).thenReturn(expectedItem);
+        when(itemService.getItemForUpdate(expectedItemId)).thenReturn(expectedItem);
 
         assertThrows(NotFoundException.class, () -> bookingService.approveBooking(expectedBookingId, true, expectedUserId));
         verify(bookingRepository, never()).save(expectedBooking);
     }
 
+    @Test
+    void approveBookings_whenMixedDecisions_thenResultPerIdAndOneUpdatePerStatus() {
+        Booking rejectedBooking = BookingMapper.toBooking(expectedBookingDto, expectedItemOwner, expectedUser);
+        rejectedBooking.setId(2L);
+        rejectedBooking.setStatus(BookingStatus.WAITING);
+        Booking decidedBooking = BookingMapper.toBooking(expectedBookingDto, expectedItemOwner, expectedUser);
+        decidedBooking.setId(3L);
+        decidedBooking.setStatus(BookingStatus.APPROVED);
+        expectedBooking.setId(expectedBookingId);
+        expectedBooking.setItem(expectedItemOwner);
+        expectedBooking.setStatus(BookingStatus.WAITING);
+        List<BookingDecisionDto> decisions = List.of(
+                new BookingDecisionDto(expectedBookingId, true),
+                new BookingDecisionDto(2L, false),
+                new BookingDecisionDto(3L, true),
+                new BookingDecisionDto(4L, true),
+                new BookingDecisionDto(expectedBookingId, false));
+        when(bookingRepository.findItemIdsByIdInAndOwnerId(Set.of(expectedBookingId, 2L, 3L, 4L), expectedUserId))
+                .thenReturn(List.of(expectedItemId));
+        when(bookingRepository.findAllByIdInAndOwnerId(Set.of(expectedBookingId, 2L, 3L, 4L), expectedUserId))
+                .thenReturn(List.of(expectedBooking, rejectedBooking, decidedBooking));
+        when(bookingRepository.findAllOverlapping(List.of(expectedItemId), BookingStatus.APPROVED,
+                expectedBooking.getStart(), expectedBooking.getEnd())).thenReturn(Collections.emptyList());
+        when(bookingRepository.updateStatuses(List.of(expectedBookingId), BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(1);
+        when(bookingRepository.updateStatuses(List.of(2L), BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(1);
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(decisions, expectedUserId);
+
+        assertEquals(List.of(
+                new BookingDecisionResultDto(expectedBookingId, BookingStatus.APPROVED, null),
+                new BookingDecisionResultDto(2L, BookingStatus.REJECTED, null),
+                new BookingDecisionResultDto(3L, null, "Cannot change booking status: APPROVED"),
+                new BookingDecisionResultDto(4L, null, "Booking not found"),
+                new BookingDecisionResultDto(expectedBookingId, null, "Duplicate booking id")), results);
+        InOrder inOrder = inOrder(bookingRepository, itemService);
+        inOrder.verify(bookingRepository).findItemIdsByIdInAndOwnerId(Set.of(expectedBookingId, 2L, 3L, 4L), expectedUserId);
+        inOrder.verify(itemService).getItemsForUpdate(List.of(expectedItemId));
+        inOrder.verify(bookingRepository).findAllByIdInAndOwnerId(Set.of(expectedBookingId, 2L, 3L, 4L), expectedUserId);
+        verify(itemBookingTimeline).index(expectedBooking);
+        verify(itemBookingTimeline).index(rejectedBooking);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void approveBookings_whenApprovedFlagMissing_thenErrorForThatIdOnly() {
+        Booking undecidedBooking = BookingMapper.toBooking(expectedBookingDto, expectedItemOwner, expectedUser);
+        undecidedBooking.setId(2L);
+        expectedBooking.setId(expectedBookingId);
+        expectedBooking.setItem(expectedItemOwner);
+        expectedBooking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findItemIdsByIdInAndOwnerId(Set.of(expectedBookingId, 2L), expectedUserId))
+                .thenReturn(List.of(expectedItemId));
+        when(bookingRepository.findAllByIdInAndOwnerId(Set.of(expectedBookingId, 2L), expectedUserId))
+                .thenReturn(List.of(expectedBooking, undecidedBooking));
+        when(bookingRepository.findAllOverlapping(List.of(expectedItemId), BookingStatus.APPROVED,
+                expectedBooking.getStart(), expectedBooking.getEnd())).thenReturn(Collections.emptyList());
+        when(bookingRepository.updateStatuses(List.of(expectedBookingId), BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(1);
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(List.of(
+                new BookingDecisionDto(expectedBookingId, false),
+                new BookingDecisionDto(2L, null)), expectedUserId);
+
+        assertEquals(List.of(
+                new BookingDecisionResultDto(expectedBookingId, BookingStatus.REJECTED, null),
+                new BookingDecisionResultDto(2L, null, "Approved flag is required")), results);
+        assertEquals(BookingStatus.WAITING, undecidedBooking.getStatus());
+    }
+
+    @Test
+    void approveBookings_whenApprovalsOverlapInsideBatch_thenOnlyFirstApproved() {
+        Booking overlappingBooking = BookingMapper.toBooking(expectedBookingDto, expectedItemOwner, expectedUser);
+        overlappingBooking.setId(2L);
+        overlappingBooking.setStatus(BookingStatus.WAITING);
+        expectedBooking.setId(expectedBookingId);
+        expectedBooking.setItem(expectedItemOwner);
+        expectedBooking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findItemIdsByIdInAndOwnerId(Set.of(expectedBookingId, 2L), expectedUserId))
+                .thenReturn(List.of(expectedItemId));
+        when(bookingRepository.findAllByIdInAndOwnerId(Set.of(expectedBookingId, 2L), expectedUserId))
+                .thenReturn(List.of(expectedBooking, overlappingBooking));
+        when(bookingRepository.findAllOverlapping(List.of(expectedItemId), BookingStatus.APPROVED,
+                expectedBooking.getStart(), expectedBooking.getEnd())).thenReturn(Collections.emptyList());
+        when(bookingRepository.updateStatuses(List.of(expectedBookingId), BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(1);
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(List.of(
+                new BookingDecisionDto(expectedBookingId, true),
+                new BookingDecisionDto(2L, true)), expectedUserId);
+
+        assertEquals(BookingStatus.APPROVED, results.get(0).getStatus());
+        assertEquals("Item already booked for these dates", results.get(1).getError());
+    }
+
+    @Test
+    void approveBookings_whenStatusChangedConcurrently_thenErrorForChangedIdOnly() {
+        Booking changedBooking = BookingMapper.toBooking(expectedBookingDto, expectedItemOwner, expectedUser);
+        changedBooking.setId(2L);
+        changedBooking.setStatus(BookingStatus.WAITING);
+        Booking storedChangedBooking = BookingMapper.toBooking(expectedBookingDto, expectedItemOwner, expectedUser);
+        storedChangedBooking.setId(2L);
+        storedChangedBooking.setStatus(BookingStatus.APPROVED);
+        Booking storedBooking = BookingMapper.toBooking(expectedBookingDto, expectedItemOwner, expectedUser);
+        storedBooking.setId(expectedBookingId);
+        storedBooking.setStatus(BookingStatus.REJECTED);
+        expectedBooking.setId(expectedBookingId);
+        expectedBooking.setItem(expectedItemOwner);
+        expectedBooking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findItemIdsByIdInAndOwnerId(Set.of(expectedBookingId, 2L), expectedUserId))
+                .thenReturn(List.of(expectedItemId));
+        when(bookingRepository.findAllByIdInAndOwnerId(Set.of(expectedBookingId, 2L), expectedUserId))
+                .thenReturn(List.of(expectedBooking, changedBooking));
+        when(bookingRepository.updateStatuses(List.of(expectedBookingId, 2L), BookingStatus.WAITING, BookingStatus.REJECTED))
+                .thenReturn(1);
+        when(bookingRepository.findAllById(List.of(expectedBookingId, 2L))).thenReturn(List.of(storedBooking, storedChangedBooking));
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(List.of(
+                new BookingDecisionDto(expectedBookingId, false),
+                new BookingDecisionDto(2L, false)), expectedUserId);
+
+        assertEquals(List.of(
+                new BookingDecisionResultDto(expectedBookingId, BookingStatus.REJECTED, null),
+                new BookingDecisionResultDto(2L, null, "Booking was changed concurrently")), results);
+        verify(itemBookingTimeline).index(expectedBooking);
+        verify(itemBookingTimeline, never()).index(changedBooking);
+    }
+
+    @Test
+    void approveBookings_whenBatchTooLarge_thenExceptionThrown() {
+        List<BookingDecisionDto> decisions = LongStream.rangeClosed(1, 6)
+                .mapToObj(bookingId -> new BookingDecisionDto(bookingId, true))
+                .collect(Collectors.toList());
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> bookingService.approveBookings(decisions, expectedUserId));
+        assertEquals("Too many bookings in batch: 6, max 5", exception.getMessage());
+        verifyNoInteractions(bookingRepository, itemService);
+    }
+
+    @Test
+    void approveBookings_whenBookingsGoneAfterLocking_thenNotFoundPerId() {
+        when(bookingRepository.findItemIdsByIdInAndOwnerId(Set.of(expectedBookingId), expectedUserId))
+                .thenReturn(List.of(expectedItemId));
+        when(bookingRepository.findAllByIdInAndOwnerId(Set.of(expectedBookingId), expectedUserId))
+                .thenReturn(Collections.emptyList());
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(
+                List.of(new BookingDecisionDto(expectedBookingId, true)), expectedUserId);
+
+        assertEquals(List.of(new BookingDecisionResultDto(expectedBookingId, null, "Booking not found")), results);
+        verify(bookingRepository, never()).findAllOverlapping(any(), any(), any(), any());
+        verify(bookingRepository, never()).updateStatuses(any(), any(), any());
+    }
+
+    @Test
+    void approveBookings_whenNoBookingOwned_thenNothingLocked() {
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(
+                List.of(new BookingDecisionDto(expectedBookingId, true)), expectedUserId);
+
+        assertEquals(List.of(new BookingDecisionResultDto(expectedBookingId, null, "Booking not found")), results);
+        verifyNoInteractions(itemService);
+        verify(bookingRepository, never()).updateStatuses(any(), any(), any());
+    }
+
     @Test
     void getBooking_whenInvoked_thenReturnedBooking() {
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.getByBookingIdAndOwnerItemId(expectedBookingId, expectedItemOwner.getId())).thenReturn(Optional.of(expectedBooking));
 
         Booking actualBooking = bookingService.getBooking(expectedBookingId, expectedUserId);
@@ -224,15 +555,7 @@ class BookingServiceTest {
 
     @Test
     void getBooking_whenUserNotFound_thenExceptionThrown() {
-        when(userService.getUser(expectedUserId)).thenThrow(new NotFoundException("User not found!"));
-
-        assertThrows(NotFoundException.class, () -> bookingService.getBooking(expectedBookingId, expectedUserId));
-        verifyNoInteractions(bookingRepository);
-    }
-
-    @Test
-    void getBooking_whenUserNotFound2_thenExceptionThrown() {
-        when(userService.getUser(expectedUserId)).thenReturn(User.builder().id(111L).build());
+        doThrow(new NotFoundException("User not found!")).when(userService).requireExists(expectedUserId);
 
         assertThrows(NotFoundException.class, () -> bookingService.getBooking(expectedBookingId, expectedUserId));
         verifyNoInteractions(bookingRepository);
@@ -240,7 +563,6 @@ class BookingServiceTest {
 
     @Test
     void getBooking_whenBookingNotFound_thenExceptionThrown() {
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.getByBookingIdAndOwnerItemId(expectedBookingId, expectedItemOwner.getId())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,() -> bookingService.getBooking(expectedBookingId, expectedUserId));
@@ -251,9 +573,8 @@ class BookingServiceTest {
     void getAllUserBooking_whenInvokedAndStateAll_thenReturnedBookingList() {
         String state = "ALL";
         List<Booking> expectedBookingList = List.of(expectedBooking);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByUserId(expectedUserId, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllUserBooking(state, expectedUserId, 0, 1);
 
@@ -265,9 +586,8 @@ class BookingServiceTest {
         BookingStatus expectedState = BookingStatus.WAITING;
         expectedBooking.setStatus(expectedState);
         List<Booking> expectedBookingList = List.of(expectedBooking);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByUserIdAndByStatus(expectedUserId, expectedState, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllUserBooking(expectedState.name(), expectedUserId, 0, 1);
 
@@ -279,9 +599,8 @@ class BookingServiceTest {
         String state = "PAST";
         expectedBooking.setStatus(BookingStatus.APPROVED);
         List<Booking> expectedBookingList = List.of(expectedBooking);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByUserIdAndByStatusPast(expectedUserId, BookingStatus.APPROVED, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllUserBooking(state, expectedUserId, 0, 1);
 
@@ -293,9 +612,8 @@ class BookingServiceTest {
         String state = "CURRENT";
         expectedBooking.setStatus(BookingStatus.APPROVED);
         List<Booking> expectedBookingList = List.of(expectedBooking);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByUserIdAndByStatusCurrent(expectedUserId, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllUserBooking(state, expectedUserId, 0, 1);
 
@@ -307,9 +625,8 @@ class BookingServiceTest {
         String state = "FUTURE";
         expectedBooking.setStatus(BookingStatus.APPROVED);
         List<Booking> expectedBookingList = List.of(expectedBooking);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByUserIdAndByStatusFuture(expectedUserId, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllUserBooking(state, expectedUserId, 0, 1);
 
@@ -321,9 +638,8 @@ class BookingServiceTest {
         String state = "REJECTED";
         expectedBooking.setStatus(BookingStatus.REJECTED);
         List<Booking> expectedBookingList = List.of(expectedBooking);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByUserIdAndByStatus(expectedUserId, BookingStatus.REJECTED, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllUserBooking(state, expectedUserId, 0, 1);
 
@@ -334,7 +650,7 @@ class BookingServiceTest {
     void getAllUserBooking_whenUserNotFound_thenExceptionThrown() {
         String state = "REJECTED";
         expectedBooking.setStatus(BookingStatus.REJECTED);
-        when(userService.getUser(expectedUserId)).thenReturn(User.builder().id(111L).build());
+        doThrow(new NotFoundException("User not found!")).when(userService).requireExists(expectedUserId);
 
         assertThrows(NotFoundException.class, () -> bookingService.getAllUserBooking(state, expectedUserId, 0, 1));
     }
@@ -343,7 +659,6 @@ class BookingServiceTest {
     void getAllUserBooking_whenStateIsNull_thenExceptionThrown() {
         String state = "123";
         expectedBooking.setStatus(BookingStatus.REJECTED);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
 
         assertThrows(IllegalArgumentException.class, () -> bookingService.getAllUserBooking(state, expectedUserId, 0, 1));
     }
@@ -352,9 +667,8 @@ class BookingServiceTest {
     void getAllBookingsUserItems_whenInvokedStateAll_thenReturnedBookingList() {
         String state = "ALL";
         List<Booking> expectedBookingList = List.of(expectedBooking);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByOwnerId(expectedUserId, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllBookingsUserItems(state, expectedUserId, 0, 1);
 
@@ -366,9 +680,8 @@ class BookingServiceTest {
     void getAllBookingsUserItems_whenInvokedStateAll_thenReturnedEmptyList() {
         String state = "ALL";
         List<Booking> expectedBookingList = Collections.emptyList();
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByOwnerId(expectedUserId, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllBookingsUserItems(state, expectedUserId, 0, 1);
 
@@ -381,9 +694,8 @@ class BookingServiceTest {
         String state = "WAITING";
         BookingStatus status = BookingStatus.WAITING;
         List<Booking> expectedBookingList = List.of(expectedBooking);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByOwnerIdAndByStatus(expectedUserId, status, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllBookingsUserItems(state, expectedUserId, 0, 1);
 
@@ -396,9 +708,8 @@ class BookingServiceTest {
         String state = "WAITING";
         BookingStatus status = BookingStatus.WAITING;
         List<Booking> expectedBookingList = Collections.emptyList();
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByOwnerIdAndByStatus(expectedUserId, status, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllBookingsUserItems(state, expectedUserId, 0, 1);
 
@@ -412,9 +723,8 @@ class BookingServiceTest {
         BookingStatus status = BookingStatus.APPROVED;
         expectedBooking.setStatus(status);
         List<Booking> expectedBookingList = List.of(expectedBooking);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByOwnerIdAndByStatusPast(expectedUserId, status, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllBookingsUserItems(state, expectedUserId, 0, 1);
 
@@ -427,9 +737,8 @@ class BookingServiceTest {
         String state = "PAST";
         BookingStatus status = BookingStatus.APPROVED;
         List<Booking> expectedBookingList = Collections.emptyList();
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByOwnerIdAndByStatusPast(expectedUserId, status, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllBookingsUserItems(state, expectedUserId, 0, 1);
 
@@ -443,9 +752,8 @@ class BookingServiceTest {
         BookingStatus status = BookingStatus.WAITING;
         expectedBooking.setStatus(status);
         List<Booking> expectedBookingList = List.of(expectedBooking);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByOwnerIdAndByStatusCurrent(expectedUserId, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllBookingsUserItems(state, expectedUserId, 0, 1);
 
@@ -459,9 +767,8 @@ class BookingServiceTest {
         BookingStatus status = BookingStatus.WAITING;
         expectedBooking.setStatus(status);
         List<Booking> expectedBookingList = Collections.emptyList();
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByOwnerIdAndByStatusCurrent(expectedUserId, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllBookingsUserItems(state, expectedUserId, 0, 1);
 
@@ -475,9 +782,8 @@ class BookingServiceTest {
         BookingStatus status = BookingStatus.APPROVED;
         expectedBooking.setStatus(status);
         List<Booking> expectedBookingList = List.of(expectedBooking);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByOwnerIdAndByStatusFuture(expectedUserId, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllBookingsUserItems(state, expectedUserId, 0, 1);
 
@@ -491,9 +797,8 @@ class BookingServiceTest {
         BookingStatus status = BookingStatus.APPROVED;
         expectedBooking.setStatus(status);
         List<Booking> expectedBookingList = Collections.emptyList();
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByOwnerIdAndByStatusFuture(expectedUserId, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllBookingsUserItems(state, expectedUserId, 0, 1);
 
@@ -507,9 +812,8 @@ class BookingServiceTest {
         BookingStatus status = BookingStatus.REJECTED;
         expectedBooking.setStatus(status);
         List<Booking> expectedBookingList = List.of(expectedBooking);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByOwnerIdAndByStatus(expectedUserId, status, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllBookingsUserItems(state, expectedUserId, 0, 1);
 
@@ -520,8 +824,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsUserItems_whenUserNotOwner_thenExceptionThrown() {
         String state = "ALL";
-        expectedUser.setId(2L);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
+        doThrow(new NotFoundException("User not found!")).when(userService).requireExists(expectedUserId);
 
         assertThrows(NotFoundException.class, () -> bookingService.getAllBookingsUserItems(state, expectedUserId, 0, 1));
         verifyNoInteractions(bookingRepository);
@@ -530,7 +833,6 @@ class BookingServiceTest {
     @Test
     void getAllBookingsUserItems_whenStateIsWrong_thenExceptionThrown() {
         String state = "WRONG";
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
 
         assertThrows(IllegalArgumentException.class, () -> bookingService.getAllBookingsUserItems(state, expectedUserId, 0, 1));
         verifyNoInteractions(bookingRepository);
@@ -540,9 +842,8 @@ class BookingServiceTest {
     void getAllBookingsUserItems_whenStateIsNull_thenReturnedAllStatusBookingList() {
         String state = null;
         List<Booking> expectedBookingList = Collections.emptyList();
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findAllBookingByOwnerId(expectedUserId, firstPage))
-                .thenReturn(new PageImpl<>(expectedBookingList, firstPage, 1));
+                .thenReturn(expectedBookingList);
 
         List<Booking> actualBookingList = bookingService.getAllBookingsUserItems(state, expectedUserId, 0, 1);
 
@@ -551,4 +852,44 @@ class BookingServiceTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void getAllUserBookingByCursor_whenCursorGiven_thenSeekFromCursorPosition() {
+        LocalDateTime cursorStart = LocalDateTime.of(2030, 1, 1, 12, 0);
+        String cursor = new BookingCursor(cursorStart, 7L).encode();
+        PageRequest pageable = PageRequest.of(0, 1);
+        Slice<Booking> expectedSlice = new SliceImpl<>(List.of(expectedBooking), pageable, true);
+        when(bookingRepository.findAllBookingByUserIdBefore(expectedUserId, cursorStart, 7L, pageable))
+                .thenReturn(expectedSlice);
+
+        Slice<Booking> actualSlice = bookingService.getAllUserBookingByCursor("ALL", expectedUserId, cursor, 1);
+
+        assertEquals(expectedSlice, actualSlice);
+    }
+
+    @Test
+    void getAllUserBookingByCursor_whenCursorIsInvalid_thenExceptionThrown() {
+        assertThrows(BadRequestException.class,
+                () -> bookingService.getAllUserBookingByCursor("ALL", expectedUserId, "not a cursor", 1));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getAllBookingsUserItemsByCursor_whenCursorIsEmpty_thenSeekFromFirstPosition() {
+        PageRequest pageable = PageRequest.of(0, 1);
+        Slice<Booking> expectedSlice = new SliceImpl<>(List.of(expectedBooking), pageable, false);
+        BookingCursor first = BookingCursor.decode("");
+        when(bookingRepository.findAllBookingByOwnerIdAndByStatusBefore(expectedUserId, BookingStatus.WAITING,
+                first.getStart(), first.getId(), pageable)).thenReturn(expectedSlice);
+
+        Slice<Booking> actualSlice = bookingService.getAllBookingsUserItemsByCursor("WAITING", expectedUserId, "", 1);
+
+        assertEquals(expectedSlice, actualSlice);
+    }
+
+    @Test
+    void bookingCursor_whenEncodedAndDecoded_thenSamePosition() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2030, 1, 1, 12, 0, 30), 42L);
+
+        assertEquals(cursor, BookingCursor.decode(cursor.encode()));
+    }
+}
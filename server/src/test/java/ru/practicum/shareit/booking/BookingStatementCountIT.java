@@ -0,0 +1,135 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDtoInfo;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BookingStatementCountIT {
+
+    private static final int ITEMS = 5;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Statistics statistics;
+    private PageRequest pageable = PageRequest.of(0, 10);
+    private User booker;
+    private User owner;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        booker = userRepository.save(User.builder().name("booker").email("booker@email.ru").build());
+        owner = userRepository.save(User.builder().name("owner").email("owner@email.ru").build());
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("item" + i)
+                    .description("description" + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .booker(booker)
+                    .item(item)
+                    .status(BookingStatus.WAITING)
+                    .start(LocalDateTime.now().minusDays(i + 1))
+                    .end(LocalDateTime.now().plusDays(i + 1))
+                    .build());
+            booking = bookingRepository.save(Booking.builder()
+                    .booker(booker)
+                    .item(item)
+                    .status(BookingStatus.APPROVED)
+                    .start(LocalDateTime.now().plusDays(i + 1))
+                    .end(LocalDateTime.now().plusDays(i + 2))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getBooking_whenMapped_thenOneStatement() {
+        assertEquals(1, statements(() -> List.of(bookingRepository.getByBookingIdAndOwnerItemId(booking.getId(),
+                owner.getId()).orElseThrow())));
+    }
+
+    @Test
+    void getAllUserBooking_whenMapped_thenOneStatementPerState() {
+        Long userId = booker.getId();
+
+        assertEquals(1, statements(() -> bookingRepository.findAllBookingByUserId(userId, pageable)));
+        assertEquals(1, statements(() -> bookingRepository.findAllBookingByUserIdAndByStatus(userId, BookingStatus.WAITING,
+                pageable)));
+        assertEquals(1, statements(() -> bookingRepository.findAllBookingByUserIdAndByStatusPast(userId, BookingStatus.APPROVED,
+                pageable)));
+        assertEquals(1, statements(() -> bookingRepository.findAllBookingByUserIdAndByStatusCurrent(userId, pageable)));
+        assertEquals(1, statements(() -> bookingRepository.findAllBookingByUserIdAndByStatusFuture(userId, pageable)));
+    }
+
+    @Test
+    void getAllBookingsUserItems_whenMapped_thenOneStatementPerState() {
+        Long userId = owner.getId();
+
+        assertEquals(1, statements(() -> bookingRepository.findAllBookingByOwnerId(userId, pageable)));
+        assertEquals(1, statements(() -> bookingRepository.findAllBookingByOwnerIdAndByStatus(userId, BookingStatus.WAITING,
+                pageable)));
+        assertEquals(1, statements(() -> bookingRepository.findAllBookingByOwnerIdAndByStatusPast(userId, BookingStatus.APPROVED,
+                pageable)));
+        assertEquals(1, statements(() -> bookingRepository.findAllBookingByOwnerIdAndByStatusCurrent(userId, pageable)));
+        assertEquals(1, statements(() -> bookingRepository.findAllBookingByOwnerIdAndByStatusFuture(userId, pageable)));
+    }
+
+    @Test
+    void getAllBookingsByCursor_whenMapped_thenOneStatement() {
+        BookingCursor first = BookingCursor.decode(null);
+
+        assertEquals(1, statements(() -> bookingRepository.findAllBookingByUserIdBefore(booker.getId(), first.getStart(),
+                first.getId(), pageable).getContent()));
+        assertEquals(1, statements(() -> bookingRepository.findAllBookingByOwnerIdBefore(owner.getId(), first.getStart(),
+                first.getId(), pageable).getContent()));
+    }
+
+    private long statements(Supplier<Collection<Booking>> listing) {
+        entityManager.clear();
+        statistics.clear();
+        List<BookingDtoInfo> bookings = listing.get()
+                .stream()
+                .map(booking -> BookingMapper.toBookingDtoInfo(booking))
+                .collect(Collectors.toList());
+        assertEquals(bookings.size(), bookings.stream().filter(booking -> booking.getItem().getName() != null).count());
+
+        return statistics.getPrepareStatementCount();
+    }
+}
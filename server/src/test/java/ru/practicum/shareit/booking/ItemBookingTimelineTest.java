@@ -0,0 +1,181 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.NoOpTransactionManager;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingTimelineTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+    private ItemBookingTimeline itemBookingTimeline;
+    private List<BookingStatus> workedStatuses;
+    private LocalDateTime now;
+    private Long itemId;
+    private BookingInterval past;
+    private BookingInterval future;
+    private BookingInterval waiting;
+
+    @BeforeEach
+    void setUp() {
+        workedStatuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+        now = LocalDateTime.now();
+        itemId = 1L;
+        past = new BookingInterval(itemId, 1L, 2L, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        future = new BookingInterval(itemId, 2L, 2L, now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED);
+        waiting = new BookingInterval(itemId, 3L, 3L, now.plusDays(1), now.plusDays(4), BookingStatus.WAITING);
+        itemBookingTimeline = new ItemBookingTimeline(bookingRepository, workedStatuses, true);
+        when(bookingRepository.findAllIntervalsByStatuses(workedStatuses)).thenReturn(List.of(past, future, waiting));
+        itemBookingTimeline.build();
+    }
+
+    @Test
+    void getLast_whenBookingsStarted_thenLatestStartedReturned() {
+        assertEquals(Optional.of(1L), itemBookingTimeline.getLast(itemId, now).map(booking -> booking.getId()));
+        assertEquals(Optional.empty(), itemBookingTimeline.getLast(itemId, now.minusDays(5)));
+    }
+
+    @Test
+    void getNext_whenWaitingStartsFirst_thenWaitingReturned() {
+        Optional<Booking> next = itemBookingTimeline.getNext(itemId, now);
+
+        assertEquals(Optional.of(3L), next.map(booking -> booking.getId()));
+        assertEquals(3L, next.get().getBooker().getId());
+        assertEquals(Optional.empty(), itemBookingTimeline.getNext(2L, now));
+    }
+
+    @Test
+    void isBooked_whenApprovedIntervalOverlaps_thenTrue() {
+        assertTrue(itemBookingTimeline.isBooked(itemId, now.plusDays(1), now.plusDays(2).plusHours(1)));
+        assertTrue(itemBookingTimeline.isBooked(itemId, now.plusDays(2).plusHours(1), now.plusDays(2).plusHours(2)));
+    }
+
+    @Test
+    void isBooked_whenOnlyWaitingOrAdjacentIntervals_thenFalse() {
+        assertFalse(itemBookingTimeline.isBooked(itemId, now.plusDays(1), now.plusDays(2)));
+        assertFalse(itemBookingTimeline.isBooked(itemId, now.plusDays(3), now.plusDays(4)));
+        assertFalse(itemBookingTimeline.isBooked(2L, now, now.plusDays(10)));
+    }
+
+    @Test
+    void index_whenBookingRejected_thenRemovedFromTimeline() {
+        itemBookingTimeline.index(booking(waiting, BookingStatus.REJECTED));
+
+        assertEquals(Optional.of(2L), itemBookingTimeline.getNext(itemId, now).map(booking -> booking.getId()));
+    }
+
+    @Test
+    void index_whenBookingApproved_thenBlocksOverlaps() {
+        itemBookingTimeline.index(booking(waiting, BookingStatus.APPROVED));
+
+        assertTrue(itemBookingTimeline.isBooked(itemId, now.plusDays(1), now.plusDays(2)));
+    }
+
+    @Test
+    void index_whenTransactionCommitted_thenAppliedAfterCommit() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemBookingTimeline.index(booking(waiting, BookingStatus.APPROVED));
+
+            assertFalse(itemBookingTimeline.isBooked(itemId, now.plusDays(1), now.plusDays(2)));
+        });
+
+        assertTrue(itemBookingTimeline.isBooked(itemId, now.plusDays(1), now.plusDays(2)));
+    }
+
+    @Test
+    void index_whenTransactionRolledBack_thenTimelineUnchanged() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemBookingTimeline.index(booking(waiting, BookingStatus.APPROVED));
+            itemBookingTimeline.index(booking(future, BookingStatus.REJECTED));
+            status.setRollbackOnly();
+        });
+
+        assertFalse(itemBookingTimeline.isBooked(itemId, now.plusDays(1), now.plusDays(2)));
+        assertTrue(itemBookingTimeline.isBooked(itemId, now.plusDays(2), now.plusDays(3)));
+        assertEquals(Optional.of(3L), itemBookingTimeline.getNext(itemId, now).map(booking -> booking.getId()));
+    }
+
+    @Test
+    void build_whenBookingApprovedDuringSnapshotRead_thenApprovalKept() {
+        when(bookingRepository.findAllIntervalsByStatuses(workedStatuses)).thenAnswer(invocation -> {
+            itemBookingTimeline.index(booking(waiting, BookingStatus.APPROVED));
+            return List.of(past, future, waiting);
+        });
+
+        itemBookingTimeline.build();
+
+        assertTrue(itemBookingTimeline.isBooked(itemId, now.plusDays(1), now.plusDays(2)));
+    }
+
+    @Test
+    void build_whenBookingRejectedDuringSnapshotRead_thenNotRestored() {
+        when(bookingRepository.findAllIntervalsByStatuses(workedStatuses)).thenAnswer(invocation -> {
+            itemBookingTimeline.index(booking(waiting, BookingStatus.REJECTED));
+            return List.of(past, future, waiting);
+        });
+
+        itemBookingTimeline.build();
+
+        assertEquals(Optional.of(2L), itemBookingTimeline.getNext(itemId, now).map(booking -> booking.getId()));
+    }
+
+    @Test
+    void build_whenBookingChangedBeforeSnapshotRead_thenSnapshotUsed() {
+        itemBookingTimeline.index(booking(waiting, BookingStatus.APPROVED));
+        when(bookingRepository.findAllIntervalsByStatuses(workedStatuses)).thenReturn(List.of(past, future));
+
+        itemBookingTimeline.build();
+
+        assertFalse(itemBookingTimeline.isBooked(itemId, now.plusDays(1), now.plusDays(2)));
+        assertEquals(Optional.of(2L), itemBookingTimeline.getNext(itemId, now).map(booking -> booking.getId()));
+    }
+
+    @Test
+    void build_whenOlderBookingsEnded_thenOnlyLatestPastAndUnfinishedKept() {
+        BookingInterval ended = new BookingInterval(itemId, 4L, 2L, now.minusDays(6), now.minusDays(5),
+                BookingStatus.APPROVED);
+        BookingInterval ongoing = new BookingInterval(itemId, 5L, 3L, now.minusDays(4), now.plusDays(1),
+                BookingStatus.WAITING);
+        when(bookingRepository.findAllIntervalsByStatuses(workedStatuses))
+                .thenReturn(List.of(ended, ongoing, past, future, waiting));
+
+        itemBookingTimeline.build();
+
+        assertEquals(Optional.of(1L), itemBookingTimeline.getLast(itemId, now).map(booking -> booking.getId()));
+        assertEquals(Optional.of(5L), itemBookingTimeline.getLast(itemId, now.minusDays(3).minusHours(1))
+                .map(booking -> booking.getId()));
+        assertEquals(Optional.empty(), itemBookingTimeline.getLast(itemId, now.minusDays(4).minusHours(1)));
+    }
+
+    @Test
+    void isBooked_whenDisabled_thenFalse() {
+        ItemBookingTimeline disabled = new ItemBookingTimeline(bookingRepository, workedStatuses, false);
+        disabled.build();
+
+        assertFalse(disabled.isBooked(itemId, now.plusDays(2), now.plusDays(3)));
+        verify(bookingRepository, times(1)).findAllIntervalsByStatuses(workedStatuses);
+    }
+
+    private static Booking booking(BookingInterval interval, BookingStatus status) {
+        return new Booking(interval.getBookingId(), interval.getStart(), interval.getEnd(),
+                Item.builder().id(interval.getItemId()).build(), User.builder().id(interval.getBookerId()).build(), status, 0L);
+    }
+}
@@ -4,20 +4,25 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 @DataJpaTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -74,11 +79,77 @@ class CommentRepositoryIT {
     }
 
     @Test
-    void findAllCommentsByItemId() {
-        Long expectedItemId = 1L;
-        List<Comment> actualComments = commentRepository.findAllCommentsByItemId(expectedItemId);
+    void findCommentsByItemId_whenInvoked_thenAuthorNameProjectedInCreatedOrder() {
+        User author = userRepository.findAll().get(0);
+        Item item = itemRepository.findAll().get(0);
+        commentRepository.save(Comment.builder()
+                .text("comment0")
+                .author(author)
+                .item(item)
+                .created(LocalDateTime.now().minusDays(1))
+                .build());
+
+        List<ItemInfoDto.CommentDto> actualComments = commentRepository.findCommentsByItemId(item.getId(),
+                PageRequest.of(0, 10));
+
+        assertEquals(List.of("comment0", "comment1"), actualComments.stream()
+                .map(comment -> comment.getText())
+                .collect(Collectors.toList()));
+        assertEquals("user1", actualComments.get(0).getAuthorName());
+    }
+
+    @Test
+    void findCommentsByItemIdAfter_whenCursorGiven_thenNextCommentsReturned() {
+        User author = userRepository.findAll().get(0);
+        Item item = itemRepository.findAll().get(0);
+        LocalDateTime created = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        Comment second = commentRepository.save(Comment.builder()
+                .text("comment2")
+                .author(author)
+                .item(item)
+                .created(created)
+                .build());
+        Comment third = commentRepository.save(Comment.builder()
+                .text("comment3")
+                .author(author)
+                .item(item)
+                .created(created)
+                .build());
+
+        Slice<ItemInfoDto.CommentDto> actualComments = commentRepository.findCommentsByItemIdAfter(item.getId(),
+                second.getCreated(), second.getId(), PageRequest.of(0, 10));
+
+        assertEquals(1, actualComments.getNumberOfElements());
+        assertEquals(third.getId(), actualComments.getContent().get(0).getId());
+        assertFalse(actualComments.hasNext());
+    }
+
+    @Test
+    void findFirstCommentsByItemIds_whenItemHasMoreComments_thenOnlyFirstOfEachItemReturned() {
+        User author = userRepository.findAll().get(0);
+        Item item = itemRepository.findAll().get(0);
+        Item otherItem = itemRepository.save(Item.builder()
+                .name("name2")
+                .description("description2")
+                .available(true)
+                .owner(author)
+                .build());
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        for (String text : List.of("comment0", "comment00")) {
+            commentRepository.save(Comment.builder().text(text).author(author).item(item).created(created).build());
+        }
+        commentRepository.save(Comment.builder().text("other").author(author).item(otherItem).created(created).build());
+
+        List<CommentRepository.ItemComment> actualComments = commentRepository.findFirstCommentsByItemIds(
+                List.of(item.getId(), otherItem.getId()), 2);
 
-        assertTrue(!actualComments.isEmpty());
-        assertEquals(1, actualComments.size());
+        assertEquals(List.of("comment0", "comment00", "other"), actualComments.stream()
+                .map(comment -> comment.getText())
+                .collect(Collectors.toList()));
+        assertEquals(List.of(item.getId(), item.getId(), otherItem.getId()), actualComments.stream()
+                .map(comment -> comment.getItemId())
+                .collect(Collectors.toList()));
+        assertEquals("user1", actualComments.get(0).getAuthorName());
+        assertEquals(created.truncatedTo(ChronoUnit.MILLIS), actualComments.get(0).getCreated().truncatedTo(ChronoUnit.MILLIS));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "sql.statistics.headers=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ItemBatchIT {
+
+    private static final int ITEMS = 120;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.saveUser(new UserDto(null, "owner", "owner" + System.nanoTime() + "@email.ru"));
+    }
+
+    @SneakyThrows
+    @Test
+    void addItems_whenManyItems_thenInsertedInJdbcBatches() {
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemDtos.add(new ItemDto(null, "tool" + i, "description" + i, true, null));
+        }
+
+        MvcResult result = addItems(itemDtos);
+
+        List<ItemBatchResultDto> results = toResults(result);
+        assertEquals(ITEMS, results.size());
+        assertTrue(results.stream().allMatch(row -> row.getId() != null && row.getError() == null));
+        assertEquals(ITEMS, itemRepository.findNamesByOwnerIdAndNameIn(owner.getId(),
+                itemDtos.stream().map(itemDto -> itemDto.getName()).collect(Collectors.toList())).size());
+        // user check, name check, 3 sequence calls and 3 batched inserts instead of one insert per item
+        assertTrue(Long.parseLong(result.getResponse().getHeader("X-Sql-Statements")) <= 10,
+                result.getResponse().getHeader("X-Sql-Statements"));
+    }
+
+    @SneakyThrows
+    @Test
+    void addItems_whenSomeRowsInvalid_thenOtherRowsSaved() {
+        addItems(List.of(new ItemDto(null, "drill", "description", true, null)));
+
+        List<ItemBatchResultDto> results = toResults(addItems(List.of(
+                new ItemDto(null, "drill", "description", true, null),
+                new ItemDto(null, "saw", "description", true, null),
+                new ItemDto(null, "saw", "description", true, null),
+                new ItemDto(null, "ladder", "description", true, Long.MAX_VALUE),
+                new ItemDto(null, "hammer", "description", true, null))));
+
+        assertEquals("Item name already exists: drill", results.get(0).getError());
+        assertNotNull(results.get(1).getId());
+        assertEquals("Item name already exists: saw", results.get(2).getError());
+        assertEquals("Request not found: " + Long.MAX_VALUE, results.get(3).getError());
+        assertNull(results.get(3).getId());
+        assertNotNull(results.get(4).getId());
+        assertEquals(List.of("drill", "hammer", "saw"), itemRepository.findNamesByOwnerIdAndNameIn(owner.getId(),
+                List.of("drill", "saw", "ladder", "hammer")).stream().sorted().collect(Collectors.toList()));
+    }
+
+    @SneakyThrows
+    @Test
+    void addItems_whenMoreThanMaxSize_thenBadRequest() {
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i <= 1000; i++) {
+            itemDtos.add(new ItemDto(null, "tool" + i, "description" + i, true, null));
+        }
+
+        mockMvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(itemDtos)))
+                .andExpect(status().isBadRequest());
+        assertTrue(itemRepository.findNamesByOwnerIdAndNameIn(owner.getId(), List.of("tool0")).isEmpty());
+    }
+
+    @SneakyThrows
+    private MvcResult addItems(List<ItemDto> itemDtos) {
+        return mockMvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(itemDtos)))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    @SneakyThrows
+    private List<ItemBatchResultDto> toResults(MvcResult result) {
+        return objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.CacheConfig;
+import ru.practicum.shareit.NoOpTransactionManager;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemCommentCacheTest {
+
+    private ItemCommentCache itemCommentCache;
+    private Long itemId;
+    private ItemInfoDto.CommentDto first;
+    private ItemInfoDto.CommentDto second;
+    private ItemInfoDto.CommentDto third;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheConfig.ITEM_COMMENTS, Caffeine.newBuilder().build());
+        itemCommentCache = new ItemCommentCache(cacheManager);
+        itemId = 1L;
+        first = new ItemInfoDto.CommentDto(1L, "comment1", "user1", LocalDateTime.now());
+        second = new ItemInfoDto.CommentDto(2L, "comment2", "user1", LocalDateTime.now());
+        third = new ItemInfoDto.CommentDto(3L, "comment3", "user1", LocalDateTime.now());
+    }
+
+    @Test
+    void append_whenCachedBelowLimit_thenCommentAppended() {
+        itemCommentCache.put(itemId, List.of(first), itemCommentCache.stamp(itemId));
+
+        itemCommentCache.append(itemId, second, 2);
+
+        assertEquals(Optional.of(List.of(first, second)), itemCommentCache.get(itemId));
+    }
+
+    @Test
+    void append_whenCachedAtLimit_thenCachedCommentsUnchanged() {
+        itemCommentCache.put(itemId, List.of(first, second), itemCommentCache.stamp(itemId));
+
+        itemCommentCache.append(itemId, third, 2);
+
+        assertEquals(Optional.of(List.of(first, second)), itemCommentCache.get(itemId));
+    }
+
+    @Test
+    void append_whenNotCached_thenNothingCached() {
+        itemCommentCache.append(itemId, first, 2);
+
+        assertEquals(Optional.empty(), itemCommentCache.get(itemId));
+    }
+
+    @Test
+    void put_whenCommentAppendedAfterStamp_thenStaleListNotCached() {
+        long stamp = itemCommentCache.stamp(itemId);
+
+        itemCommentCache.append(itemId, second, 2);
+        itemCommentCache.put(itemId, List.of(first), stamp);
+
+        assertEquals(Optional.empty(), itemCommentCache.get(itemId));
+    }
+
+    @Test
+    void append_whenCommentAlreadyCached_thenNotDuplicated() {
+        itemCommentCache.put(itemId, List.of(first, second), itemCommentCache.stamp(itemId));
+
+        itemCommentCache.append(itemId, second, 3);
+
+        assertEquals(Optional.of(List.of(first, second)), itemCommentCache.get(itemId));
+    }
+
+    @Test
+    void putAndAppend_whenTransactionCommitted_thenCachedAfterCommit() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemCommentCache.put(itemId, List.of(first), itemCommentCache.stamp(itemId));
+            itemCommentCache.append(itemId, second, 3);
+
+            assertEquals(Optional.empty(), itemCommentCache.get(itemId));
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            itemCommentCache.append(itemId, third, 3);
+
+            assertEquals(Optional.of(List.of(first, second)), itemCommentCache.get(itemId));
+        });
+
+        assertEquals(Optional.of(List.of(first, second, third)), itemCommentCache.get(itemId));
+    }
+
+    @Test
+    void putAndAppend_whenTransactionRolledBack_thenCacheUnchanged() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+        itemCommentCache.put(itemId, List.of(first), itemCommentCache.stamp(itemId));
+        long stamp = itemCommentCache.stamp(itemId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemCommentCache.append(itemId, second, 3);
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            itemCommentCache.put(itemId, List.of(first, second, third), itemCommentCache.stamp(itemId));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(Optional.of(List.of(first)), itemCommentCache.get(itemId));
+        assertEquals(stamp, itemCommentCache.stamp(itemId));
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -19,11 +20,12 @@ import ru.practicum.shareit.user.User;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = ItemController.class)
 class ItemControllerIT {
@@ -297,7 +299,7 @@ class ItemControllerIT {
     @Test
     void getItemsBySearch_whenValid_thenReturnedOk() {
         String pattern = "pattern";
-        when(itemService.getItemsBySearch(pattern, expectedUserId)).thenReturn(List.of(expectedItem));
+        when(itemService.getItemsBySearch(pattern, expectedUserId, 0, null)).thenReturn(List.of(expectedItem));
 
         String result = mockMvc.perform(get("/items/search")
                         .param("text", pattern)
@@ -308,7 +310,7 @@ class ItemControllerIT {
                 .getContentAsString();
 
         assertEquals(objectMapper.writeValueAsString(List.of(expectedDtoItem)), result);
-        verify(itemService).getItemsBySearch(pattern, expectedUserId);
+        verify(itemService).getItemsBySearch(pattern, expectedUserId, 0, null);
     }
 
     @SneakyThrows
@@ -320,6 +322,53 @@ class ItemControllerIT {
                         .param("text", pattern))
                 .andExpect(status().isBadRequest());
 
-        verify(itemService, never()).getItemsBySearch(pattern, expectedUserId);
+        verify(itemService, never()).getItemsBySearch(anyString(), anyLong(), anyInt(), anyInt());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getItemsBySearch_whenAfterIdPassed_thenKeysetPageReturned() {
+        String pattern = "pattern";
+        when(itemService.getItemsBySearchAfter(pattern, expectedUserId, 5L, 2)).thenReturn(List.of(expectedItem));
+
+        String result = mockMvc.perform(get("/items/search")
+                        .param("text", pattern)
+                        .param("afterId", "5")
+                        .param("size", "2")
+                        .header("X-Sharer-User-Id", expectedUserId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(List.of(expectedDtoItem)), result);
+        verify(itemService, never()).getItemsBySearch(anyString(), anyLong(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void streamItemsBySearch_whenValid_thenNdjsonLinesWritten() {
+        String pattern = "pattern";
+        doAnswer(invocation -> {
+            Consumer<Item> consumer = invocation.getArgument(2);
+            consumer.accept(expectedItem);
+            consumer.accept(expectedItem);
+            return null;
+        }).when(itemService).streamItemsBySearch(eq(pattern), eq(expectedUserId), any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/items/search/stream")
+                        .param("text", pattern)
+                        .header("X-Sharer-User-Id", expectedUserId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String result = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String line = objectMapper.writeValueAsString(expectedDtoItem);
+        assertEquals(line + "\n" + line + "\n", result);
+    }
+}
@@ -7,6 +7,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -90,6 +92,19 @@ class ItemControllerTest {
         assertEquals(expectedInfoDtoItem.toString(), response.getBody().toString());
     }
 
+    @Test
+    void getComments_whenMoreCommentsExist_thenNextCursorInHeader() {
+        ItemInfoDto.CommentDto comment = new ItemInfoDto.CommentDto(1L, "comment1", "userName1", LocalDateTime.now());
+        Mockito.when(itemService.getComments(expectedItemId, expectedUserId, null, 1))
+                .thenReturn(new SliceImpl<>(List.of(comment), PageRequest.of(0, 1), true));
+
+        ResponseEntity<List<ItemInfoDto.CommentDto>> response = itemController.getComments(expectedItemId, expectedUserId, null, 1);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(comment), response.getBody());
+        assertEquals(CommentCursor.of(comment).encode(), response.getHeaders().getFirst(ItemController.NEXT_CURSOR_HEADER));
+    }
+
     @Test
     void getAllUserItems() {
         List<ItemInfoDto> expectedItemsList = List.of(expectedInfoDtoItem);
@@ -106,9 +121,9 @@ class ItemControllerTest {
     void getItemsBySearch() {
         String pattern = "pattern";
         List<Item> expectedItemsList = List.of(expectedItem);
-        Mockito.when(itemService.getItemsBySearch(pattern, expectedUserId)).thenReturn(expectedItemsList);
+        Mockito.when(itemService.getItemsBySearch(pattern, expectedUserId, 0, 10)).thenReturn(expectedItemsList);
 
-        ResponseEntity<List<ItemDto>> response = itemController.getItemsBySearch(pattern, expectedUserId);
+        ResponseEntity<List<ItemDto>> response = itemController.getItemsBySearch(pattern, expectedUserId, 0, 10, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedItemsList
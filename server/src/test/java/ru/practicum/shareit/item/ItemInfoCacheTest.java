@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import ru.practicum.shareit.CacheConfig;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ItemInfoCacheTest {
+
+    private ItemInfoCache itemInfoCache;
+    private Item item;
+    private Long ownerId;
+    private Long otherUserId;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheConfig.ITEM_INFO, Caffeine.newBuilder()
+                .expireAfter(ItemInfoCache.expiry(Duration.ofMinutes(10)))
+                .build());
+        itemInfoCache = new ItemInfoCache(cacheManager);
+        ownerId = 1L;
+        otherUserId = 2L;
+        item = new Item(1L, "item1", "description1", true, new User(ownerId, "user1", "user1@email.ru"), null);
+    }
+
+    @Test
+    void get_whenOwnerViewCached_thenNotReturnedToOtherUser() {
+        ItemInfoDto ownerView = ItemMapper.toItemInfoDto(item, Collections.emptyList(), null, null);
+        itemInfoCache.put(item, ownerId, ownerView, null, itemInfoCache.stamp(item.getId()));
+
+        assertEquals(ownerView, itemInfoCache.get(item.getId(), ownerId));
+        assertNull(itemInfoCache.get(item.getId(), otherUserId));
+    }
+
+    @Test
+    void get_whenOtherViewCached_thenNotReturnedToOwner() {
+        ItemInfoDto otherView = ItemMapper.toItemInfoDto(item, Collections.emptyList(), null, null);
+        itemInfoCache.put(item, otherUserId, otherView, null, itemInfoCache.stamp(item.getId()));
+
+        assertEquals(otherView, itemInfoCache.get(item.getId(), 3L));
+        assertNull(itemInfoCache.get(item.getId(), ownerId));
+    }
+
+    @Test
+    void get_whenEvicted_thenBothViewsRemoved() {
+        long stamp = itemInfoCache.stamp(item.getId());
+        itemInfoCache.put(item, ownerId, ItemMapper.toItemInfoDto(item, Collections.emptyList(), null, null), null, stamp);
+        itemInfoCache.put(item, otherUserId, ItemMapper.toItemInfoDto(item, Collections.emptyList(), null, null), null, stamp);
+
+        itemInfoCache.evict(item.getId());
+
+        assertNull(itemInfoCache.get(item.getId(), ownerId));
+        assertNull(itemInfoCache.get(item.getId(), otherUserId));
+    }
+
+    @Test
+    void put_whenEvictedAfterStamp_thenStaleViewNotCached() {
+        long stamp = itemInfoCache.stamp(item.getId());
+        ItemInfoDto staleView = ItemMapper.toItemInfoDto(item, Collections.emptyList(), null, null);
+
+        itemInfoCache.evict(item.getId());
+        itemInfoCache.put(item, ownerId, staleView, null, stamp);
+
+        assertNull(itemInfoCache.get(item.getId(), ownerId));
+    }
+
+    @Test
+    void get_whenNextBookingStarted_thenExpired() {
+        Booking nextBooking = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.now().minusSeconds(1))
+                .end(LocalDateTime.now().plusDays(1))
+                .item(item)
+                .booker(new User(otherUserId, "user2", "user2@email.ru"))
+                .build();
+        itemInfoCache.put(item, ownerId, ItemMapper.toItemInfoDto(item, Collections.emptyList(), null, nextBooking), nextBooking,
+                itemInfoCache.stamp(item.getId()));
+
+        assertNull(itemInfoCache.get(item.getId(), ownerId));
+    }
+
+    @Test
+    void get_whenNextBookingInFuture_thenCached() {
+        Booking nextBooking = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(new User(otherUserId, "user2", "user2@email.ru"))
+                .build();
+        ItemInfoDto ownerView = ItemMapper.toItemInfoDto(item, Collections.emptyList(), null, nextBooking);
+        itemInfoCache.put(item, ownerId, ownerView, nextBooking, itemInfoCache.stamp(item.getId()));
+
+        assertEquals(ownerView, itemInfoCache.get(item.getId(), ownerId));
+    }
+}
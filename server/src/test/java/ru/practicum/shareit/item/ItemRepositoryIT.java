@@ -5,7 +5,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.CommonPageRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
@@ -13,6 +16,8 @@ import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -56,7 +61,7 @@ class ItemRepositoryIT {
     @Test
     void findAllByRequestIdList() {
         List<Long> requestIds = List.of(1L);
-        List<Item> actualItems = itemRepository.findAllByRequestIdList(requestIds);
+        List<ItemDto> actualItems = itemRepository.findAllByRequestIdList(requestIds);
 
         assertTrue(!actualItems.isEmpty());
         assertEquals(1, actualItems.size());
@@ -73,12 +78,60 @@ class ItemRepositoryIT {
 
     @Test
     void findAllBySearch() {
-        List<Item> actualItems = itemRepository.findAllBySearch("description1");
+        List<Item> actualItems = itemRepository.findAllBySearch("description1", new CommonPageRequest(0, 10));
 
         assertTrue(!actualItems.isEmpty());
         assertEquals(1, actualItems.size());
     }
 
+    @Test
+    void findAllBySearch_whenNameMatches_thenRankedFirstAndPaged() {
+        User user = userRepository.findById(1L).get();
+        itemRepository.save(Item.builder()
+                .name("drill")
+                .description("name1 accessory")
+                .available(true)
+                .owner(user)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("name1 case")
+                .description("box")
+                .available(true)
+                .owner(user)
+                .build());
+
+        List<Item> firstPage = itemRepository.findAllBySearch("NAME1", new CommonPageRequest(0, 2));
+        List<Item> secondPage = itemRepository.findAllBySearch("NAME1", new CommonPageRequest(2, 2));
+
+        assertEquals(List.of("name1", "name1 case"), firstPage.stream().map(Item::getName).collect(Collectors.toList()));
+        assertEquals(List.of("drill"), secondPage.stream().map(Item::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findAllBySearchAfter() {
+        User user = userRepository.findById(1L).get();
+        Item second = itemRepository.save(Item.builder()
+                .name("name2")
+                .description("description1 copy")
+                .available(true)
+                .owner(user)
+                .build());
+
+        List<Item> firstPage = itemRepository.findAllBySearchAfter("description1", 0L, PageRequest.of(0, 1));
+        List<Item> secondPage = itemRepository.findAllBySearchAfter("description1", firstPage.get(0).getId(),
+                PageRequest.of(0, 1));
+
+        assertEquals(1, firstPage.size());
+        assertEquals(List.of(second.getId()), secondPage.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void streamAllBySearch() {
+        try (Stream<Item> items = itemRepository.streamAllBySearch("NAME")) {
+            assertEquals(List.of("name1"), items.map(Item::getName).collect(Collectors.toList()));
+        }
+    }
+
     @AfterEach
     public void deleteItems() {
         itemRepository.deleteAll();
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.NoOpTransactionManager;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    private ItemSearchIndex itemSearchIndex;
+    private User owner;
+    private Item drill;
+    private Item saw;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User(1L, "owner", "owner@email.ru");
+        drill = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+        saw = new Item(2L, "Пила", "Пила для дрели не нужна", true, owner, null);
+        itemSearchIndex = new ItemSearchIndex(itemRepository, ItemSearchEngine.MEMORY);
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of(drill, saw));
+        itemSearchIndex.build();
+    }
+
+    @Test
+    void search_whenSubstringMatches_thenNameMatchesRankedFirst() {
+        List<Item> actualItems = itemSearchIndex.search("ДРЕЛ", 0, 10);
+
+        assertEquals(List.of(1L, 2L), ids(actualItems));
+        assertEquals("Дрель", actualItems.get(0).getName());
+    }
+
+    @Test
+    void search_whenPaged_thenReturnedRequestedWindow() {
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("дрел", 1, 10)));
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("дрел", 0, 1)));
+    }
+
+    @Test
+    void searchAfter_whenInvoked_thenIdOrderedKeysetPageReturned() {
+        assertEquals(List.of(1L), ids(itemSearchIndex.searchAfter("дрел", 0L, 1)));
+        assertEquals(List.of(2L), ids(itemSearchIndex.searchAfter("дрел", 1L, 10)));
+    }
+
+    @Test
+    void search_whenShortPattern_thenAllItemsScanned() {
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("пи", 0, 10)));
+    }
+
+    @Test
+    void search_whenTrigramsPresentButNotContiguous_thenNotMatched() {
+        assertTrue(itemSearchIndex.search("дрель пила", 0, 10).isEmpty());
+    }
+
+    @Test
+    void index_whenAvailableFlips_thenItemRemovedAndRestored() {
+        drill.setAvailable(false);
+        itemSearchIndex.index(drill);
+
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("дрел", 0, 10)));
+
+        drill.setAvailable(true);
+        drill.setName("Перфоратор");
+        itemSearchIndex.index(drill);
+
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("перфо", 0, 10)));
+    }
+
+    @Test
+    void index_whenTransactionCommitted_thenIndexedAfterCommit() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+        drill.setName("Перфоратор");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemSearchIndex.index(drill);
+
+            assertTrue(itemSearchIndex.search("перфо", 0, 10).isEmpty());
+        });
+
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("перфо", 0, 10)));
+    }
+
+    @Test
+    void index_whenTransactionRolledBack_thenIndexUnchanged() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+        drill.setName("Перфоратор");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemSearchIndex.index(drill);
+            itemSearchIndex.removeOwner(owner.getId());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(itemSearchIndex.search("перфо", 0, 10).isEmpty());
+        assertEquals(List.of(1L, 2L), ids(itemSearchIndex.search("дрел", 0, 10)));
+        assertEquals("Дрель", itemSearchIndex.search("дрел", 0, 10).get(0).getName());
+    }
+
+    @Test
+    void removeOwner_whenInvoked_thenOwnerItemsRemoved() {
+        itemSearchIndex.removeOwner(owner.getId());
+
+        assertTrue(itemSearchIndex.search("дрел", 0, 10).isEmpty());
+    }
+
+    @Test
+    void checkConsistency_whenIndexDiverged_thenReportedAndRepaired() {
+        Item hammer = new Item(3L, "Молоток", "Тяжёлый", true, owner, null);
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of(drill, hammer));
+        drill.setDescription("Дрель ударная");
+
+        ItemSearchIndex.ConsistencyReport report = itemSearchIndex.checkConsistency();
+
+        assertFalse(report.isConsistent());
+        assertEquals(Set.of(3L), report.getMissing());
+        assertEquals(Set.of(2L), report.getStale());
+        assertEquals(Set.of(1L), report.getOutdated());
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("ударн", 0, 10)));
+        assertTrue(itemSearchIndex.checkConsistency().isConsistent());
+    }
+
+    @Test
+    void build_whenItemIndexedWhileReadingSnapshot_thenIndexedItemKept() {
+        Item hammer = new Item(3L, "Молоток", "Тяжёлый", true, owner, null);
+        Item oldDrill = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+        when(itemRepository.findAllByAvailableTrue()).thenAnswer(invocation -> {
+            itemSearchIndex.index(hammer);
+            drill.setAvailable(false);
+            itemSearchIndex.index(drill);
+            return List.of(oldDrill, saw);
+        });
+
+        itemSearchIndex.build();
+
+        assertEquals(List.of(3L), ids(itemSearchIndex.search("молот", 0, 10)));
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("дрел", 0, 10)));
+    }
+
+    @Test
+    void checkConsistency_whenItemIndexedWhileReadingSnapshot_thenNotReportedNorReverted() {
+        Item oldDrill = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+        Item hammer = new Item(3L, "Молоток", "Тяжёлый", true, owner, null);
+        when(itemRepository.findAllByAvailableTrue()).thenAnswer(invocation -> {
+            drill.setDescription("Дрель ударная");
+            itemSearchIndex.index(drill);
+            itemSearchIndex.index(hammer);
+            return List.of(oldDrill, saw);
+        });
+
+        ItemSearchIndex.ConsistencyReport report = itemSearchIndex.checkConsistency();
+
+        assertTrue(report.isConsistent());
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("ударн", 0, 10)));
+        assertEquals(List.of(3L), ids(itemSearchIndex.search("молот", 0, 10)));
+    }
+
+    @Test
+    void index_whenEngineNotMemory_thenIndexNotMaintained() {
+        ItemSearchIndex disabledIndex = new ItemSearchIndex(itemRepository, ItemSearchEngine.LIKE);
+        disabledIndex.build();
+        disabledIndex.index(drill);
+
+        assertTrue(disabledIndex.search("дрел", 0, 10).isEmpty());
+        assertTrue(disabledIndex.checkConsistency().isConsistent());
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream().map(item -> item.getId()).collect(Collectors.toList());
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item;
 
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,28 +11,47 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.CommonPageRequest;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingTimeline;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -40,11 +61,23 @@ class ItemServiceTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
     @Mock
     private UserService userService;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private ItemInfoCache itemInfoCache;
+    @Mock
+    private ItemCommentCache itemCommentCache;
+    @Mock
+    private ItemBookingTimeline itemBookingTimeline;
+    @Mock
+    private TransactionTemplate transactionTemplate;
     @Value("${booking.statuses.worked}")
     private List<BookingStatus> workedStatuses;
     private Long expectedItemId;
@@ -69,6 +102,7 @@ class ItemServiceTest {
     private ArgumentCaptor<Item> itemArgumentCaptor;
     @Captor
     private ArgumentCaptor<Comment> commentArgumentCaptor;
+    private Pageable commentsPage;
 
     @BeforeEach
     void setUp() {
@@ -84,9 +118,12 @@ class ItemServiceTest {
         expectedItem = ItemMapper.toItem(expectedDtoItem, expectedRequestId);
         updatedItem = ItemMapper.toItem(updatedDtoItem, expectedRequestId);
         expectedBooking = new Booking(1L, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1),
-                expectedItem, expectedUser, BookingStatus.APPROVED);
+                expectedItem, expectedUser, BookingStatus.APPROVED, 0L);
         firstPage = PageRequest.of(0, 1);
         expectedCommentDto = new CommentDto(1L, "commentText", "authorName", LocalDateTime.now());
+        commentsPage = PageRequest.of(0, 3);
+        ReflectionTestUtils.setField(itemService, "commentsSize", 2);
+        ReflectionTestUtils.setField(itemService, "batchMaxSize", 1000);
     }
 
     @Test
@@ -107,7 +144,6 @@ class ItemServiceTest {
 
     @Test
     void saveItem_whenInvoked_thenReturnedItem() {
-        when(userService.getUser(expectedUserId)).thenReturn(new User());
         when(itemRepository.save(expectedItem)).thenReturn(expectedItem);
 
         Item actualItem = itemService.addItem(expectedDtoItem, expectedUserId);
@@ -115,11 +151,12 @@ class ItemServiceTest {
         assertEquals(expectedItem, actualItem);
         assertEquals(expectedItem.hashCode(), actualItem.hashCode());
         verify(itemRepository).save(expectedItem);
+        verify(itemSearchIndex).index(expectedItem);
     }
 
     @Test
     void saveItem_whenUserNotExists_thenNotFoundExceptionThrown() {
-        when(userService.getUser(expectedUserId)).thenThrow(new NotFoundException("User not found"));
+        doThrow(new NotFoundException("User not found!")).when(userService).requireExists(expectedUserId);
 
         assertThrows(NotFoundException.class, () -> itemService.addItem(expectedDtoItem, expectedUserId));
         verify(itemRepository, never()).save(expectedItem);
@@ -133,6 +170,115 @@ class ItemServiceTest {
         verify(itemRepository).save(expectedItem);
     }
 
+    @Test
+    void addItems_whenNamesRepeatExistingOrEachOther_thenOnlyNewNamesSavedInOneBatch() {
+        List<ItemDto> itemDtos = List.of(
+                new ItemDto(null, "drill", "description", true, null),
+                new ItemDto(null, "saw", "description", true, null),
+                new ItemDto(null, "drill", "description", true, null),
+                new ItemDto(null, "hammer", "description", true, null));
+        inTransaction();
+        when(itemRepository.findNamesByOwnerIdAndNameIn(expectedUserId, Set.of("drill", "saw", "hammer")))
+                .thenReturn(List.of("saw"));
+        when(itemRepository.saveAll(anyCollection())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+        List<ItemBatchResultDto> results = itemService.addItems(itemDtos, expectedUserId);
+
+        assertEquals(List.of(
+                new ItemBatchResultDto(0, 100L, null),
+                new ItemBatchResultDto(1, null, "Item name already exists: saw"),
+                new ItemBatchResultDto(2, null, "Item name already exists: drill"),
+                new ItemBatchResultDto(3, 101L, null)), results);
+        verify(itemRepository).saveAll(anyCollection());
+        verify(itemRepository).flush();
+        verify(itemSearchIndex, times(2)).index(any());
+    }
+
+    @Test
+    void addItems_whenBatchViolatesConstraint_thenRowsRetriedOneByOne() {
+        List<ItemDto> itemDtos = List.of(
+                new ItemDto(null, "drill", "description", true, null),
+                new ItemDto(null, "saw", "description", true, null),
+                new ItemDto(null, "ladder", "description", true, null));
+        inTransaction();
+        Session session = mock(Session.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        ReflectionTestUtils.setField(itemService, "entityManager", entityManager);
+        when(itemRepository.findNamesByOwnerIdAndNameIn(expectedUserId, Set.of("drill", "saw", "ladder")))
+                .thenReturn(List.of());
+        when(itemRepository.saveAll(anyCollection()))
+                .thenThrow(constraintViolation("uq_user_item_name"))
+                .thenAnswer(invocation -> assignIds(invocation.getArgument(0)))
+                .thenThrow(constraintViolation("uq_user_item_name"))
+                .thenThrow(constraintViolation("fk_items_to_users"));
+
+        List<ItemBatchResultDto> results = itemService.addItems(itemDtos, expectedUserId);
+
+        assertEquals(List.of(
+                new ItemBatchResultDto(0, 100L, null),
+                new ItemBatchResultDto(1, null, "Item name already exists: saw"),
+                new ItemBatchResultDto(2, null, "Item not saved")), results);
+        verify(transactionTemplate, times(4)).executeWithoutResult(any());
+        verify(session, times(3)).setJdbcBatchSize(1);
+    }
+
+    @Test
+    void addItems_whenRequestNotFound_thenRowRejectedBeforeSave() {
+        List<ItemDto> itemDtos = List.of(
+                new ItemDto(null, "drill", "description", true, expectedRequestId),
+                new ItemDto(null, "saw", "description", true, 2L));
+        inTransaction();
+        when(itemRepository.findNamesByOwnerIdAndNameIn(expectedUserId, Set.of("drill", "saw"))).thenReturn(List.of());
+        when(itemRequestRepository.findIdsByIdIn(Set.of(expectedRequestId, 2L))).thenReturn(List.of(expectedRequestId));
+        when(itemRepository.saveAll(anyCollection())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+        List<ItemBatchResultDto> results = itemService.addItems(itemDtos, expectedUserId);
+
+        assertEquals(List.of(
+                new ItemBatchResultDto(0, 100L, null),
+                new ItemBatchResultDto(1, null, "Request not found: 2")), results);
+        verify(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void addItems_whenMoreThanMaxSize_thenBadRequestExceptionThrown() {
+        ReflectionTestUtils.setField(itemService, "batchMaxSize", 1);
+
+        assertThrows(BadRequestException.class, () -> itemService.addItems(List.of(expectedDtoItem, updatedDtoItem),
+                expectedUserId));
+        verifyNoInteractions(userService, itemRepository, transactionTemplate);
+    }
+
+    private static DataIntegrityViolationException constraintViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), constraintName));
+    }
+
+    @Test
+    void addItems_whenUserNotExists_thenNotFoundExceptionThrown() {
+        doThrow(new NotFoundException("User not found!")).when(userService).requireExists(expectedUserId);
+
+        assertThrows(NotFoundException.class, () -> itemService.addItems(List.of(expectedDtoItem), expectedUserId));
+        verifyNoInteractions(itemRepository, transactionTemplate);
+    }
+
+    private void inTransaction() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static List<Item> assignIds(Collection<Item> items) {
+        long id = 100L;
+        for (Item item : items) {
+            item.setId(id++);
+        }
+
+        return new ArrayList<>(items);
+    }
+
     @Test
     void updateItem_whenItemFound_thenReturnedItem() {
         when(itemRepository.findById(expectedItemId)).thenReturn(Optional.ofNullable(expectedItem));
@@ -143,6 +289,8 @@ class ItemServiceTest {
         assertEquals(expectedItem, actualItem);
         verify(itemRepository).save(expectedItem);
         verify(itemRepository).findById(expectedItemId);
+        verify(itemSearchIndex).index(expectedItem);
+        verify(itemInfoCache).evict(expectedItemId);
     }
 
     @Test
@@ -182,10 +330,12 @@ class ItemServiceTest {
     void getAllUserItems_whenInvoked_thenReturnedListItems() {
         List<Item> userItems = List.of(expectedItem);
         when(itemRepository.findAllByOwner(expectedUserId)).thenReturn(userItems);
-        when(bookingRepository.findLastItemBooking(expectedItemId, workedStatuses, firstPage))
-                .thenReturn(Page.empty());
-        when(bookingRepository.findNextItemBooking(expectedItemId, workedStatuses, firstPage))
-                .thenReturn(Page.empty());
+        when(bookingRepository.findLastItemBookings(List.of(expectedItemId), workedStatuses))
+                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findNextItemBookings(List.of(expectedItemId), workedStatuses))
+                .thenReturn(Collections.emptyList());
+        when(commentRepository.findFirstCommentsByItemIds(List.of(expectedItemId), 3))
+                .thenReturn(Collections.emptyList());
 
         List<ItemInfoDto> actualUserItems = itemService.getAllUserItems(expectedUserId);
 
@@ -194,6 +344,32 @@ class ItemServiceTest {
         assertEquals(userItems.get(0).getAvailable(), actualUserItems.get(0).getAvailable());
     }
 
+    @Test
+    void getAllUserItems_whenItemsHaveBookingsAndComments_thenAllLoadedByItemIdList() {
+        expectedItem.setId(expectedItemId);
+        Booking nextBooking = new Booking(2L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                expectedItem, expectedUser2, BookingStatus.WAITING, 0L);
+        LocalDateTime created = LocalDateTime.now();
+        when(itemRepository.findAllByOwner(expectedUserId)).thenReturn(List.of(expectedItem));
+        when(bookingRepository.findLastItemBookings(List.of(expectedItemId), workedStatuses))
+                .thenReturn(List.of(expectedBooking));
+        when(bookingRepository.findNextItemBookings(List.of(expectedItemId), workedStatuses))
+                .thenReturn(List.of(nextBooking));
+        when(commentRepository.findFirstCommentsByItemIds(List.of(expectedItemId), 3))
+                .thenReturn(List.of(itemComment(1L, created), itemComment(2L, created), itemComment(3L, created)));
+
+        List<ItemInfoDto> actualUserItems = itemService.getAllUserItems(expectedUserId);
+
+        assertEquals(1, actualUserItems.size());
+        assertEquals(expectedBooking.getId(), actualUserItems.get(0).getLastBooking().getId());
+        assertEquals(nextBooking.getId(), actualUserItems.get(0).getNextBooking().getId());
+        assertEquals(2, actualUserItems.get(0).getComments().size());
+        assertEquals("comment1", actualUserItems.get(0).getComments().get(0).getText());
+        assertEquals(new CommentCursor(created, 2L).encode(), actualUserItems.get(0).getCommentsCursor());
+        verify(bookingRepository, never()).findLastItemBooking(any(), any(), any());
+        verify(bookingRepository, never()).findNextItemBooking(any(), any(), any());
+    }
+
     @Test
     void getAllUserItems_whenInvokedAndItemsNotExists_thenReturnedEmptyList() {
         when(itemRepository.findAllByOwner(expectedUserId)).thenReturn(Collections.emptyList());
@@ -215,6 +391,23 @@ class ItemServiceTest {
         verify(itemRepository).findById(expectedItemId);
     }
 
+    @Test
+    void getItemForUpdate_whenItemFound_thenReturnLockedItem() {
+        when(itemRepository.findByIdForUpdate(expectedItemId)).thenReturn(Optional.of(expectedItem));
+
+        Item actualItem = itemService.getItemForUpdate(expectedItemId);
+
+        assertEquals(expectedItem, actualItem);
+        verify(itemRepository, never()).findById(any());
+    }
+
+    @Test
+    void getItemForUpdate_whenItemNotFound_thenExceptionThrown() {
+        when(itemRepository.findByIdForUpdate(expectedItemId)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.getItemForUpdate(expectedItemId));
+    }
+
     @Test
     void getItem_whenItemNotFound_thenExceptionThrown() {
         when(itemRepository.findById(expectedItemId)).thenThrow(new NotFoundException("Item not found"));
@@ -235,32 +428,140 @@ class ItemServiceTest {
     void getItemsBySearch_whenPatternNotBlank_thenReturnedListOfItems() {
         String pattern = "pattern";
         List<Item> expectedItemsList = List.of(expectedItem);
-        when(itemRepository.findAllBySearch(pattern)).thenReturn(expectedItemsList);
+        when(itemRepository.findAllBySearch(pattern, new CommonPageRequest(0, 10))).thenReturn(expectedItemsList);
+
+        List<Item> actualItems = itemService.getItemsBySearch(pattern, expectedUserId, 0, 10);
+
+        assertEquals(expectedItemsList, actualItems);
+        verify(itemRepository).findAllBySearch(pattern, new CommonPageRequest(0, 10));
+        verify(itemRepository, never()).findAllBySearchRanked(any(), any());
+    }
+
+    @Test
+    void getItemsBySearch_whenTrigramEngine_thenRankedSearchUsed() {
+        String pattern = "pattern";
+        List<Item> expectedItemsList = List.of(expectedItem);
+        ReflectionTestUtils.setField(itemService, "searchEngine", ItemSearchEngine.TRIGRAM);
+        when(itemRepository.findAllBySearchRanked(pattern, new CommonPageRequest(0, 10))).thenReturn(expectedItemsList);
+
+        List<Item> actualItems = itemService.getItemsBySearch(pattern, expectedUserId, 0, 10);
+
+        assertEquals(expectedItemsList, actualItems);
+        verify(itemRepository, never()).findAllBySearch(any(), any());
+    }
+
+    @Test
+    void getItemsBySearch_whenMemoryEngine_thenDatabaseNotQueried() {
+        String pattern = "pattern";
+        List<Item> expectedItemsList = List.of(expectedItem);
+        ReflectionTestUtils.setField(itemService, "searchEngine", ItemSearchEngine.MEMORY);
+        when(itemSearchIndex.search(pattern, 0, 10)).thenReturn(expectedItemsList);
+
+        List<Item> actualItems = itemService.getItemsBySearch(pattern, expectedUserId, 0, 10);
+
+        assertEquals(expectedItemsList, actualItems);
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void getItemsBySearch_whenSizeAbsent_thenUnpaged() {
+        String pattern = "pattern";
+        List<Item> expectedItemsList = List.of(expectedItem);
+        when(itemRepository.findAllBySearch(pattern, Pageable.unpaged())).thenReturn(expectedItemsList);
+
+        List<Item> actualItems = itemService.getItemsBySearch(pattern, expectedUserId, 0, null);
+
+        assertEquals(expectedItemsList, actualItems);
+    }
+
+    @Test
+    void getItemsBySearch_whenMemoryEngineAndSizeAbsent_thenUnlimited() {
+        String pattern = "pattern";
+        List<Item> expectedItemsList = List.of(expectedItem);
+        ReflectionTestUtils.setField(itemService, "searchEngine", ItemSearchEngine.MEMORY);
+        when(itemSearchIndex.search(pattern, 0, Integer.MAX_VALUE)).thenReturn(expectedItemsList);
+
+        List<Item> actualItems = itemService.getItemsBySearch(pattern, expectedUserId, 0, null);
+
+        assertEquals(expectedItemsList, actualItems);
+    }
+
+    @Test
+    void getItemsBySearchAfter_whenPatternNotBlank_thenKeysetQueryUsed() {
+        String pattern = "pattern";
+        List<Item> expectedItemsList = List.of(expectedItem);
+        when(itemRepository.findAllBySearchAfter(pattern, 5L, PageRequest.of(0, 10))).thenReturn(expectedItemsList);
 
-        List<Item> actualItems = itemService.getItemsBySearch(pattern, expectedUserId);
+        List<Item> actualItems = itemService.getItemsBySearchAfter(pattern, expectedUserId, 5L, 10);
 
         assertEquals(expectedItemsList, actualItems);
-        verify(itemRepository).findAllBySearch(pattern);
+    }
+
+    @Test
+    void getItemsBySearchAfter_whenSizeAbsent_thenUnpaged() {
+        String pattern = "pattern";
+        List<Item> expectedItemsList = List.of(expectedItem);
+        when(itemRepository.findAllBySearchAfter(pattern, 5L, Pageable.unpaged())).thenReturn(expectedItemsList);
+
+        List<Item> actualItems = itemService.getItemsBySearchAfter(pattern, expectedUserId, 5L, null);
+
+        assertEquals(expectedItemsList, actualItems);
+    }
+
+    @Test
+    void getItemsBySearchAfter_whenPatternIsBlank_thenReturnedEmptyList() {
+        List<Item> actualItems = itemService.getItemsBySearchAfter(" ", expectedUserId, 5L, 10);
+
+        assertEquals(0, actualItems.size());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void streamItemsBySearch_whenInvoked_thenEveryItemPassedAndDetached() {
+        String pattern = "pattern";
+        EntityManager entityManager = mock(EntityManager.class);
+        ReflectionTestUtils.setField(itemService, "entityManager", entityManager);
+        when(itemRepository.streamAllBySearch(pattern)).thenReturn(Stream.of(expectedItem, updatedItem));
+        List<Item> streamed = new ArrayList<>();
+
+        itemService.streamItemsBySearch(pattern, expectedUserId, streamed::add);
+
+        assertEquals(List.of(expectedItem, updatedItem), streamed);
+        verify(entityManager).detach(expectedItem);
+        verify(entityManager).detach(updatedItem);
+    }
+
+    @Test
+    void streamItemsBySearch_whenMemoryEngine_thenIndexUsed() {
+        String pattern = "pattern";
+        ReflectionTestUtils.setField(itemService, "searchEngine", ItemSearchEngine.MEMORY);
+        when(itemSearchIndex.searchAfter(pattern, 0L, Integer.MAX_VALUE)).thenReturn(List.of(expectedItem));
+        List<Item> streamed = new ArrayList<>();
+
+        itemService.streamItemsBySearch(pattern, expectedUserId, streamed::add);
+
+        assertEquals(List.of(expectedItem), streamed);
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
     void getItemsBySearch_whenPatternIsBlank_thenReturnedEmptyList() {
         String pattern = "";
 
-        List<Item> actualItems = itemService.getItemsBySearch(pattern, expectedUserId);
+        List<Item> actualItems = itemService.getItemsBySearch(pattern, expectedUserId, 0, 10);
 
         assertEquals(0, actualItems.size());
-        verify(itemRepository, never()).findAllBySearch(pattern);
+        verify(itemRepository, never()).findAllBySearch(any(), any());
     }
 
     @Test
     void getItemWithBookings_whenItemExists_thenReturnedItemInfoDto() {
         when(itemRepository.findById(expectedItemId)).thenReturn(Optional.of(expectedItem));
-        when(commentRepository.findAllCommentsByItemId(expectedItemId)).thenReturn(Collections.emptyList());
+        when(commentRepository.findCommentsByItemId(expectedItemId, commentsPage)).thenReturn(Collections.emptyList());
         when(bookingRepository.findLastItemBooking(expectedItemId, workedStatuses, firstPage))
-                .thenReturn(Page.empty());
+                .thenReturn(Collections.emptyList());
         when(bookingRepository.findNextItemBooking(expectedItemId, workedStatuses, firstPage))
-                .thenReturn(Page.empty());
+                .thenReturn(Collections.emptyList());
 
         ItemInfoDto actualItemDtoInfo = itemService.getItemWithBookings(expectedItemId, expectedUserId);
 
@@ -268,18 +569,43 @@ class ItemServiceTest {
         assertEquals(expectedItem.getDescription(), actualItemDtoInfo.getDescription());
         assertEquals(expectedItem.getAvailable(), actualItemDtoInfo.getAvailable());
         verify(itemRepository).findById(expectedItemId);
-        verify(commentRepository).findAllCommentsByItemId(expectedItemId);
+        verify(commentRepository).findCommentsByItemId(expectedItemId, commentsPage);
         verifyNoMoreInteractions(bookingRepository, commentRepository, itemRepository);
     }
 
+    @Test
+    void getItemWithBookings_whenCached_thenRepositoriesNotQueried() {
+        ItemInfoDto cachedItemInfo = ItemMapper.toItemInfoDto(expectedItem, Collections.emptyList(), null, null);
+        when(itemInfoCache.get(expectedItemId, expectedUserId)).thenReturn(cachedItemInfo);
+
+        ItemInfoDto actualItemDtoInfo = itemService.getItemWithBookings(expectedItemId, expectedUserId);
+
+        assertEquals(cachedItemInfo, actualItemDtoInfo);
+        verifyNoInteractions(itemRepository, bookingRepository, commentRepository);
+    }
+
+    @Test
+    void getItemWithBookings_whenNotCached_thenAssembledAndCached() {
+        when(itemRepository.findById(expectedItemId)).thenReturn(Optional.of(expectedItem));
+        when(commentRepository.findCommentsByItemId(expectedItemId, commentsPage)).thenReturn(Collections.emptyList());
+        when(bookingRepository.findLastItemBooking(expectedItemId, workedStatuses, firstPage))
+                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findNextItemBooking(expectedItemId, workedStatuses, firstPage))
+                .thenReturn(List.of(expectedBooking));
+
+        ItemInfoDto actualItemDtoInfo = itemService.getItemWithBookings(expectedItemId, expectedUserId);
+
+        verify(itemInfoCache).put(expectedItem, expectedUserId, actualItemDtoInfo, expectedBooking, 0L);
+    }
+
     @Test
     void getItemWithBookings_whenItemExistsAndBookingExists_thenReturnedItemInfoDto() {
         when(itemRepository.findById(expectedItemId)).thenReturn(Optional.of(expectedItem));
-        when(commentRepository.findAllCommentsByItemId(expectedItemId)).thenReturn(Collections.emptyList());
+        when(commentRepository.findCommentsByItemId(expectedItemId, commentsPage)).thenReturn(Collections.emptyList());
         when(bookingRepository.findLastItemBooking(expectedItemId, workedStatuses, firstPage))
-                .thenReturn(new PageImpl<>(List.of(expectedBooking), firstPage, 1));
+                .thenReturn(List.of(expectedBooking));
         when(bookingRepository.findNextItemBooking(expectedItemId, workedStatuses, firstPage))
-                .thenReturn(new PageImpl<>(List.of(expectedBooking), firstPage, 1));
+                .thenReturn(List.of(expectedBooking));
 
         ItemInfoDto actualItemDtoInfo = itemService.getItemWithBookings(expectedItemId, expectedUserId);
 
@@ -287,10 +613,77 @@ class ItemServiceTest {
         assertEquals(expectedItem.getDescription(), actualItemDtoInfo.getDescription());
         assertEquals(expectedItem.getAvailable(), actualItemDtoInfo.getAvailable());
         verify(itemRepository).findById(expectedItemId);
-        verify(commentRepository).findAllCommentsByItemId(expectedItemId);
+        verify(commentRepository).findCommentsByItemId(expectedItemId, commentsPage);
         verifyNoMoreInteractions(bookingRepository, commentRepository, itemRepository);
     }
 
+    @Test
+    void getItemWithBookings_whenCommentsCached_thenCommentsNotQueried() {
+        List<ItemInfoDto.CommentDto> cachedComments = List.of(
+                new ItemInfoDto.CommentDto(1L, "comment1", "user2", LocalDateTime.now()));
+        when(itemRepository.findById(expectedItemId)).thenReturn(Optional.of(expectedItem));
+        when(itemCommentCache.get(expectedItemId)).thenReturn(Optional.of(cachedComments));
+
+        ItemInfoDto actualItemDtoInfo = itemService.getItemWithBookings(expectedItemId, expectedUserId2);
+
+        assertEquals(cachedComments, actualItemDtoInfo.getComments());
+        assertNull(actualItemDtoInfo.getCommentsCursor());
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void getItemWithBookings_whenMoreCommentsThanPage_thenCommentsCappedWithCursor() {
+        LocalDateTime created = LocalDateTime.now();
+        List<ItemInfoDto.CommentDto> comments = List.of(
+                new ItemInfoDto.CommentDto(1L, "comment1", "user2", created),
+                new ItemInfoDto.CommentDto(2L, "comment2", "user2", created),
+                new ItemInfoDto.CommentDto(3L, "comment3", "user2", created));
+        when(itemRepository.findById(expectedItemId)).thenReturn(Optional.of(expectedItem));
+        when(commentRepository.findCommentsByItemId(expectedItemId, commentsPage)).thenReturn(comments);
+
+        ItemInfoDto actualItemDtoInfo = itemService.getItemWithBookings(expectedItemId, expectedUserId2);
+
+        assertEquals(comments.subList(0, 2), actualItemDtoInfo.getComments());
+        assertEquals(new CommentCursor(created, 2L), CommentCursor.decode(actualItemDtoInfo.getCommentsCursor()));
+        verify(itemCommentCache).put(expectedItemId, comments, 0L);
+    }
+
+    @Test
+    void getComments_whenCursorGiven_thenSeekFromCursorPosition() {
+        CommentCursor cursor = new CommentCursor(LocalDateTime.now(), 2L);
+        Slice<ItemInfoDto.CommentDto> expectedComments = new SliceImpl<>(Collections.emptyList());
+        when(commentRepository.findCommentsByItemIdAfter(expectedItemId, cursor.getCreated(), cursor.getId(),
+                PageRequest.of(0, 10))).thenReturn(expectedComments);
+
+        Slice<ItemInfoDto.CommentDto> actualComments = itemService.getComments(expectedItemId, expectedUserId,
+                cursor.encode(), 10);
+
+        assertEquals(expectedComments, actualComments);
+    }
+
+    @Test
+    void getComments_whenCursorIsInvalid_thenExceptionThrown() {
+        assertThrows(BadRequestException.class,
+                () -> itemService.getComments(expectedItemId, expectedUserId, "not a cursor", 10));
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void getItemWithBookings_whenTimelineEnabled_thenBookingsNotQueried() {
+        Booking nextBooking = new Booking(2L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                expectedItem, expectedUser2, BookingStatus.WAITING, 0L);
+        when(itemRepository.findById(expectedItemId)).thenReturn(Optional.of(expectedItem));
+        when(itemBookingTimeline.isEnabled()).thenReturn(true);
+        when(itemBookingTimeline.getLast(eq(expectedItemId), any())).thenReturn(Optional.of(expectedBooking));
+        when(itemBookingTimeline.getNext(eq(expectedItemId), any())).thenReturn(Optional.of(nextBooking));
+
+        ItemInfoDto actualItemDtoInfo = itemService.getItemWithBookings(expectedItemId, expectedUserId);
+
+        assertEquals(expectedBooking.getId(), actualItemDtoInfo.getLastBooking().getId());
+        assertEquals(nextBooking.getId(), actualItemDtoInfo.getNextBooking().getId());
+        verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void getItemWithBookings_whenItemNotExist_thenNotFoundExceptionThrown() {
         when(itemRepository.findById(expectedItemId)).thenThrow(new NotFoundException("Item not found!"));
@@ -314,7 +707,7 @@ class ItemServiceTest {
     @Test
     void getItemWithBookings_whenItemExistAndUserNotOwner_thenReturnedItemInfoDto() {
         when(itemRepository.findById(expectedItemId)).thenReturn(Optional.of(expectedItem));
-        when(commentRepository.findAllCommentsByItemId(expectedItemId)).thenReturn(Collections.emptyList());
+        when(commentRepository.findCommentsByItemId(expectedItemId, commentsPage)).thenReturn(Collections.emptyList());
 
         ItemInfoDto actualItemDtoInfo = itemService.getItemWithBookings(expectedItemId, expectedUserId2);
 
@@ -323,14 +716,16 @@ class ItemServiceTest {
         assertEquals(expectedItem.getAvailable(), actualItemDtoInfo.getAvailable());
         verify(itemRepository).findById(expectedItemId);
         verifyNoInteractions(bookingRepository);
-        verify(commentRepository).findAllCommentsByItemId(expectedItemId);
+        verify(commentRepository).findCommentsByItemId(expectedItemId, commentsPage);
     }
 
     @Test
     void addCommentItem_whenBookingFinished_thenAddComment() {
-        when(userService.getUser(expectedUserId)).thenReturn(new User());
+        Comment savedComment = new Comment(1L, "commentText", expectedItem, expectedUser, LocalDateTime.now());
+        when(userService.getUserReference(expectedUserId)).thenReturn(expectedUser);
         when(bookingRepository.findLastFinishedBookingByItemIdAndUserId(expectedItemId, expectedUserId,BookingStatus.APPROVED,
-                firstPage)).thenReturn(new PageImpl<>(List.of(expectedBooking), firstPage, 1));
+                firstPage)).thenReturn(List.of(expectedBooking));
+        when(commentRepository.save(any())).thenReturn(savedComment);
 
         itemService.addCommentItem(expectedCommentDto, expectedItemId, expectedUserId);
 
@@ -338,11 +733,13 @@ class ItemServiceTest {
         Comment actualComment = commentArgumentCaptor.getValue();
         assertEquals(expectedCommentDto.getText(), actualComment.getText());
         assertEquals(expectedCommentDto.hashCode(), ItemMapper.toCommentDto(actualComment).hashCode());
+        verify(itemInfoCache).evict(expectedItemId);
+        verify(itemCommentCache).append(eq(expectedItemId), any(), eq(3));
     }
 
     @Test
     void addCommentItem_whenUserNotExists_thenNotFoundExceptionThrown() {
-        when(userService.getUser(expectedUserId)).thenThrow(new NotFoundException("User not found!"));
+        when(userService.getUserReference(expectedUserId)).thenThrow(new NotFoundException("User not found!"));
 
         assertThrows(NotFoundException.class, () ->
                 itemService.addCommentItem(expectedCommentDto, expectedItemId, expectedUserId));
@@ -351,9 +748,9 @@ class ItemServiceTest {
 
     @Test
     void addCommentItem_whenBookingNotExists_thenBadRequestExceptionThrown() {
-        when(userService.getUser(expectedUserId)).thenReturn(new User());
+        when(userService.getUserReference(expectedUserId)).thenReturn(new User());
         when(bookingRepository.findLastFinishedBookingByItemIdAndUserId(expectedItemId, expectedUserId,BookingStatus.APPROVED,
-                firstPage)).thenReturn(Page.empty());
+                firstPage)).thenReturn(Collections.emptyList());
 
         assertThrows(BadRequestException.class, () ->
                 itemService.addCommentItem(expectedCommentDto, expectedItemId, expectedUserId));
@@ -361,4 +758,13 @@ class ItemServiceTest {
         verify(bookingRepository).findLastFinishedBookingByItemIdAndUserId(expectedItemId, expectedUserId,BookingStatus.APPROVED,
                 firstPage);
     }
-}
\ No newline at end of file
+
+    private CommentRepository.ItemComment itemComment(Long id, LocalDateTime created) {
+        return new SpelAwareProxyProjectionFactory().createProjection(CommentRepository.ItemComment.class, Map.of(
+                "itemId", expectedItemId,
+                "id", id,
+                "text", "comment" + id,
+                "authorName", expectedUser2.getName(),
+                "created", created));
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
 import ru.practicum.shareit.user.User;
@@ -53,7 +54,7 @@ class ItemRequestControllerIT {
         expectedItemRequestDto = new ItemRequestDto(expectedItemRequestId, "request1", LocalDateTime.now());
         expectedItemRequest = ItemRequestMapper.toItemRequest(expectedItemRequestDto, expectedUserId);
         expectedItem  = new Item(expectedItemId, "itemName1", "itemDescription1", true, expectedUser, expectedItemRequest);
-        expectedItemRequestInfoDto = ItemRequestMapper.toItemRequestDtoInfo(expectedItemRequest, List.of(expectedItem));
+        expectedItemRequestInfoDto = ItemRequestMapper.toItemRequestDtoInfo(expectedItemRequest, List.of(ItemMapper.toItemDto(expectedItem)));
     }
 
     @SneakyThrows
@@ -10,6 +10,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
 import ru.practicum.shareit.user.User;
@@ -45,7 +46,7 @@ class ItemRequestControllerTest {
         expectedItemRequestDto = new ItemRequestDto(expectedItemRequestId, "request1", LocalDateTime.now());
         expectedItemRequest = ItemRequestMapper.toItemRequest(expectedItemRequestDto, expectedUserId);
         expectedItem  = new Item(expectedItemId, "itemName1", "itemDescription1", true, expectedUser, expectedItemRequest);
-        expectedItemRequestInfoDto = ItemRequestMapper.toItemRequestDtoInfo(expectedItemRequest, List.of(expectedItem));
+        expectedItemRequestInfoDto = ItemRequestMapper.toItemRequestDtoInfo(expectedItemRequest, List.of(ItemMapper.toItemDto(expectedItem)));
     }
 
     @Test
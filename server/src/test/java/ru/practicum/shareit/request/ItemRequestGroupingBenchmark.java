@@ -0,0 +1,98 @@
+package ru.practicum.shareit.request;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares per-request filtering of the item list with grouping items by request id once.
+ * Run explicitly: mvn test -Dtest=ItemRequestGroupingBenchmark
+ */
+@Slf4j
+class ItemRequestGroupingBenchmark {
+
+    private static final int ITERATIONS = 5;
+    private static final int[][] SIZES = {{1_000, 4_000}, {5_000, 20_000}, {10_000, 40_000}};
+
+    @Test
+    void grouping() {
+        for (int[] size : SIZES) {
+            List<ItemRequest> requests = new ArrayList<>();
+            List<Item> items = new ArrayList<>();
+            for (long requestId = 1; requestId <= size[0]; requestId++) {
+                requests.add(ItemRequest.builder()
+                        .id(requestId)
+                        .description("request" + requestId)
+                        .created(LocalDateTime.now())
+                        .build());
+            }
+            for (long itemId = 1; itemId <= size[1]; itemId++) {
+                items.add(Item.builder()
+                        .id(itemId)
+                        .name("item" + itemId)
+                        .description("description" + itemId)
+                        .available(true)
+                        .request(requests.get((int) (itemId % size[0])))
+                        .build());
+            }
+            List<ItemDto> itemDtos = items.stream().map(item -> ItemMapper.toItemDto(item)).collect(Collectors.toList());
+
+            long filtered = millis(() -> filtered(requests, items));
+            long grouped = millis(() -> grouped(requests, itemDtos));
+
+            log.info(String.format("%6d requests x %6d items: filter %6d ms, grouping %4d ms",
+                    size[0], size[1], filtered, grouped));
+            assertEquals(itemCount(filtered(requests, items)), itemCount(grouped(requests, itemDtos)));
+        }
+    }
+
+    private static List<ItemRequestInfoDto> filtered(List<ItemRequest> requests, List<Item> items) {
+        return requests
+                .stream()
+                .map(itemRequest -> ItemRequestMapper.toItemRequestDtoInfo(itemRequest, items
+                        .stream()
+                        .filter(f -> f.getRequest().getId().equals(itemRequest.getId()))
+                        .map(item -> ItemMapper.toItemDto(item))
+                        .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+    }
+
+    private static List<ItemRequestInfoDto> grouped(List<ItemRequest> requests, List<ItemDto> items) {
+        Map<Long, List<ItemDto>> itemsByRequestId = items
+                .stream()
+                .collect(Collectors.groupingBy(item -> item.getRequestId()));
+
+        return requests
+                .stream()
+                .map(itemRequest -> ItemRequestMapper.toItemRequestDtoInfo(itemRequest,
+                        itemsByRequestId.getOrDefault(itemRequest.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+
+    private static long itemCount(List<ItemRequestInfoDto> requests) {
+        return requests.stream().mapToLong(request -> request.getItems().size()).sum();
+    }
+
+    private static long millis(Supplier<List<ItemRequestInfoDto>> call) {
+        call.get();
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+        }
+
+        return (System.nanoTime() - started) / ITERATIONS / 1_000_000;
+    }
+}
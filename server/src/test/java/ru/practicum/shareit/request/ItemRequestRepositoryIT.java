@@ -4,7 +4,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.Item;
@@ -79,7 +78,7 @@ class ItemRequestRepositoryIT {
     @Test
     void findAllRequestWithItemsByNotUserId() {
         long userId = 2L;
-        Page<ItemRequest> actualItemRequests = itemRequestRepository.findAllRequestWithItemsByNotUserId(userId, PageRequest.of(0,1));
+        List<ItemRequest> actualItemRequests = itemRequestRepository.findAllRequestWithItemsByNotUserId(userId, PageRequest.of(0,1));
 
         assertTrue(!actualItemRequests.isEmpty());
         assertEquals(1, actualItemRequests.stream().count());
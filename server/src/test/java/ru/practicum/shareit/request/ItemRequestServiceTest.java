@@ -8,16 +8,18 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import ru.practicum.shareit.CommonPageRequest;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -55,12 +57,11 @@ class ItemRequestServiceTest {
         expectedItemRequestId = 1L;
         expectedItemRequest = new ItemRequest(expectedItemRequestId, "request1", expectedUser, LocalDateTime.now());
         expectedItem = new Item(1L, "nameItem1", "descriptionItem1", true, expectedUser, expectedItemRequest);
-        expectedItemRequestInfoDto = ItemRequestMapper.toItemRequestDtoInfo(expectedItemRequest,List.of(expectedItem));
+        expectedItemRequestInfoDto = ItemRequestMapper.toItemRequestDtoInfo(expectedItemRequest, List.of(ItemMapper.toItemDto(expectedItem)));
     }
 
     @Test
     void addItemRequest_whenInvoked_thenReturnedItemRequest() {
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(itemRequestRepository.save(expectedItemRequest)).thenReturn(expectedItemRequest);
 
         ItemRequest actualItemRequest = itemRequestService.addRequest(expectedItemRequest);
@@ -72,7 +73,7 @@ class ItemRequestServiceTest {
 
     @Test
     void addItemRequest_whenUserNotExists_thenNotFoundExceptionThrown() {
-        when(userService.getUser(expectedUserId)).thenThrow(new NotFoundException("User not found!"));
+        doThrow(new NotFoundException("User not found!")).when(userService).requireExists(expectedUserId);
 
         assertThrows(NotFoundException.class, () -> itemRequestService.addRequest(expectedItemRequest));
         verify(itemRequestRepository, never()).save(expectedItemRequest);
@@ -81,9 +82,8 @@ class ItemRequestServiceTest {
     @Test
     void getAllUserRequests_whenInvoked_thenReturnedItemRequestsList() {
         List<ItemRequest> itemRequestList = List.of(expectedItemRequest);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(itemRequestRepository.findAllRequestWithItemsByUserId(expectedUserId)).thenReturn(itemRequestList);
-        when(itemRepository.findAllByRequestIdList(List.of(1L))).thenReturn(List.of(expectedItem));
+        when(itemRepository.findAllByRequestIdList(List.of(1L))).thenReturn(List.of(ItemMapper.toItemDto(expectedItem)));
 
         List<ItemRequestInfoDto> actualItemRequestList = itemRequestService.getAllUserRequests(expectedUserId);
 
@@ -92,9 +92,34 @@ class ItemRequestServiceTest {
         verify(itemRequestRepository).findAllRequestWithItemsByUserId(expectedUserId);
     }
 
+    @Test
+    void getAllUserRequests_whenItemsForSomeRequests_thenItemsGroupedByRequest() {
+        ItemRequest otherItemRequest = new ItemRequest(2L, "request2", expectedUser, LocalDateTime.now());
+        ItemDto secondItem = new ItemDto(2L, "nameItem2", "descriptionItem2", true, expectedItemRequestId);
+        when(itemRequestRepository.findAllRequestWithItemsByUserId(expectedUserId))
+                .thenReturn(List.of(expectedItemRequest, otherItemRequest));
+        when(itemRepository.findAllByRequestIdList(List.of(1L, 2L)))
+                .thenReturn(List.of(ItemMapper.toItemDto(expectedItem), secondItem));
+
+        List<ItemRequestInfoDto> actualItemRequestList = itemRequestService.getAllUserRequests(expectedUserId);
+
+        assertEquals(List.of(ItemMapper.toItemDto(expectedItem), secondItem), actualItemRequestList.get(0).getItems());
+        assertEquals(Collections.emptyList(), actualItemRequestList.get(1).getItems());
+    }
+
+    @Test
+    void getAllUserRequests_whenNoRequests_thenItemsNotQueried() {
+        when(itemRequestRepository.findAllRequestWithItemsByUserId(expectedUserId)).thenReturn(Collections.emptyList());
+
+        List<ItemRequestInfoDto> actualItemRequestList = itemRequestService.getAllUserRequests(expectedUserId);
+
+        assertEquals(Collections.emptyList(), actualItemRequestList);
+        verifyNoInteractions(itemRepository);
+    }
+
     @Test
     void getAllUserRequests_whenUserNotFound_thenExceptionThrown() {
-        when(userService.getUser(expectedUserId)).thenThrow(new NotFoundException("User not found!"));
+        doThrow(new NotFoundException("User not found!")).when(userService).requireExists(expectedUserId);
 
         assertThrows(NotFoundException.class, () -> itemRequestService.getAllUserRequests(expectedUserId));
         verifyNoInteractions(itemRequestRepository, itemRepository);
@@ -104,10 +129,9 @@ class ItemRequestServiceTest {
     void getAllOtherUsersRequests_whenInvoked_thenReturnedItemRequestsList() {
         List<ItemRequest> itemRequestList = List.of(expectedItemRequest);
         CommonPageRequest firstPage = new CommonPageRequest(0, 1);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(itemRequestRepository.findAllRequestWithItemsByNotUserId(expectedUserId, firstPage))
-                .thenReturn(new PageImpl<>(List.of(expectedItemRequest), firstPage, 1));
-        when(itemRepository.findAllByRequestIdList(List.of(1L))).thenReturn(List.of(expectedItem));
+                .thenReturn(List.of(expectedItemRequest));
+        when(itemRepository.findAllByRequestIdList(List.of(1L))).thenReturn(List.of(ItemMapper.toItemDto(expectedItem)));
 
         List<ItemRequestInfoDto> actualItemRequestList = itemRequestService.getAllOtherUsersRequests(expectedUserId,0,1);
 
@@ -120,10 +144,9 @@ class ItemRequestServiceTest {
     void getAllOtherUsersRequests_whenInvokedAndSizeIsNull_thenReturnedItemRequestsList() {
         List<ItemRequest> itemRequestList = List.of(expectedItemRequest);
         CommonPageRequest firstPage = new CommonPageRequest(0, 1);
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(itemRequestRepository.findAllRequestWithItemsByNotUserId(expectedUserId, firstPage))
-                .thenReturn(new PageImpl<>(List.of(expectedItemRequest), firstPage, 1));
-        when(itemRepository.findAllByRequestIdList(List.of(1L))).thenReturn(List.of(expectedItem));
+                .thenReturn(List.of(expectedItemRequest));
+        when(itemRepository.findAllByRequestIdList(List.of(1L))).thenReturn(List.of(ItemMapper.toItemDto(expectedItem)));
 
         List<ItemRequestInfoDto> actualItemRequestList = itemRequestService.getAllOtherUsersRequests(expectedUserId,0,1);
 
@@ -134,9 +157,8 @@ class ItemRequestServiceTest {
 
     @Test
     void getRequestById_whenInvoked_thenReturnedItemRequest() {
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(itemRequestRepository.findById(expectedItemRequestId)).thenReturn(Optional.of(expectedItemRequest));
-        when(itemRepository.findAllByRequestIdList(List.of(1L))).thenReturn(List.of(expectedItem));
+        when(itemRepository.findAllByRequestIdList(List.of(1L))).thenReturn(List.of(ItemMapper.toItemDto(expectedItem)));
 
         ItemRequestInfoDto actualItemRequest = itemRequestService.getRequestById(expectedItemRequestId, expectedUserId);
 
@@ -147,7 +169,7 @@ class ItemRequestServiceTest {
 
     @Test
     void getRequestById_whenUserNotFound_thenExceptionThrown() {
-        when(userService.getUser(expectedUserId)).thenThrow(new NotFoundException("User not found!"));
+        doThrow(new NotFoundException("User not found!")).when(userService).requireExists(expectedUserId);
 
         assertThrows(NotFoundException.class, () -> itemRequestService.getRequestById(expectedItemRequestId, expectedUserId));
         verifyNoInteractions(itemRepository, itemRequestRepository);
@@ -155,7 +177,6 @@ class ItemRequestServiceTest {
 
     @Test
     void getRequestById_whenItemNotFound_thenExceptionThrown() {
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
         when(itemRequestRepository.findById(expectedItemRequestId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemRequestService.getRequestById(expectedItemRequestId, expectedUserId));
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.sql;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SqlStatisticsDataSourcePostProcessorTest {
+
+    private final SqlStatisticsDataSourcePostProcessor postProcessor = new SqlStatisticsDataSourcePostProcessor();
+
+    @SneakyThrows
+    @Test
+    void postProcess_whenPoolWrapped_thenPoolClosedWithWrapper() {
+        HikariDataSource pool = mock(HikariDataSource.class);
+
+        Object wrapped = postProcessor.postProcessAfterInitialization(pool, "dataSource");
+
+        assertTrue(wrapped instanceof Closeable);
+        assertSame(wrapped, postProcessor.postProcessAfterInitialization(wrapped, "dataSource"));
+        ((Closeable) wrapped).close();
+        verify(pool).close();
+    }
+
+    @SneakyThrows
+    @Test
+    void getConnection_whenStatementExecuted_thenStatementAndRowsCounted() {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("select 1")).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, false);
+        DataSource dataSource = (DataSource) postProcessor.postProcessAfterInitialization(target, "dataSource");
+
+        SqlStatistics.start();
+        ResultSet rows = dataSource.getConnection().prepareStatement("select 1").executeQuery();
+        while (rows.next()) {
+            assertNotSame(resultSet, rows);
+        }
+        SqlStatistics statistics = SqlStatistics.stop();
+
+        assertEquals(1, statistics.getStatements());
+        assertEquals(2, statistics.getRows());
+    }
+
+    @Test
+    void postProcess_whenNotDataSource_thenReturnedUnchanged() {
+        Object bean = new Object();
+
+        assertSame(bean, postProcessor.postProcessAfterInitialization(bean, "bean"));
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SqlStatisticsFilterTest {
+
+    private static final String ENDPOINT = "GET /items/{itemId}";
+
+    private SqlStatisticsProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatisticsFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SqlStatisticsProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new SqlStatisticsFilter(properties, meterRegistry);
+        request = new MockHttpServletRequest("GET", "/items/1");
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items/{itemId}");
+            SqlStatistics.statement(2_000_000);
+            SqlStatistics.row();
+            SqlStatistics.row();
+            SqlStatistics.statement(1_000_000);
+            res.getWriter().write("{}");
+        };
+    }
+
+    @SneakyThrows
+    @Test
+    void doFilter_whenHeadersEnabled_thenStatisticsInHeadersAndBodyKept() {
+        properties.setHeaders(true);
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals("2", response.getHeader(SqlStatisticsFilter.STATEMENTS_HEADER));
+        assertEquals("2", response.getHeader(SqlStatisticsFilter.ROWS_HEADER));
+        assertEquals("3", response.getHeader(SqlStatisticsFilter.TIME_HEADER));
+        assertEquals("{}", response.getContentAsString());
+    }
+
+    @SneakyThrows
+    @Test
+    void doFilter_whenOuterFilterCachesBody_thenBodyLeftForIt() {
+        properties.setHeaders(true);
+        ContentCachingResponseWrapper outer = new ContentCachingResponseWrapper(response);
+
+        filter.doFilter(request, outer, chain);
+
+        assertEquals("2", outer.getHeader(SqlStatisticsFilter.STATEMENTS_HEADER));
+        assertEquals("", response.getContentAsString());
+        assertEquals("{}", new String(outer.getContentAsByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @SneakyThrows
+    @Test
+    void doFilter_whenHeadersDisabled_thenNoHeaders() {
+        filter.doFilter(request, response, chain);
+
+        assertNull(response.getHeader(SqlStatisticsFilter.STATEMENTS_HEADER));
+        assertEquals("{}", response.getContentAsString());
+    }
+
+    @SneakyThrows
+    @Test
+    void doFilter_whenInvoked_thenHistogramsTaggedByEndpoint() {
+        filter.doFilter(request, response, chain);
+
+        assertEquals(2.0, meterRegistry.get("shareit.sql.statements").tag("endpoint", ENDPOINT).summary().totalAmount());
+        assertEquals(2.0, meterRegistry.get("shareit.sql.rows").tag("endpoint", ENDPOINT).summary().totalAmount());
+        assertEquals(1, meterRegistry.get("shareit.sql.time").tag("endpoint", ENDPOINT).timer().count());
+    }
+
+    @SneakyThrows
+    @Test
+    void doFilter_whenInvokedOutsideRequest_thenNothingCollected() {
+        filter.doFilter(request, response, chain);
+        SqlStatistics.statement(1_000_000);
+
+        assertNull(SqlStatistics.stop());
+    }
+
+    @Test
+    void getBudget_whenEndpointConfigured_thenEndpointBudgetElseDefault() {
+        properties.setBudgets(Map.of(ENDPOINT, 3));
+
+        assertEquals(3, properties.getBudget(ENDPOINT));
+        assertEquals(10, properties.getBudget("GET /users"));
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.sql;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "sql.statistics.headers=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class SqlStatisticsIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SqlStatisticsProperties properties;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @SneakyThrows
+    @Test
+    void getUser_whenInvoked_thenSqlStatisticsReported() {
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"user\",\"email\":\"sql-statistics@email.ru\"}"))
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals("1", result.getResponse().getHeader(SqlStatisticsFilter.STATEMENTS_HEADER));
+        assertTrue(Long.parseLong(result.getResponse().getHeader(SqlStatisticsFilter.ROWS_HEADER)) >= 1);
+        assertEquals(1.0, meterRegistry.get("shareit.sql.statements").tag("endpoint", "GET /users").summary().totalAmount());
+    }
+
+    @Test
+    void budgets_whenConfiguredPerEndpoint_thenBound() {
+        assertEquals(6, properties.getBudget("GET /items/{itemId}"));
+        assertEquals(10, properties.getBudget("GET /users"));
+    }
+
+    @SneakyThrows
+    @Test
+    void dataSource_whenWrapped_thenPoolStillClosableAndUnwrappable() {
+        assertTrue(dataSource instanceof Closeable);
+        assertTrue(dataSource.isWrapperFor(HikariDataSource.class));
+        assertNotNull(meterRegistry.find("hikaricp.connections").gauge());
+    }
+}
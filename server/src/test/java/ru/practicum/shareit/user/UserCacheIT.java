@@ -0,0 +1,89 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.CacheConfig;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class UserCacheIT {
+
+    @Autowired
+    private UserService userService;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.USERS).clear();
+        user = userService.saveUser(new UserDto(null, "user", "user" + System.nanoTime() + "@email.ru"));
+        clearInvocations(userRepository);
+    }
+
+    @Test
+    void getUser_whenInvokedTwice_thenLoadedOnce() {
+        userService.getUser(user.getId());
+        UserInfo actualUser = userService.getUser(user.getId());
+
+        assertEquals(UserInfo.of(user), actualUser);
+        verify(userRepository, times(1)).findById(user.getId());
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", CacheConfig.USERS).tag("result", "hit")
+                .functionCounter().count() >= 1);
+    }
+
+    @Test
+    void getUser_whenUserUpdated_thenReloaded() {
+        userService.getUser(user.getId());
+
+        userService.updateUser(new UserDto(null, "updated", null), user.getId());
+        UserInfo actualUser = userService.getUser(user.getId());
+
+        assertEquals("updated", actualUser.getName());
+        verify(userRepository, times(3)).findById(user.getId());
+    }
+
+    @Test
+    void getUser_whenUserDeleted_thenNotFoundExceptionThrown() {
+        userService.getUser(user.getId());
+
+        userService.deleteUser(user.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.getUser(user.getId()));
+    }
+
+    @Test
+    void requireExists_whenUserCached_thenStillCheckedInDatabase() {
+        userService.getUser(user.getId());
+
+        userService.requireExists(user.getId());
+        verify(userRepository).existsById(user.getId());
+
+        userRepository.deleteById(user.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.requireExists(user.getId()));
+    }
+}
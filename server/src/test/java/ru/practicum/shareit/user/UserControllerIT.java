@@ -77,7 +77,7 @@ class UserControllerIT {
     @SneakyThrows
     @Test
     void updateUser_whenUserIsValid_thenReturnedOk() {
-        when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
+        when(userService.getUser(expectedUserId)).thenReturn(UserInfo.of(expectedUser));
         when(userService.updateUser(expectedDtoUser, expectedUserId)).thenReturn(expectedUser);
 
         String result = mockMvc.perform(patch("/users/{userId}", expectedUserId)
@@ -105,7 +105,7 @@ class UserControllerIT {
     @SneakyThrows
     @Test
     void getUser_whenUserIdValid_thenReturnedOk() {
-        when(userService.getUser(expectedUserId)).thenReturn(new User());
+        when(userService.getUser(expectedUserId)).thenReturn(UserInfo.of(new User()));
 
         mockMvc.perform(get("/users/{userId}", expectedUserId))
                 .andDo(print())
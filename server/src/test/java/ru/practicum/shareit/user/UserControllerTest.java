@@ -56,7 +56,7 @@ class UserControllerTest {
 
     @Test
     void getUser_whenInvoked_thenResponseStatusOkWithUserInBody() {
-        Mockito.when(userService.getUser(expectedUserId)).thenReturn(expectedUser);
+        Mockito.when(userService.getUser(expectedUserId)).thenReturn(UserInfo.of(expectedUser));
 
         ResponseEntity<UserDto> response = userController.getUser(expectedUserId);
 
@@ -7,8 +7,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import ru.practicum.shareit.CacheConfig;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -24,6 +28,10 @@ class UserServiceTest {
 
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Spy
+    private UserInfoCache userInfoCache = new UserInfoCache(new CaffeineCacheManager(CacheConfig.USERS));
     private Long expectedUserId;
     private UserDto expectedDtoUser;
     private User expectedUser;
@@ -109,19 +117,56 @@ class UserServiceTest {
 
         assertEquals(expectedResult, actualResult);
         verify(userRepository).deleteById(expectedUserId);
+        verify(itemSearchIndex).removeOwner(expectedUserId);
+        verify(userInfoCache).evict(expectedUserId);
     }
 
     @Test
     void getUser_whenUserFound_thenReturnedUser() {
         when(userRepository.findById(expectedUserId)).thenReturn(Optional.of(expectedUser));
 
-        User actualUser = userService.getUser(expectedUserId);
+        UserInfo actualUser = userService.getUser(expectedUserId);
 
-        assertEquals(expectedUser, actualUser);
-        assertEquals(expectedUser.hashCode(), actualUser.hashCode());
+        assertEquals(UserInfo.of(expectedUser), actualUser);
         verify(userRepository).findById(expectedUserId);
     }
 
+    @Test
+    void getUser_whenInvokedTwice_thenLoadedOnce() {
+        expectedUser.setId(expectedUserId);
+        when(userRepository.findById(expectedUserId)).thenReturn(Optional.of(expectedUser));
+
+        userService.getUser(expectedUserId);
+        UserInfo actualUser = userService.getUser(expectedUserId);
+
+        assertEquals(UserInfo.of(expectedUser), actualUser);
+        verify(userRepository, times(1)).findById(expectedUserId);
+    }
+
+    @Test
+    void getUser_whenUserUpdatedWhileLoading_thenLoadedUserNotCached() {
+        expectedUser.setId(expectedUserId);
+        when(userRepository.findById(expectedUserId)).thenAnswer(invocation -> {
+            userInfoCache.evict(expectedUserId);
+            return Optional.of(expectedUser);
+        });
+
+        userService.getUser(expectedUserId);
+
+        assertEquals(Optional.empty(), userInfoCache.get(expectedUserId));
+    }
+
+    @Test
+    void updateUser_whenUserCached_thenEvicted() {
+        expectedUser.setId(expectedUserId);
+        userInfoCache.put(UserInfo.of(expectedUser), userInfoCache.stamp(expectedUserId));
+        when(userRepository.findById(expectedUserId)).thenReturn(Optional.of(expectedUser));
+
+        userService.updateUser(expectedDtoUser, expectedUserId);
+
+        assertEquals(Optional.empty(), userInfoCache.get(expectedUserId));
+    }
+
     @Test
     void getUser_whenUserNotFound_thenNotFoundExceptionThrown() {
         when(userRepository.findById(expectedUserId)).thenReturn(Optional.empty());
@@ -131,6 +176,52 @@ class UserServiceTest {
         verify(userRepository).findById(expectedUserId);
     }
 
+    @Test
+    void getUserReference_whenUserExists_thenReferenceReturnedWithoutLoading() {
+        when(userRepository.existsById(expectedUserId)).thenReturn(true);
+        when(userRepository.getReferenceById(expectedUserId)).thenReturn(expectedUser);
+
+        User actualUser = userService.getUserReference(expectedUserId);
+
+        assertEquals(expectedUser, actualUser);
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getUserReference_whenUserNotFound_thenNotFoundExceptionThrown() {
+        when(userRepository.existsById(expectedUserId)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> userService.getUserReference(expectedUserId));
+        verify(userRepository, never()).getReferenceById(anyLong());
+    }
+
+    @Test
+    void requireExists_whenUserExists_thenEntityNotLoaded() {
+        when(userRepository.existsById(expectedUserId)).thenReturn(true);
+
+        userService.requireExists(expectedUserId);
+
+        verify(userRepository).existsById(expectedUserId);
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void requireExists_whenUserCachedButDeleted_thenNotFoundExceptionThrown() {
+        expectedUser.setId(expectedUserId);
+        userInfoCache.put(UserInfo.of(expectedUser), userInfoCache.stamp(expectedUserId));
+        when(userRepository.existsById(expectedUserId)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> userService.requireExists(expectedUserId));
+    }
+
+    @Test
+    void requireExists_whenUserNotFound_thenNotFoundExceptionThrown() {
+        when(userRepository.existsById(expectedUserId)).thenReturn(false);
+
+        assertThrows(NotFoundException.class,
+                () -> userService.requireExists(expectedUserId));
+    }
+
     @Test
     void getAllUsers_whenInvoked_thenReturnUsers() {
         List<User> expectedUsers = List.of(expectedUser);